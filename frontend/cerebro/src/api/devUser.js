@@ -0,0 +1,11 @@
+import axios from 'axios';
+
+// There is no login yet. By default the backend serves every request as its
+// single user (cerebro.auth.single-user-id). One started with
+// cerebro.auth.dev-header.enabled=true takes the user from X-User-Id
+// instead; set VITE_DEV_USER_ID to send it.
+export const devUserHeaders = import.meta.env.VITE_DEV_USER_ID
+  ? { 'X-User-Id': import.meta.env.VITE_DEV_USER_ID }
+  : {};
+
+Object.assign(axios.defaults.headers.common, devUserHeaders);
@@ -32,10 +32,24 @@ import {
 
 
 
+// Summaries per request; GET /summaries returns X-Next-Cursor while more remain
+
+const PAGE_SIZE = 50;
+
+
+
 export default function AiHistory() {
 
+  const apiUrl = "http://localhost:8080/api/ai/conversations";
+
   const [history, setHistory]             = useState([]);
 
+  const [details, setDetails]             = useState({}); // id -> full conversation
+
+  const [nextCursor, setNextCursor]       = useState(null);
+
+  const [loadingMore, setLoadingMore]     = useState(false);
+
   const [loading, setLoading]             = useState(true);
 
   const [error, setError]                 = useState(null);
@@ -116,10 +130,14 @@ export default function AiHistory() {
 
     try {
 
-      const res = await axios.get("http://localhost:8080/api/ai/conversations");
+      // Ids, dates and prompt previews only; bodies are loaded on expand
+
+      const res = await axios.get(`${apiUrl}/summaries`, { params: { limit: PAGE_SIZE } });
 
       setHistory(res.data || []);
 
+      setNextCursor(res.headers["x-next-cursor"] ?? null);
+
       setError(null);
 
     } catch (err) {
@@ -138,6 +156,50 @@ export default function AiHistory() {
 
 
 
+  async function loadMore() {
+
+    if (!nextCursor) return;
+
+    setLoadingMore(true);
+
+    try {
+
+      const res = await axios.get(`${apiUrl}/summaries`, { params: { before: nextCursor, limit: PAGE_SIZE } });
+
+      setHistory(prev => [...prev, ...(res.data || [])]);
+
+      setNextCursor(res.headers["x-next-cursor"] ?? null);
+
+    } catch (err) {
+
+      console.error("Failed to fetch more conversations:", err);
+
+      showNotification("Failed to load more conversations", "error");
+
+    } finally {
+
+      setLoadingMore(false);
+
+    }
+
+  }
+
+
+
+  async function fetchDetail(id) {
+
+    if (details[id]) return details[id];
+
+    const res = await axios.get(`${apiUrl}/${id}`);
+
+    setDetails(prev => ({ ...prev, [id]: res.data }));
+
+    return res.data;
+
+  }
+
+
+
   function showNotification(message, type) {
 
     setNotification({ visible: true, message, type });
@@ -156,9 +218,29 @@ export default function AiHistory() {
 
 
 
-  function toggleExpand(id) {
+  async function toggleExpand(id) {
+
+    if (expandedItem === id) {
+
+      setExpandedItem(null);
+
+      return;
+
+    }
+
+    setExpandedItem(id);
 
-    setExpandedItem(expandedItem === id ? null : id);
+    try {
+
+      await fetchDetail(id);
+
+    } catch (err) {
+
+      console.error("Failed to fetch conversation:", err);
+
+      showNotification("Failed to load conversation", "error");
+
+    }
 
   }
 
@@ -228,15 +310,35 @@ export default function AiHistory() {
 
 
 
-  function exportHistory() {
+  async function exportHistory() {
+
+    let dataToExport;
 
-    const dataToExport =
+    try {
 
-      selectedItems.length > 0
+      if (selectedItems.length > 0) {
 
-        ? history.filter(item => selectedItems.includes(item.id))
+        dataToExport = await Promise.all(selectedItems.map(fetchDetail));
 
-        : history;
+      } else {
+
+        // Everything, streamed as one JSON object per line
+
+        const res = await axios.get(`${apiUrl}/stream`, { responseType: "text" });
+
+        dataToExport = res.data.split("\n").filter(Boolean).map(line => JSON.parse(line));
+
+      }
+
+    } catch (err) {
+
+      console.error("Failed to export conversations:", err);
+
+      showNotification("Failed to export history", "error");
+
+      return;
+
+    }
 
 
 
@@ -268,13 +370,9 @@ export default function AiHistory() {
 
     .filter(item => {
 
-      // guard against null prompt/answer
-
-      const prompt = item.prompt ?? "";
-
-      const answer = item.answer ?? "";
+      // Searches the loaded prompt previews, not the full bodies
 
-      const text = (prompt + answer).toLowerCase();
+      const text = (item.promptPreview ?? "").toLowerCase();
 
       if (!text.includes(searchTerm.toLowerCase())) return false;
 
@@ -456,7 +554,7 @@ export default function AiHistory() {
 
                 type="text"
 
-                placeholder="Search conversations..."
+                placeholder="Search questions..."
 
                 value={searchTerm}
 
@@ -804,15 +902,25 @@ export default function AiHistory() {
 
                       <button
 
-                        onClick={() =>
+                        onClick={async () =>
 
                           {
 
-                            const text = `Q: ${convo.prompt ?? ""}\n\nA: ${convo.answer ?? ""}`;
+                            try {
+
+                              const full = await fetchDetail(convo.id);
+
+                              const text = `Q: ${full.prompt ?? ""}\n\nA: ${full.answer ?? ""}`;
+
+                              await navigator.clipboard.writeText(text);
 
-                            navigator.clipboard.writeText(text);
+                              showNotification("Copied to clipboard!", "success");
 
-                            showNotification("Copied to clipboard!", "success");
+                            } catch {
+
+                              showNotification("Failed to copy conversation", "error");
+
+                            }
 
                           }
 
@@ -866,7 +974,11 @@ export default function AiHistory() {
 
                       <span className={expandedItem === convo.id ? "" : "line-clamp-2"}>
 
-                        {convo.prompt ?? ""}
+                        {expandedItem === convo.id && details[convo.id]
+
+                          ? details[convo.id].prompt ?? ""
+
+                          : convo.promptPreview ?? ""}
 
                       </span>
 
@@ -888,7 +1000,15 @@ export default function AiHistory() {
 
                         <div className="prose prose-sm max-w-none prose-invert prose-headings:text-gray-200 prose-a:text-blue-400">
 
-                          <ReactMarkdown>{convo.answer ?? ""}</ReactMarkdown>
+                          {details[convo.id] ? (
+
+                            <ReactMarkdown>{details[convo.id].answer ?? ""}</ReactMarkdown>
+
+                          ) : (
+
+                            <p className="text-gray-400">Loading answer...</p>
+
+                          )}
 
                         </div>
 
@@ -938,6 +1058,28 @@ export default function AiHistory() {
 
           )}
 
+          {!loading && !error && nextCursor && (
+
+            <div className="mt-6 text-center">
+
+              <button
+
+                onClick={loadMore}
+
+                disabled={loadingMore}
+
+                className="px-4 py-2 bg-white/10 hover:bg-white/20 text-white rounded-lg disabled:opacity-50"
+
+              >
+
+                {loadingMore ? "Loading..." : "Load more"}
+
+              </button>
+
+            </div>
+
+          )}
+
         </div>
 
 
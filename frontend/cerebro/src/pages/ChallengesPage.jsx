@@ -2,7 +2,6 @@ import React, { useEffect, useState } from "react";
 import axios from "axios";
 
 const ChallengePage = () => {
-  const userId = 1; // Used for fetching progress
   const [challenges, setChallenges] = useState([]);
   const [progressData, setProgressData] = useState([]);
   const [isFormOpen, setIsFormOpen] = useState(false);
@@ -39,7 +38,7 @@ const ChallengePage = () => {
   // fetch progress for current user
   const fetchProgress = async () => {
     try {
-      const res = await axios.get(`http://localhost:8080/api/challenges/progress/${userId}`);
+      const res = await axios.get("http://localhost:8080/api/challenges/progress");
       setProgressData(res.data);
     } catch (err) {
       console.error("Failed to fetch progress:", err);
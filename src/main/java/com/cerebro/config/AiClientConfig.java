@@ -0,0 +1,41 @@
+package com.cerebro.config;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class AiClientConfig {
+
+    /**
+     * One client for all provider traffic, so calls share pooled connections
+     * (multiplexed over HTTP/2 where the provider negotiates it). The read
+     * timeout bounds the gap between bytes, which suits streamed responses;
+     * whole-call limits are set per call.
+     */
+    @Bean
+    public OkHttpClient aiHttpClient(@Value("${cerebro.ai.timeout-seconds:60}") long timeoutSeconds,
+                                     @Value("${cerebro.ai.pool.max-idle:16}") int maxIdle,
+                                     @Value("${cerebro.ai.pool.max-requests:128}") int maxRequests) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequests);
+
+        return new OkHttpClient.Builder()
+            .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .connectionPool(new ConnectionPool(maxIdle, 5, TimeUnit.MINUTES))
+            .dispatcher(dispatcher)
+            .connectTimeout(Duration.ofSeconds(10))
+            .readTimeout(Duration.ofSeconds(timeoutSeconds))
+            .writeTimeout(Duration.ofSeconds(timeoutSeconds))
+            .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.cerebro.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Development only (cerebro.auth.dev-header.enabled): trusts the
+ * {@value #HEADER} request header as the authenticated user, so local
+ * clients, tests and the load generator can act as any user without a login.
+ * Anyone who can reach the server can do the same, so it must stay off in
+ * production. Requests without the header stay unauthenticated. Users listed
+ * in cerebro.auth.dev-header.admin-ids are also granted {@value SecurityConfig#ADMIN_ROLE}.
+ */
+public class DevUserHeaderFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-User-Id";
+
+    private final Set<Long> adminIds;
+
+    public DevUserHeaderFilter(Set<Long> adminIds) {
+        this.adminIds = Set.copyOf(adminIds);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HEADER);
+        if (header != null && !header.isBlank()) {
+            long userId = parse(header.trim());
+            if (userId <= 0) {
+                response.sendError(HttpStatus.BAD_REQUEST.value(), HEADER + " must be a positive number");
+                return;
+            }
+            List<SimpleGrantedAuthority> authorities = adminIds.contains(userId)
+                ? List.of(new SimpleGrantedAuthority(SecurityConfig.ADMIN_ROLE))
+                : List.of();
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(Long.toString(userId), null, authorities));
+            SecurityContextHolder.setContext(context);
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static long parse(String header) {
+        try {
+            return Long.parseLong(header);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.cerebro.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the SQL each controller method issues per request
+ * (cerebro.http.sql.queries / .rows / .time, tagged by handler) and warns
+ * about requests above {@code cerebro.sql.request-warn-queries}.
+ *
+ * Only work on the request thread is counted; the async part of SSE and
+ * streamed responses, and the progress lanes, are not attributed.
+ */
+@Component
+public class RequestSqlMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestSqlMetricsInterceptor.class);
+
+    private final MeterRegistry registry;
+    private final int warnQueries;
+
+    public RequestSqlMetricsInterceptor(MeterRegistry registry,
+                                        @Value("${cerebro.sql.request-warn-queries:20}") int warnQueries) {
+        this.registry    = registry;
+        this.warnQueries = warnQueries;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            RequestSqlStats.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // The async dispatch that completes the request is measured on its own
+        RequestSqlStats.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        RequestSqlStats stats = RequestSqlStats.end();
+        if (stats == null || !(handler instanceof HandlerMethod method)) {
+            return;
+        }
+        request.setAttribute(RequestSqlStats.ATTRIBUTE, stats);
+
+        String name = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        DistributionSummary.builder("cerebro.http.sql.queries")
+            .tag("handler", name)
+            .register(registry)
+            .record(stats.queries());
+        DistributionSummary.builder("cerebro.http.sql.rows")
+            .tag("handler", name)
+            .register(registry)
+            .record(stats.rows());
+        Timer.builder("cerebro.http.sql.time")
+            .tag("handler", name)
+            .register(registry)
+            .record(stats.dbNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.queries() > warnQueries) {
+            Counter.builder("cerebro.http.sql.over-threshold")
+                .tag("handler", name)
+                .register(registry)
+                .increment();
+            log.warn("{} {} ({}) ran {}", request.getMethod(), request.getRequestURI(), name, stats);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.cerebro.config;
+
+/**
+ * JDBC work done on one request thread: statements executed, result rows
+ * read and time spent inside execute calls. Filled in by
+ * {@link SqlMetricsDataSource} while a request is being handled.
+ */
+public final class RequestSqlStats {
+
+    /** Request attribute holding the finished stats (read by tests). */
+    public static final String ATTRIBUTE = RequestSqlStats.class.getName();
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private int queries;
+    private long rows;
+    private long dbNanos;
+
+    static RequestSqlStats begin() {
+        RequestSqlStats stats = new RequestSqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static RequestSqlStats end() {
+        RequestSqlStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    /** Stats of the request on this thread, or null outside a request. */
+    static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    void statementExecuted(long nanos) {
+        queries++;
+        dbNanos += nanos;
+    }
+
+    void rowRead() {
+        rows++;
+    }
+
+    public int queries() {
+        return queries;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    public long dbNanos() {
+        return dbNanos;
+    }
+
+    @Override
+    public String toString() {
+        return queries + " queries, " + rows + " rows, " + dbNanos / 1_000_000 + " ms in DB";
+    }
+}
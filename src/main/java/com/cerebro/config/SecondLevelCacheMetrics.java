@@ -0,0 +1,72 @@
+package com.cerebro.config;
+
+import com.cerebro.model.Challenge;
+import com.cerebro.model.Course;
+import com.cerebro.model.Topic;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Hit/miss counters and hit ratios for the second-level cache regions that
+ * hold reference data, plus the query result cache.
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    // Metric tag -> region name (Hibernate names regions after the entity/role)
+    private static final Map<String, String> REGIONS = Map.of(
+        "course",        Course.class.getName(),
+        "course.topics", Course.class.getName() + ".topics",
+        "topic",         Topic.class.getName(),
+        "challenge",     Challenge.class.getName());
+
+    private final Statistics stats;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory emf) {
+        this.stats = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        REGIONS.forEach((tag, region) -> bind(registry, tag,
+            s -> region(s, region).getHitCount(),
+            s -> region(s, region).getMissCount()));
+        bind(registry, "all",
+            Statistics::getSecondLevelCacheHitCount,
+            Statistics::getSecondLevelCacheMissCount);
+        bind(registry, "query",
+            Statistics::getQueryCacheHitCount,
+            Statistics::getQueryCacheMissCount);
+    }
+
+    private void bind(MeterRegistry registry, String region,
+                      ToLongFunction<Statistics> hits, ToLongFunction<Statistics> misses) {
+        FunctionCounter.builder("cerebro.l2cache.requests", stats, s -> hits.applyAsLong(s))
+            .tags("region", region, "result", "hit")
+            .register(registry);
+        FunctionCounter.builder("cerebro.l2cache.requests", stats, s -> misses.applyAsLong(s))
+            .tags("region", region, "result", "miss")
+            .register(registry);
+        Gauge.builder("cerebro.l2cache.hit.ratio", stats, s -> {
+                long h = hits.applyAsLong(s);
+                long total = h + misses.applyAsLong(s);
+                return total == 0 ? 0.0 : (double) h / total;
+            })
+            .tag("region", region)
+            .register(registry);
+    }
+
+    private static CacheRegionStatistics region(Statistics stats, String region) {
+        return stats.getDomainDataRegionStatistics(region);
+    }
+}
@@ -1,23 +1,60 @@
 package com.cerebro.config;
 
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
 
+import java.util.Set;
 
+
+/**
+ * Every API call needs an authenticated user, which {@link CurrentUser}
+ * resolves; unauthenticated ones get 401. Out of the box the
+ * {@link SingleUserFilter} authenticates every request as
+ * cerebro.auth.single-user-id. The development {@link DevUserHeaderFilter},
+ * off unless cerebro.auth.dev-header.enabled is set, runs first, so its
+ * header picks another user.
+ */
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /** Authority allowed to edit or delete any challenge */
+    public static final String ADMIN_ROLE = "ROLE_ADMIN";
+
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           @Value("${cerebro.auth.dev-header.enabled:false}") boolean devHeader,
+                                           @Value("${cerebro.auth.dev-header.admin-ids:}") Set<Long> devAdminIds,
+                                           @Value("${cerebro.auth.single-user-id:}") Long singleUserId)
+            throws Exception {
         http
         .csrf(csrf -> csrf.disable())
+            // Answers CORS preflights from the controllers' @CrossOrigin before authentication
+            .cors(Customizer.withDefaults())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
-                .anyRequest().permitAll()
-            );
+                // Streamed responses and error pages were authorized on the original dispatch
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                .anyRequest().authenticated()
+            )
+            .exceptionHandling(e -> e.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
+        if (devHeader) {
+            http.addFilterBefore(new DevUserHeaderFilter(devAdminIds), AnonymousAuthenticationFilter.class);
+        }
+        if (singleUserId != null) {
+            http.addFilterBefore(new SingleUserFilter(singleUserId), AnonymousAuthenticationFilter.class);
+        }
         return http.build();
     }
 }
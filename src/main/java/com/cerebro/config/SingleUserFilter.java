@@ -0,0 +1,47 @@
+package com.cerebro.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Single-user mode (cerebro.auth.single-user-id, the default): a request that
+ * nothing else authenticated acts as that user, as the app did before
+ * accounts existed, when every row belonged to user 1. Being the only user,
+ * they also hold {@value SecurityConfig#ADMIN_ROLE}. Anyone who can reach the
+ * server is that user, so clear the property wherever more than one person
+ * can; requests without a principal then get 401.
+ */
+public class SingleUserFilter extends OncePerRequestFilter {
+
+    private final Authentication user;
+
+    public SingleUserFilter(long userId) {
+        if (userId <= 0) {
+            throw new IllegalArgumentException("cerebro.auth.single-user-id must be a positive number");
+        }
+        this.user = UsernamePasswordAuthenticationToken.authenticated(
+            Long.toString(userId), null, List.of(new SimpleGrantedAuthority(SecurityConfig.ADMIN_ROLE)));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(user);
+            SecurityContextHolder.setContext(context);
+        }
+        chain.doFilter(request, response);
+    }
+}
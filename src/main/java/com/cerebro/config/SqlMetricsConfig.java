@@ -0,0 +1,24 @@
+package com.cerebro.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SqlMetricsConfig {
+
+    /** Routes the pool through {@link SqlMetricsDataSource} for per-request SQL metrics. */
+    @Bean
+    public static BeanPostProcessor sqlMetricsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource ds && !(bean instanceof SqlMetricsDataSource)
+                    ? new SqlMetricsDataSource(ds)
+                    : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package com.cerebro.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps the pool so statements run on a request thread are counted into
+ * that thread's {@link RequestSqlStats}. Hibernate, Spring Data and
+ * JdbcTemplate all go through here. Off a request thread the wrappers only
+ * forward calls.
+ */
+class SqlMetricsDataSource extends DelegatingDataSource {
+
+    SqlMetricsDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, super.getConnection(username, password));
+    }
+
+    private static <T> T wrap(Class<T> type, T target) {
+        Object proxy = Proxy.newProxyInstance(
+            SqlMetricsDataSource.class.getClassLoader(), new Class<?>[] {type}, new Forwarder(target));
+        return type.cast(proxy);
+    }
+
+    private static final class Forwarder implements InvocationHandler {
+
+        private final Object target;
+
+        Forwarder(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            // Hibernate keys its statement registry by the objects it was handed
+            if (name.equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            RequestSqlStats stats = RequestSqlStats.current();
+            boolean execute = stats != null && target instanceof Statement && name.startsWith("execute");
+            long start = execute ? System.nanoTime() : 0;
+
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if (execute) {
+                stats.statementExecuted(System.nanoTime() - start);
+            } else if (stats != null && target instanceof ResultSet && name.equals("next")
+                       && Boolean.TRUE.equals(result)) {
+                stats.rowRead();
+            }
+            return wrapResult(result);
+        }
+
+        private static Object wrapResult(Object result) {
+            // Most specific interface first: CallableStatement extends PreparedStatement extends Statement
+            if (result instanceof CallableStatement cs) {
+                return wrap(CallableStatement.class, cs);
+            }
+            if (result instanceof PreparedStatement ps) {
+                return wrap(PreparedStatement.class, ps);
+            }
+            if (result instanceof Statement s) {
+                return wrap(Statement.class, s);
+            }
+            if (result instanceof ResultSet rs) {
+                return wrap(ResultSet.class, rs);
+            }
+            return result;
+        }
+    }
+}
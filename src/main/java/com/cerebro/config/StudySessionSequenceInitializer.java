@@ -0,0 +1,46 @@
+package com.cerebro.config;
+
+import com.cerebro.model.StudySession;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * study_session ids used to come from AUTO_INCREMENT. On MySQL the pooled
+ * sequence is emulated with the study_session_seq table, which starts at 1,
+ * so move it past any id already handed out before the first insert.
+ *
+ * The pooled optimizer reads next_val as the top of its block and hands out
+ * the {@link StudySession#ID_ALLOCATION_SIZE} ids up to it, so the table has
+ * to hold at least MAX(id) + allocation size for the first block to start
+ * above the existing rows.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class StudySessionSequenceInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(StudySessionSequenceInitializer.class);
+
+    private final JdbcTemplate jdbc;
+
+    public StudySessionSequenceInitializer(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @PostConstruct
+    public void alignWithExistingRows() {
+        try {
+            jdbc.update("""
+                UPDATE study_session_seq
+                SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + ? FROM study_session))
+                """, StudySession.ID_ALLOCATION_SIZE);
+        } catch (DataAccessException e) {
+            // Dialects with native sequences have no backing table to align
+            log.debug("No table-backed study_session_seq to align: {}", e.getMessage());
+        }
+    }
+}
@@ -1,28 +1,34 @@
 // src/main/java/com/cerebro/controller/AiConversationController.java
 package com.cerebro.controller;
 
+import com.cerebro.config.CurrentUser;
+import com.cerebro.dto.AiConversationSummary;
 import com.cerebro.dto.AiSaveRequest;
 import com.cerebro.model.AiConversation;
 import com.cerebro.repository.AiConversationRepository;
 import com.cerebro.service.AiConversationService;
 import java.util.List;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/ai/conversations")
-@CrossOrigin(origins = "http://localhost:5173")
+@CrossOrigin(origins = "http://localhost:5173", exposedHeaders = KeysetPages.NEXT_CURSOR)
 public class AiConversationController {
 
     private final AiConversationService service;
     private final AiConversationRepository repo;
+    private final NdjsonExporter exporter;
 
     public AiConversationController(
         AiConversationService service,
-        AiConversationRepository repo) {
-        this.service = service;
-        this.repo    = repo;
+        AiConversationRepository repo,
+        NdjsonExporter exporter) {
+        this.service  = service;
+        this.repo     = repo;
+        this.exporter = exporter;
     }
 
     /**
@@ -31,14 +37,47 @@ public class AiConversationController {
      * Returns saved AiConversation with ID + timestamp.
      */
     @PostMapping
-    public ResponseEntity<AiConversation> save(@RequestBody AiSaveRequest body) {
-        AiConversation saved = service.save(body.getPrompt(), body.getAnswer());
+    public ResponseEntity<AiConversation> save(@CurrentUser long userId, @RequestBody AiSaveRequest body) {
+        AiConversation saved = service.save(userId, body.getPrompt(), body.getAnswer());
         return ResponseEntity.ok(saved);
     }
 
-        @GetMapping
-        public List<AiConversation> listAll() {
-        // return most recent first
-        return repo.findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
+    /**
+     * Most recent first, one keyset page at a time; pass the X-Next-Cursor
+     * value back as {@code before} for the next one. History listings should
+     * use /summaries, which leaves the bodies out.
+     */
+    @GetMapping
+    public ResponseEntity<List<AiConversation>> listAll(@CurrentUser long userId,
+                                                        @RequestParam(required = false) Long before,
+                                                        @RequestParam(defaultValue = "50") int limit) {
+        int n = KeysetPages.clamp(limit);
+        List<AiConversation> page = repo.findByUserIdAndIdLessThanOrderByIdDesc(
+            userId, before != null ? before : Long.MAX_VALUE, Limit.of(n));
+        return KeysetPages.respond(page, n, AiConversation::getId);
+    }
+
+    /**
+     * History listing without prompt/answer bodies, newest first, paged like
+     * {@link #listAll}. Fetch a body with GET /{id}.
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<List<AiConversationSummary>> listSummaries(@CurrentUser long userId,
+                                                                     @RequestParam(required = false) Long before,
+                                                                     @RequestParam(defaultValue = "50") int limit) {
+        int n = KeysetPages.clamp(limit);
+        return KeysetPages.respond(service.getSummaries(userId, before, n), n, AiConversationSummary::id);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<AiConversation> getById(@CurrentUser long userId, @PathVariable Long id) {
+        return service.getConversation(userId, id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAll(@CurrentUser long userId) {
+        return exporter.response(() -> repo.streamAllByUserIdOrderByIdAsc(userId));
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.cerebro.controller;
+
+import com.cerebro.config.CurrentUser;
+import com.cerebro.dto.AiAnswer;
+import com.cerebro.dto.AiAskRequest;
+import com.cerebro.service.AiGatewayService;
+import com.cerebro.service.AiProviderException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/ai")
+@CrossOrigin(origins = "http://localhost:5173", exposedHeaders = AiGatewayController.CACHE_HEADER)
+public class AiGatewayController {
+
+    private static final Logger log = LoggerFactory.getLogger(AiGatewayController.class);
+
+    /** Request: "bypass" skips the cache. Response: MEMORY, DATABASE or PROVIDER. */
+    static final String CACHE_HEADER = "X-AI-Cache";
+
+    private final AiGatewayService gateway;
+    private final long streamTimeoutMs;
+
+    public AiGatewayController(AiGatewayService gateway,
+                               @Value("${cerebro.ai.stream-timeout-seconds:300}") long streamTimeoutSeconds) {
+        this.gateway         = gateway;
+        this.streamTimeoutMs = TimeUnit.SECONDS.toMillis(streamTimeoutSeconds);
+    }
+
+    /**
+     * POST /api/ai/ask
+     * Request body: { prompt: "..." }
+     * Returns the answer and the id of the stored AiConversation.
+     */
+    @PostMapping("/ask")
+    public ResponseEntity<AiAnswer> ask(@CurrentUser long userId,
+                                        @RequestBody AiAskRequest body,
+                                        @RequestHeader(value = CACHE_HEADER, required = false) String cacheMode) {
+        if (body.prompt() == null || body.prompt().isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            AiAnswer answer = gateway.ask(userId, body.prompt(), "bypass".equalsIgnoreCase(cacheMode));
+            return ResponseEntity.ok()
+                .header(CACHE_HEADER, answer.source().name())
+                .body(answer);
+        } catch (AiProviderException e) {
+            log.warn("AI provider call failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+        }
+    }
+
+    /**
+     * POST /api/ai/chat
+     * Request body: { prompt: "..." }
+     * Server-Sent Events: "token" events ({text}) as the model produces them,
+     * then "done" ({conversationId, source}) or "error" ({message}).
+     */
+    @PostMapping(value = "/chat", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> chat(@CurrentUser long userId,
+                                           @RequestBody AiAskRequest body,
+                                           @RequestHeader(value = CACHE_HEADER, required = false) String cacheMode) {
+        if (body.prompt() == null || body.prompt().isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        boolean bypass = "bypass".equalsIgnoreCase(cacheMode);
+
+        // One virtual thread per stream; it blocks on the client write, which
+        // in turn holds back the upstream read
+        Thread.ofVirtual()
+            .name("ai-chat")
+            .start(() -> relay(emitter, userId, body.prompt(), bypass));
+        return ResponseEntity.ok()
+            .header("X-Accel-Buffering", "no")
+            .body(emitter);
+    }
+
+    private void relay(SseEmitter emitter, long userId, String prompt, boolean bypass) {
+        try {
+            AiAnswer answer = gateway.stream(userId, prompt, bypass, text -> send(emitter, "token", Map.of("text", text)));
+            send(emitter, "done", Map.of("conversationId", answer.conversationId(), "source", answer.source()));
+            emitter.complete();
+        } catch (AiProviderException e) {
+            log.warn("AI provider stream failed: {}", e.getMessage());
+            try {
+                send(emitter, "error", Map.of("message", "AI provider unavailable"));
+                emitter.complete();
+            } catch (UncheckedIOException gone) {
+                // client already gone
+            }
+        } catch (UncheckedIOException e) {
+            log.debug("Chat client disconnected: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            // Anything else (saving the conversation, serialization): end the
+            // stream now instead of leaving it open until the emitter times out
+            log.error("AI chat stream failed", e);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static void send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (IllegalStateException e) {
+            // Emitter already completed, e.g. timed out
+            throw new UncheckedIOException(new IOException(e.getMessage(), e));
+        }
+    }
+}
@@ -1,15 +1,22 @@
 package com.cerebro.controller;
 
+import com.cerebro.config.CurrentUser;
+import com.cerebro.config.SecurityConfig;
 import com.cerebro.model.Challenge;
 import com.cerebro.model.UserChallengeProgress;
-import com.cerebro.repository.ChallengeRepository;
 import com.cerebro.repository.UserChallengeProgressRepository;
 import com.cerebro.service.ChallengeService;
+import com.cerebro.service.DashboardVersions;
+import com.cerebro.service.DashboardVersions.Aggregate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @CrossOrigin(origins = "http://localhost:5173")
 @RestController
@@ -17,16 +24,16 @@ import java.util.List;
 public class ChallengeController {
 
     private final ChallengeService challengeService;
-    private final ChallengeRepository challengeRepo;
     private final UserChallengeProgressRepository progressRepo;
+    private final DashboardVersions versions;
 
     @Autowired
     public ChallengeController(ChallengeService challengeService,
-                               ChallengeRepository challengeRepo,
-                               UserChallengeProgressRepository progressRepo) {
+                               UserChallengeProgressRepository progressRepo,
+                               DashboardVersions versions) {
         this.challengeService = challengeService;
-        this.challengeRepo    = challengeRepo;
         this.progressRepo     = progressRepo;
+        this.versions         = versions;
     }
 
     /** 1) List all challenges */
@@ -35,42 +42,64 @@ public class ChallengeController {
         return ResponseEntity.ok(challengeService.getAllChallenges());
     }
 
-    /** 2) Get progress entries for a specific user */
-    @GetMapping("/progress/{userId}")
-    public ResponseEntity<List<UserChallengeProgress>> getProgress(@PathVariable Long userId) {
-        return ResponseEntity.ok(challengeService.getProgressForUser(userId));
+    /** 2) Get progress entries for the caller; a user id in the path must be the caller's own */
+    @GetMapping({"/progress", "/progress/{userId}"})
+    public ResponseEntity<List<UserChallengeProgress>> getProgress(@CurrentUser long currentUserId,
+                                                                   @PathVariable(required = false) Long userId,
+                                                                   WebRequest request) {
+        if (userId != null && userId != currentUserId) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ConditionalGets.respond(request, versions.etag(currentUserId, Aggregate.CHALLENGES),
+            () -> challengeService.getProgressForUser(currentUserId));
     }
 
-    /** 3) Create a new challenge (hard-coded userId=1) */
+    /** 3) Create a new challenge, with a progress row for the caller */
     @PostMapping
-    public ResponseEntity<Challenge> create(@RequestBody Challenge challenge) {
-        Challenge saved = challengeService.createChallenge(1L, challenge);
+    public ResponseEntity<Challenge> create(@CurrentUser long userId, @RequestBody Challenge challenge) {
+        Challenge saved = challengeService.createChallenge(userId, challenge);
         return ResponseEntity.ok(saved);
     }
 
-    /** 4) Update challenge metadata */
+    /** 4) Update challenge metadata; creator or admin only */
     @PutMapping("/{id}")
-    public ResponseEntity<Challenge> update(@PathVariable Long id,
+    public ResponseEntity<Challenge> update(@CurrentUser long userId,
+                                            Authentication auth,
+                                            @PathVariable Long id,
                                             @RequestBody Challenge updated) {
-        return challengeRepo.findById(id)
-            .map(existing -> {
-                existing.setTitle(updated.getTitle());
-                existing.setDescription(updated.getDescription());
-                existing.setType(updated.getType());
-                existing.setTargetValue(updated.getTargetValue());
-                existing.setTargetMinutes(updated.getTargetMinutes());
-                existing.setStartDate(updated.getStartDate());
-                existing.setEndDate(updated.getEndDate());
-                Challenge saved = challengeRepo.save(existing);
-                return ResponseEntity.ok(saved);
-            })
+        ResponseEntity<Challenge> denied = checkModify(id, userId, auth);
+        if (denied != null) {
+            return denied;
+        }
+        return challengeService.updateChallenge(id, updated)
+            .map(ResponseEntity::ok)
             .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    /** 5) Delete challenge + its progress rows */
+    /** 5) Delete challenge + every user's progress rows; creator or admin only */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
+    public ResponseEntity<Void> delete(@CurrentUser long userId,
+                                       Authentication auth,
+                                       @PathVariable Long id) {
+        ResponseEntity<Void> denied = checkModify(id, userId, auth);
+        if (denied != null) {
+            return denied;
+        }
         challengeService.deleteChallengeAndProgress(id);
         return ResponseEntity.ok().build();
     }
+
+    /** 404 or 403 if the caller may not change this challenge, otherwise null */
+    private <T> ResponseEntity<T> checkModify(Long id, long userId, Authentication auth) {
+        Optional<Challenge> challenge = challengeService.getChallenge(id);
+        if (challenge.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        boolean admin = auth.getAuthorities().stream()
+            .anyMatch(a -> SecurityConfig.ADMIN_ROLE.equals(a.getAuthority()));
+        if (!ChallengeService.mayModify(challenge.get(), userId, admin)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return null;
+    }
 }
\ No newline at end of file
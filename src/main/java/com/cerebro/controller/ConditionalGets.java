@@ -0,0 +1,35 @@
+package com.cerebro.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for endpoints whose ETag is known before the body is
+ * computed (see {@link com.cerebro.service.DashboardVersions}). A matching
+ * If-None-Match gets a 304 without the body supplier, and so the database,
+ * ever being called.
+ */
+final class ConditionalGets {
+
+    // Clients may keep the response but must revalidate before each use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalGets() {}
+
+    static <T> ResponseEntity<T> respond(WebRequest request, String etag, Supplier<T> body) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(REVALIDATE)
+                .eTag(etag)
+                .build();
+        }
+        return ResponseEntity.ok()
+            .cacheControl(REVALIDATE)
+            .eTag(etag)
+            .body(body.get());
+    }
+}
@@ -1,8 +1,9 @@
 package com.cerebro.controller;
 
+import com.cerebro.config.CurrentUser;
 import com.cerebro.dto.CourseDTO;
+import com.cerebro.dto.TopicDTO;
 import com.cerebro.model.Course;
-import com.cerebro.model.Topic;
 import com.cerebro.service.CourseService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,32 +21,33 @@ public class CourseController {
     }
 
     @PostMapping
-    public ResponseEntity<Course> create(@RequestBody Course course) {
-        return ResponseEntity.ok(service.create(course));
+    public ResponseEntity<Course> create(@CurrentUser long userId, @RequestBody Course course) {
+        return ResponseEntity.ok(service.create(userId, course));
     }
 
     @GetMapping
-    public ResponseEntity<List<CourseDTO>> getAll() {
-        List<CourseDTO> courseDTOs = service.getAll().stream()
-                .map(course -> new CourseDTO(course.getId(), course.getName(), course.getDescription()))
+    public ResponseEntity<List<CourseDTO>> getAll(@CurrentUser long userId) {
+        List<CourseDTO> courseDTOs = service.getAll(userId).stream()
+                .map(CourseDTO::of)
                 .toList();
         return ResponseEntity.ok(courseDTOs);
     }
 
     @GetMapping("/{courseId}/topics")
-    public ResponseEntity<List<Topic>> getTopicsByCourse(@PathVariable Long courseId) {
-        List<Topic> topics = service.getTopicsByCourseId(courseId);
+    public ResponseEntity<List<TopicDTO>> getTopicsByCourse(@CurrentUser long userId, @PathVariable Long courseId) {
+        List<TopicDTO> topics = service.getTopicsByCourseId(userId, courseId);
         return ResponseEntity.ok(topics);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Course> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(service.getById(id));
+    public ResponseEntity<CourseDTO> getById(@CurrentUser long userId, @PathVariable Long id) {
+        Course course = service.getById(userId, id);
+        return course != null ? ResponseEntity.ok(CourseDTO.of(course)) : ResponseEntity.notFound().build();
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        service.delete(id);
+    public ResponseEntity<Void> delete(@CurrentUser long userId, @PathVariable Long id) {
+        service.delete(userId, id);
         return ResponseEntity.ok().build();
     }
 }
\ No newline at end of file
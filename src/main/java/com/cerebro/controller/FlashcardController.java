@@ -1,64 +1,97 @@
 package com.cerebro.controller;
 
+import com.cerebro.config.CurrentUser;
+import com.cerebro.dto.FlashcardReview;
 import com.cerebro.model.Flashcard;
 import com.cerebro.service.FlashcardService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
-@CrossOrigin(origins = "http://localhost:5173")
+@CrossOrigin(origins = "http://localhost:5173", exposedHeaders = KeysetPages.NEXT_CURSOR)
 @RestController
 @RequestMapping("/api/flashcards")
 public class FlashcardController {
 
     private final FlashcardService service;
+    private final NdjsonExporter exporter;
 
-    public FlashcardController(FlashcardService service) {
+    public FlashcardController(FlashcardService service, NdjsonExporter exporter) {
         this.service = service;
+        this.exporter = exporter;
     }
 
     @PostMapping
-    public ResponseEntity<Flashcard> create(@RequestBody Flashcard flashcard) {
-        return ResponseEntity.ok(service.createFlashcard(flashcard));
+    public ResponseEntity<Flashcard> create(@CurrentUser long userId, @RequestBody Flashcard flashcard) {
+        return ResponseEntity.ok(service.createFlashcard(userId, flashcard));
     }
 
     @GetMapping
-    public ResponseEntity<List<Flashcard>> getAll() {
-        return ResponseEntity.ok(service.getAllFlashcards());
+    public ResponseEntity<List<Flashcard>> getAll(@CurrentUser long userId,
+                                                  @RequestParam(required = false) Long after,
+                                                  @RequestParam(required = false) Integer limit) {
+        if (limit == null) {
+            return ResponseEntity.ok(service.getAllFlashcards(userId));
+        }
+        int n = KeysetPages.clamp(limit);
+        return KeysetPages.respond(service.getFlashcardsPage(userId, after, n), n, Flashcard::getId);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAll(@CurrentUser long userId) {
+        return exporter.response(() -> service.streamAllFlashcards(userId));
+    }
+
+    @GetMapping("/due")
+    public ResponseEntity<List<Flashcard>> due(@CurrentUser long userId, @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(service.getDueFlashcards(userId, KeysetPages.clamp(limit)));
+    }
+
+    @PostMapping("/{id}/review")
+    public ResponseEntity<Flashcard> review(@CurrentUser long userId, @PathVariable Long id,
+                                            @RequestBody FlashcardReview review) {
+        if (review.quality() < FlashcardService.MIN_QUALITY || review.quality() > FlashcardService.MAX_QUALITY) {
+            return ResponseEntity.badRequest().build();
+        }
+        return service.reviewFlashcard(userId, id, review.quality())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Flashcard> getById(@PathVariable Long id) {
-        return service.getFlashcardById(id)
+    public ResponseEntity<Flashcard> getById(@CurrentUser long userId, @PathVariable Long id) {
+        return service.getFlashcardById(userId, id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Flashcard> update(@PathVariable Long id, @RequestBody Flashcard flashcard) {
-        Flashcard updated = service.updateFlashcard(id, flashcard);
+    public ResponseEntity<Flashcard> update(@CurrentUser long userId, @PathVariable Long id,
+                                            @RequestBody Flashcard flashcard) {
+        Flashcard updated = service.updateFlashcard(userId, id, flashcard);
         return updated != null ? ResponseEntity.ok(updated) : ResponseEntity.notFound().build();
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        service.deleteFlashcard(id);
+    public ResponseEntity<Void> delete(@CurrentUser long userId, @PathVariable Long id) {
+        service.deleteFlashcard(userId, id);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/topic/{topic}")
-    public ResponseEntity<List<Flashcard>> byTopic(@PathVariable String topic) {
-        return ResponseEntity.ok(service.getFlashcardsByTopic(topic));
+    public ResponseEntity<List<Flashcard>> byTopic(@CurrentUser long userId, @PathVariable String topic) {
+        return ResponseEntity.ok(service.getFlashcardsByTopic(userId, topic));
     }
 
     @GetMapping("/bookmarked")
-    public ResponseEntity<List<Flashcard>> bookmarked() {
-        return ResponseEntity.ok(service.getBookmarkedFlashcards());
+    public ResponseEntity<List<Flashcard>> bookmarked(@CurrentUser long userId) {
+        return ResponseEntity.ok(service.getBookmarkedFlashcards(userId));
     }
 
     @GetMapping("/unmastered")
-    public ResponseEntity<List<Flashcard>> unmastered() {
-        return ResponseEntity.ok(service.getUnmasteredFlashcards());
+    public ResponseEntity<List<Flashcard>> unmastered(@CurrentUser long userId) {
+        return ResponseEntity.ok(service.getUnmasteredFlashcards(userId));
     }
 }
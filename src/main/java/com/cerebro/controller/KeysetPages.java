@@ -0,0 +1,36 @@
+package com.cerebro.controller;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Shared handling for keyset-paginated list endpoints
+ * ({@code ?after=<last id seen>&limit=<n>}, or {@code before=} on the
+ * newest-first lists).
+ *
+ * A page is still a plain JSON array; when more rows may follow, the cursor
+ * for the next request is returned in the {@value #NEXT_CURSOR} header.
+ */
+final class KeysetPages {
+
+    static final String NEXT_CURSOR = "X-Next-Cursor";
+    static final int MAX_LIMIT = 500;
+
+    private KeysetPages() {}
+
+    static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    static <T> ResponseEntity<List<T>> respond(List<T> items, int limit, Function<T, Long> idOf) {
+        if (items.size() < limit) {
+            return ResponseEntity.ok(items);
+        }
+        Long next = idOf.apply(items.get(items.size() - 1));
+        return ResponseEntity.ok()
+            .header(NEXT_CURSOR, String.valueOf(next))
+            .body(items);
+    }
+}
@@ -0,0 +1,56 @@
+package com.cerebro.controller;
+
+import com.cerebro.config.CurrentUser;
+import com.cerebro.dto.LiveSessionStart;
+import com.cerebro.dto.LiveSessionView;
+import com.cerebro.service.LiveSessionRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Server-side study timer. Start a session, send a heartbeat every 30 s or
+ * so while the student is studying, and stop it at the end. A session that
+ * misses heartbeats for cerebro.live.heartbeat-timeout-seconds is ended at
+ * its last heartbeat; its heartbeats then return 404.
+ */
+@RestController
+@RequestMapping("/api/sessions/live")
+@CrossOrigin(origins = "http://localhost:5173")
+public class LiveSessionController {
+
+    private final LiveSessionRegistry registry;
+
+    public LiveSessionController(LiveSessionRegistry registry) {
+        this.registry = registry;
+    }
+
+    /** The running session, or 204 if there is none. */
+    @GetMapping
+    public ResponseEntity<LiveSessionView> current(@CurrentUser long userId) {
+        return registry.current(userId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @PostMapping
+    public ResponseEntity<LiveSessionView> start(@CurrentUser long userId,
+                                                 @RequestBody(required = false) LiveSessionStart body) {
+        LiveSessionStart what = body != null ? body : new LiveSessionStart(null, null);
+        try {
+            return ResponseEntity.ok(registry.start(userId, what.courseId(), what.topicId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/{id}/heartbeat")
+    public ResponseEntity<LiveSessionView> heartbeat(@CurrentUser long userId, @PathVariable String id) {
+        return ResponseEntity.of(registry.heartbeat(userId, id));
+    }
+
+    /** Ends the session; it is written to study sessions within the flush interval. */
+    @PostMapping("/{id}/stop")
+    public ResponseEntity<LiveSessionView> stop(@CurrentUser long userId, @PathVariable String id) {
+        return ResponseEntity.of(registry.stop(userId, id));
+    }
+}
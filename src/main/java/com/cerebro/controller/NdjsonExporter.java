@@ -0,0 +1,81 @@
+package com.cerebro.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a JPA result stream to the response as newline-delimited JSON,
+ * one row at a time, without collecting it into a List. Each entity is
+ * detached once written so the persistence context stays small.
+ */
+@Component
+class NdjsonExporter {
+
+    static final String NDJSON = "application/x-ndjson";
+    private static final int FLUSH_EVERY = 200;
+
+    private final ObjectWriter writer;
+    private final TransactionTemplate readOnlyTx;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    NdjsonExporter(ObjectMapper objectMapper, PlatformTransactionManager txManager) {
+        this.writer     = objectMapper.writer();
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    <T> ResponseEntity<StreamingResponseBody> response(Supplier<Stream<T>> source) {
+        StreamingResponseBody body = out -> readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<T> rows = source.get()) {
+                int[] written = {0};
+                rows.forEach(row -> {
+                    writeLine(out, row);
+                    if (row.getClass().isAnnotationPresent(Entity.class)) {
+                        entityManager.detach(row);
+                    }
+                    if (++written[0] % FLUSH_EVERY == 0) {
+                        flush(out);
+                    }
+                });
+            }
+            flush(out);
+        });
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(NDJSON))
+            .body(body);
+    }
+
+    private void writeLine(OutputStream out, Object row) {
+        try {
+            out.write(writer.writeValueAsBytes(row));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void flush(OutputStream out) {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,47 +1,79 @@
 // src/main/java/com/cerebro/controller/NoteController.java
 package com.cerebro.controller;
 
+import com.cerebro.config.CurrentUser;
+import com.cerebro.dto.NoteSearchHit;
 import com.cerebro.model.Note;
-import com.cerebro.repository.NoteRepository;
+import com.cerebro.service.NoteService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/notes")
-@CrossOrigin(origins = "http://localhost:5173") // frontend port for Vite
+@CrossOrigin(origins = "http://localhost:5173", exposedHeaders = KeysetPages.NEXT_CURSOR) // frontend port for Vite
 public class NoteController {
 
+    private static final int DEFAULT_SEARCH_LIMIT = 50;
+
+    @Autowired
+    private NoteService noteService;
+
     @Autowired
-    private NoteRepository noteRepository;
+    private NdjsonExporter exporter;
 
     @GetMapping
-    public List<Note> getAllNotes() {
-        return noteRepository.findAll();
+    public ResponseEntity<List<Note>> getAllNotes(@CurrentUser long userId,
+                                                  @RequestParam(required = false) Long after,
+                                                  @RequestParam(required = false) Integer limit) {
+        if (limit == null) {
+            return ResponseEntity.ok(noteService.getAllNotes(userId));
+        }
+        int n = KeysetPages.clamp(limit);
+        List<Note> page = noteService.getNotesPage(userId, after, n);
+        return KeysetPages.respond(page, n, Note::getId);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllNotes(@CurrentUser long userId) {
+        return exporter.response(() -> noteService.streamAllNotes(userId));
     }
 
+    // Ranked by relevance over title and content; "word*" matches prefixes
     @GetMapping("/search")
-    public List<Note> searchNotes(@RequestParam String keyword) {
-        return noteRepository.findByTitleContainingIgnoreCase(keyword);
+    public List<Note> searchNotes(@CurrentUser long userId,
+                                  @RequestParam String keyword,
+                                  @RequestParam(required = false) Integer limit) {
+        return noteService.searchNotes(userId, keyword, KeysetPages.clamp(limit != null ? limit : DEFAULT_SEARCH_LIMIT));
+    }
+
+    @GetMapping("/search/hits")
+    public List<NoteSearchHit> searchNoteHits(@CurrentUser long userId,
+                                              @RequestParam String q,
+                                              @RequestParam(required = false) Integer limit) {
+        return noteService.searchHits(userId, q, KeysetPages.clamp(limit != null ? limit : DEFAULT_SEARCH_LIMIT));
+    }
+
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<Integer> rebuildSearchIndex(@CurrentUser long userId) {
+        return ResponseEntity.ok(noteService.rebuildSearchIndex(userId));
     }
 
     @PostMapping
-    public Note createNote(@RequestBody Note note) {
-        return noteRepository.save(note);
+    public Note createNote(@CurrentUser long userId, @RequestBody Note note) {
+        return noteService.createNote(userId, note);
     }
 
     @PutMapping("/{id}")
-    public Note updateNote(@PathVariable Long id, @RequestBody Note updatedNote) {
-        return noteRepository.findById(id).map(note -> {
-            note.setTitle(updatedNote.getTitle());
-            note.setContent(updatedNote.getContent());
-            return noteRepository.save(note);
-        }).orElseThrow(() -> new RuntimeException("Note not found"));
+    public Note updateNote(@CurrentUser long userId, @PathVariable Long id, @RequestBody Note updatedNote) {
+        return noteService.updateNote(userId, id, updatedNote);
     }
 
     @DeleteMapping("/{id}")
-    public void deleteNote(@PathVariable Long id) {
-        noteRepository.deleteById(id);
+    public void deleteNote(@CurrentUser long userId, @PathVariable Long id) {
+        noteService.deleteNote(userId, id);
     }
 }
@@ -1,115 +1,283 @@
 package com.cerebro.controller;
 
+import com.cerebro.config.CurrentUser;
 import com.cerebro.dto.DailyStudySummary;
+import com.cerebro.dto.SessionBatchResult;
+import com.cerebro.dto.StudyHeatmap;
+import com.cerebro.dto.StudySessionDTO;
 import com.cerebro.model.StudySession;
+import com.cerebro.service.DashboardVersions;
+import com.cerebro.service.DashboardVersions.Aggregate;
 import com.cerebro.service.InsightsService;
+import com.cerebro.service.SessionWriteBehind;
 import com.cerebro.service.StudySessionService;
 import com.cerebro.service.TopicService;
-import com.cerebro.repository.TopicRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
-import com.cerebro.model.Topic;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/sessions")
-@CrossOrigin(origins = "http://localhost:5173")
+@CrossOrigin(origins = "http://localhost:5173", exposedHeaders = KeysetPages.NEXT_CURSOR)
 public class StudySessionController {
     private static final Logger log = LoggerFactory.getLogger(StudySessionController.class);
+    private static final int MAX_TOTALS_IDS = 1000;
     private final StudySessionService service;
     private final InsightsService insightsService;
     private final TopicService topicService;
-    private final TopicRepository topicRepo;
+    private final DashboardVersions versions;
+    private final ObjectMapper objectMapper;
+    private final NdjsonExporter exporter;
+    private final SessionWriteBehind writeBehind;
+    private final int maxBatchSize;
 
-    public StudySessionController(StudySessionService service, InsightsService insightsService, TopicService topicService, TopicRepository topicRepo) {
+    public StudySessionController(StudySessionService service, InsightsService insightsService, TopicService topicService,
+                                  DashboardVersions versions,
+                                  ObjectMapper objectMapper,
+                                  NdjsonExporter exporter,
+                                  Optional<SessionWriteBehind> writeBehind,
+                                  @Value("${cerebro.sessions.max-batch-size:5000}") int maxBatchSize) {
         this.service = service;
         this.insightsService = insightsService;
         this.topicService = topicService;
-        this.topicRepo = topicRepo;
+        this.versions = versions;
+        this.objectMapper = objectMapper;
+        this.exporter = exporter;
+        this.writeBehind = writeBehind.orElse(null);
+        this.maxBatchSize = maxBatchSize;
     }
 
+    /**
+     * With write-behind enabled the answer is 202 and the echoed session has
+     * no id yet: it has been logged durably but not written.
+     */
     @PostMapping
-    public StudySession create(@RequestBody StudySession session) {
-        return service.createSession(session);
+    public ResponseEntity<StudySession> create(@CurrentUser long userId, @RequestBody StudySession session)
+            throws InterruptedException {
+        try {
+            if (writeBehind != null) {
+                writeBehind.accept(userId, List.of(session));
+                return ResponseEntity.accepted().body(session);
+            }
+            return ResponseEntity.ok(service.createSession(userId, session));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            log.error("Write-behind log refused a session", e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /** Bulk ingest for offline sync: a JSON array of sessions. */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SessionBatchResult> createBatch(@CurrentUser long userId,
+                                                          @RequestBody List<StudySession> sessions)
+            throws InterruptedException {
+        return saveBatch(userId, sessions);
+    }
+
+    /** Bulk ingest for offline sync: one session JSON object per line. */
+    @PostMapping(value = "/batch", consumes = "application/x-ndjson")
+    public ResponseEntity<SessionBatchResult> createBatchNdjson(@CurrentUser long userId, InputStream body)
+            throws IOException, InterruptedException {
+        List<StudySession> sessions = new ArrayList<>();
+        try (MappingIterator<StudySession> it = objectMapper.readerFor(StudySession.class).readValues(body)) {
+            // hasNextValue/nextValue throw the parse error itself; hasNext/next
+            // would wrap it in a RuntimeException
+            while (it.hasNextValue()) {
+                if (sessions.size() == maxBatchSize) {
+                    return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+                }
+                sessions.add(it.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            // Same answer as a malformed JSON array body
+            log.debug("Malformed NDJSON session batch: {}", e.getOriginalMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        return saveBatch(userId, sessions);
+    }
+
+    /** With write-behind enabled: 202 with no ids, see {@link #create}. */
+    private ResponseEntity<SessionBatchResult> saveBatch(long userId, List<StudySession> sessions)
+            throws InterruptedException {
+        if (sessions.size() > maxBatchSize) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        if (sessions.isEmpty()) {
+            return ResponseEntity.ok(new SessionBatchResult(0, List.of()));
+        }
+        if (writeBehind != null) {
+            try {
+                writeBehind.accept(userId, sessions);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            } catch (IOException e) {
+                log.error("Write-behind log refused a batch of {}", sessions.size(), e);
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+            return ResponseEntity.accepted().body(new SessionBatchResult(sessions.size(), List.of()));
+        }
+        List<Long> ids;
+        try {
+            ids = service.createSessions(userId, sessions).stream()
+                .map(StudySession::getId)
+                .toList();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(new SessionBatchResult(ids.size(), ids));
     }
 
+    /**
+     * Without {@code limit} this returns every session (legacy behaviour).
+     * With it, a newest-first keyset page: pass the X-Next-Cursor value back
+     * as {@code before} to fetch the next page.
+     */
     @GetMapping
-    public List<StudySession> getAll() {
-        return service.getAllSessions();
+    public ResponseEntity<List<StudySessionDTO>> getAll(@CurrentUser long userId,
+                                                     @RequestParam(required = false) Long courseId,
+                                                     @RequestParam(required = false) Long before,
+                                                     @RequestParam(required = false) Integer limit) {
+        if (limit == null) {
+            return ResponseEntity.ok(service.getAllSessions(userId));
+        }
+        int n = KeysetPages.clamp(limit);
+        return KeysetPages.respond(service.getSessionsPage(userId, courseId, before, n), n, StudySessionDTO::id);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAll(@CurrentUser long userId) {
+        return exporter.response(() -> service.streamAllSessions(userId));
     }
 
     @GetMapping("/{id}")
-    public StudySession getById(@PathVariable Long id) {
-        return service.getSession(id);
+    public StudySessionDTO getById(@CurrentUser long userId, @PathVariable Long id) {
+        return service.getSession(userId, id);
     }
 
     @DeleteMapping("/{id}")
-    public void delete(@PathVariable Long id) {
-        service.deleteSession(id);
+    public void delete(@CurrentUser long userId, @PathVariable Long id) {
+        service.deleteSession(userId, id);
     }
 
     @GetMapping("/daily-summary")
-    public ResponseEntity<List<DailyStudySummary>> getDailySummary() {
-        try {
-            return ResponseEntity.ok(service.getDailySummary());
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    public ResponseEntity<List<DailyStudySummary>> getDailySummary(@CurrentUser long userId, WebRequest request) {
+        return ConditionalGets.respond(request, versions.etag(userId, Aggregate.STUDY_TIME),
+            () -> service.getDailySummary(userId));
+    }
+
+    /**
+     * GET /api/sessions/heatmap?year=2026 → one year of per-day minutes and
+     * 0-4 intensity levels, defaulting to the current year.
+     */
+    @GetMapping("/heatmap")
+    public ResponseEntity<StudyHeatmap> getHeatmap(@CurrentUser long userId,
+                                                   @RequestParam(required = false) Integer year,
+                                                   WebRequest request) {
+        int y = year != null ? year : Year.now().getValue();
+        if (y < 1970 || y > Year.now().getValue() + 1) {
+            return ResponseEntity.badRequest().build();
         }
+        return ConditionalGets.respond(request, versions.etag(userId, Aggregate.STUDY_TIME, y),
+            () -> service.getHeatmap(userId, y));
+    }
+
+    @PostMapping("/daily-summary/rebuild")
+    public ResponseEntity<Integer> rebuildDailySummary(@CurrentUser long userId) {
+        return ResponseEntity.ok(service.rebuildDailySummary(userId));
     }
 
     @GetMapping("/weekly-summary")
-    public ResponseEntity<Map<String, Integer>> getWeeklySummary() {
-        return ResponseEntity.ok(service.getWeeklySummary());
+    public ResponseEntity<Map<String, Integer>> getWeeklySummary(@CurrentUser long userId, WebRequest request) {
+        // Which week is "this week" depends on the date
+        return ConditionalGets.respond(request, versions.etag(userId, Aggregate.STUDY_TIME, LocalDate.now()),
+            () -> service.getWeeklySummary(userId));
+    }
+
+    @GetMapping("/weekly-summary/{weeksAgo}")
+    public ResponseEntity<Map<String, Integer>> getWeeklySummary(@CurrentUser long userId, @PathVariable int weeksAgo,
+                                                                 WebRequest request) {
+        if (weeksAgo < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ConditionalGets.respond(request, versions.etag(userId, Aggregate.STUDY_TIME, LocalDate.now()),
+            () -> service.getWeeklySummary(userId, weeksAgo));
     }
 
     @GetMapping("/streak")
-    public ResponseEntity<Integer> getCurrentStreak() {
-        log.info("🔔 /api/sessions/streak called");
-        int streak = service.getCurrentStreak();
-        log.info("🔔 Streak endpoint returning: {}", streak);
-        return ResponseEntity.ok(streak);
+    public ResponseEntity<Integer> getCurrentStreak(@CurrentUser long userId, WebRequest request) {
+        // A streak not extended today reads as 0, so the date is part of the tag
+        return ConditionalGets.respond(request, versions.etag(userId, Aggregate.STREAK, LocalDate.now()),
+            () -> service.getCurrentStreak(userId));
     }
 
     @GetMapping("/course/{courseId}")
-    public ResponseEntity<List<StudySession>> getByCourseId(@PathVariable Long courseId) {
-        return ResponseEntity.ok(service.getSessionsByCourseId(courseId));
+    public ResponseEntity<List<StudySessionDTO>> getByCourseId(@CurrentUser long userId, @PathVariable Long courseId) {
+        return ResponseEntity.ok(service.getSessionsByCourseId(userId, courseId));
     }
 
     @GetMapping("/topic/{topicId}")
-    public ResponseEntity<List<StudySession>> getByTopicId(@PathVariable Long topicId) {
-        return ResponseEntity.ok(service.getSessionsByTopicId(topicId));
+    public ResponseEntity<List<StudySessionDTO>> getByTopicId(@CurrentUser long userId, @PathVariable Long topicId) {
+        return ResponseEntity.ok(service.getSessionsByTopicId(userId, topicId));
     }
 
     @GetMapping("/course/{courseId}/total")
-    public ResponseEntity<Long> getTotalMinutesByCourse(@PathVariable Long courseId) {
-        return ResponseEntity.ok(service.getTotalMinutesByCourseId(courseId));
+    public ResponseEntity<Long> getTotalMinutesByCourse(@CurrentUser long userId, @PathVariable Long courseId) {
+        return ResponseEntity.ok(service.getTotalMinutesByCourseId(userId, courseId));
     }
 
     @GetMapping("/topic/{topicId}/total")
-    public ResponseEntity<Long> getTotalMinutesByTopic(@PathVariable Long topicId) {
-        return ResponseEntity.ok(service.getTotalMinutesByTopicId(topicId));
+    public ResponseEntity<Long> getTotalMinutesByTopic(@CurrentUser long userId, @PathVariable Long topicId) {
+        return ResponseEntity.ok(service.getTotalMinutesByTopicId(userId, topicId));
+    }
+
+    /** GET /api/sessions/course/totals?ids=1,2,3 → { "1": 120, "2": 0, ... } */
+    @GetMapping("/course/totals")
+    public ResponseEntity<Map<Long, Long>> getTotalMinutesByCourses(@CurrentUser long userId, @RequestParam List<Long> ids) {
+        if (ids.size() > MAX_TOTALS_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(ids.isEmpty() ? Map.of() : service.getTotalMinutesByCourseIds(userId, ids));
+    }
+
+    /** GET /api/sessions/topic/totals?ids=4,5 → { "4": 30, "5": 0 } */
+    @GetMapping("/topic/totals")
+    public ResponseEntity<Map<Long, Long>> getTotalMinutesByTopics(@CurrentUser long userId, @RequestParam List<Long> ids) {
+        if (ids.size() > MAX_TOTALS_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(ids.isEmpty() ? Map.of() : service.getTotalMinutesByTopicIds(userId, ids));
     }
 
     // ✅ New: Completion Percentage per Course
     @GetMapping("/insights/completion")
-    public ResponseEntity<Map<String, Double>> getCourseCompletionInsights() {
-        return ResponseEntity.ok(insightsService.getCourseCompletionPercentages());
+    public ResponseEntity<Map<String, Double>> getCourseCompletionInsights(@CurrentUser long userId,
+                                                                           WebRequest request) {
+        return ConditionalGets.respond(request, versions.etag(userId, Aggregate.COMPLETION),
+            () -> insightsService.getCourseCompletionPercentages(userId));
     }
     @GetMapping("/insights/completion/{courseId}")
-    public double getCourseCompletion(@PathVariable Long courseId) {
-        // Fetch all topics related to the course
-        List<Topic> topics = topicRepo.findByCourseId(courseId);
-        
-        // Count completed topics
-        long completedCount = topics.stream().filter(Topic::isCompleted).count();
-        
-        // Calculate completion percentage
-        return (double) completedCount / topics.size();
+    public double getCourseCompletion(@CurrentUser long userId, @PathVariable Long courseId) {
+        // Served from the same cached aggregate as /insights/completion
+        return insightsService.getCourseCompletion(userId, courseId);
     }
 }
@@ -1,48 +1,63 @@
 package com.cerebro.controller;
 
+import com.cerebro.config.CurrentUser;
 import com.cerebro.model.Task;
 import com.cerebro.service.TaskService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/tasks")
-@CrossOrigin
+@CrossOrigin(exposedHeaders = KeysetPages.NEXT_CURSOR)
 public class TaskController {
 
     private final TaskService service;
+    private final NdjsonExporter exporter;
 
-    public TaskController(TaskService service) {
+    public TaskController(TaskService service, NdjsonExporter exporter) {
         this.service = service;
+        this.exporter = exporter;
     }
 
     @PostMapping
-    public ResponseEntity<Task> create(@RequestBody Task task) {
-        return ResponseEntity.ok(service.create(task));
+    public ResponseEntity<Task> create(@CurrentUser long userId, @RequestBody Task task) {
+        return ResponseEntity.ok(service.create(userId, task));
     }
 
     @GetMapping
-    public ResponseEntity<List<Task>> getAll() {
-        return ResponseEntity.ok(service.getAll());
+    public ResponseEntity<List<Task>> getAll(@CurrentUser long userId,
+                                             @RequestParam(required = false) Long after,
+                                             @RequestParam(required = false) Integer limit) {
+        if (limit == null) {
+            return ResponseEntity.ok(service.getAll(userId));
+        }
+        int n = KeysetPages.clamp(limit);
+        return KeysetPages.respond(service.getPage(userId, after, n), n, Task::getId);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAll(@CurrentUser long userId) {
+        return exporter.response(() -> service.streamAll(userId));
     }
 
     @GetMapping("/status/{completed}")
-    public ResponseEntity<List<Task>> getByStatus(@PathVariable boolean completed) {
-        return ResponseEntity.ok(service.getByStatus(completed));
+    public ResponseEntity<List<Task>> getByStatus(@CurrentUser long userId, @PathVariable boolean completed) {
+        return ResponseEntity.ok(service.getByStatus(userId, completed));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Task> update(@PathVariable Long id, @RequestBody Task task) {
-        return service.update(id, task)
+    public ResponseEntity<Task> update(@CurrentUser long userId, @PathVariable Long id, @RequestBody Task task) {
+        return service.update(userId, id, task)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        return service.delete(id)
+    public ResponseEntity<Void> delete(@CurrentUser long userId, @PathVariable Long id) {
+        return service.delete(userId, id)
                 ? ResponseEntity.ok().build()
                 : ResponseEntity.notFound().build();
     }
@@ -1,5 +1,7 @@
 package com.cerebro.controller;
 
+import com.cerebro.config.CurrentUser;
+import com.cerebro.dto.TopicDTO;
 import com.cerebro.model.Topic;
 import com.cerebro.service.TopicService;
 import org.springframework.http.ResponseEntity;
@@ -20,34 +22,39 @@ public class TopicController {
     }
 
     @PostMapping
-    public ResponseEntity<Topic> create(@RequestBody Topic topic) {
-        return ResponseEntity.ok(service.create(topic));
+    public ResponseEntity<TopicDTO> create(@CurrentUser long userId, @RequestBody Topic topic) {
+        try {
+            return ResponseEntity.ok(service.create(userId, topic));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping
-    public ResponseEntity<List<Topic>> getAll() {
-        return ResponseEntity.ok(service.getAll());
+    public ResponseEntity<List<TopicDTO>> getAll(@CurrentUser long userId) {
+        return ResponseEntity.ok(service.getAll(userId));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Topic> getById(@PathVariable Long id) {
-        return ResponseEntity.of(service.findById(id));
+    public ResponseEntity<TopicDTO> getById(@CurrentUser long userId, @PathVariable Long id) {
+        return ResponseEntity.of(service.findById(userId, id));
     }
 
     @GetMapping("/by-course/{courseId}")
-    public ResponseEntity<List<Topic>> getByCourse(@PathVariable Long courseId) {
-        return ResponseEntity.ok(service.getByCourseId(courseId));
+    public ResponseEntity<List<TopicDTO>> getByCourse(@CurrentUser long userId, @PathVariable Long courseId) {
+        return ResponseEntity.ok(service.getByCourseId(userId, courseId));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        service.delete(id);
+    public ResponseEntity<Void> delete(@CurrentUser long userId, @PathVariable Long id) {
+        service.delete(userId, id);
         return ResponseEntity.ok().build();
     }
 
     // New toggle-complete endpoint
     @PatchMapping("/{id}/toggle-complete")
-    public ResponseEntity<Topic> toggleComplete(
+    public ResponseEntity<TopicDTO> toggleComplete(
+            @CurrentUser long userId,
             @PathVariable Long id,
             @RequestBody Map<String, Boolean> payload
     ) {
@@ -55,7 +62,7 @@ public class TopicController {
         if (completed == null) {
             return ResponseEntity.badRequest().build();
         }
-        Topic updated = service.toggleComplete(id, completed);
+        TopicDTO updated = service.toggleComplete(userId, id, completed);
         return (updated != null)
             ? ResponseEntity.ok(updated)
             : ResponseEntity.notFound().build();
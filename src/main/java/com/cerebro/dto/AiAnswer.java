@@ -0,0 +1,10 @@
+package com.cerebro.dto;
+
+/**
+ * Answer from POST /api/ai/ask. {@code source} is where it came from:
+ * MEMORY or DATABASE for cache hits, PROVIDER for a fresh model call.
+ */
+public record AiAnswer(Long conversationId, String answer, Source source) {
+
+    public enum Source { MEMORY, DATABASE, PROVIDER }
+}
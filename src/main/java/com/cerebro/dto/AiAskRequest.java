@@ -0,0 +1,3 @@
+package com.cerebro.dto;
+
+public record AiAskRequest(String prompt) {}
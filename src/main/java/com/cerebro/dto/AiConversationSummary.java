@@ -0,0 +1,6 @@
+package com.cerebro.dto;
+
+import java.time.LocalDateTime;
+
+/** History list row: everything but the prompt/answer bodies. */
+public record AiConversationSummary(Long id, LocalDateTime createdAt, String promptPreview) {}
@@ -0,0 +1,10 @@
+package com.cerebro.dto;
+
+/** Topic counts for one course, produced by a single GROUP BY over topic. */
+public record CourseCompletion(Long courseId, String courseName, Long totalTopics, Long completedTopics) {
+
+    /** completed / total, 0 when the course has no topics. */
+    public double ratio() {
+        return totalTopics > 0 ? (double) completedTopics / totalTopics : 0.0;
+    }
+}
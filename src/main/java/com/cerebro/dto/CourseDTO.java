@@ -1,33 +1,11 @@
 package com.cerebro.dto;
 
+import com.cerebro.model.Course;
 
+/** A course without its topic/session collections. */
+public record CourseDTO(Long id, String name, String description) {
 
-public class CourseDTO {
-
-    private Long id;
-
-    private String name;
-
-    private String description;
-
-
-
-public CourseDTO(Long id, String name, String description) {
-
-    this.id = id;
-
-    this.name = name;
-
-    this.description = description;
-
+    public static CourseDTO of(Course course) {
+        return new CourseDTO(course.getId(), course.getName(), course.getDescription());
     }
-
-
-
-    public Long getId() { return id; }
-
-    public String getName() { return name; }
-
-    public String getDescription() { return description; }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,4 @@
+package com.cerebro.dto;
+
+/** Body for POST /api/flashcards/{id}/review: recall quality, 0 (blackout) to 5 (perfect). */
+public record FlashcardReview(int quality) {}
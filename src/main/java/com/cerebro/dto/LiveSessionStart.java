@@ -0,0 +1,4 @@
+package com.cerebro.dto;
+
+/** Body for POST /api/sessions/live: what is being studied, both optional. */
+public record LiveSessionStart(Long courseId, Long topicId) {}
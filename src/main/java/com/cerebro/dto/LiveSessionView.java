@@ -0,0 +1,11 @@
+package com.cerebro.dto;
+
+import java.time.Instant;
+
+/**
+ * A session being tracked live. {@code endTime} is null while it is running;
+ * once stopped or reaped it is the last heartbeat (or the stop call).
+ */
+public record LiveSessionView(String id, Long courseId, Long topicId,
+                              Instant startTime, Instant lastHeartbeat, Instant endTime,
+                              long elapsedMinutes) {}
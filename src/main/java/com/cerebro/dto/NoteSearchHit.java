@@ -0,0 +1,13 @@
+package com.cerebro.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One ranked note search result. {@code title} and {@code snippet} are
+ * HTML-escaped with matching words wrapped in {@code <mark>}.
+ */
+public record NoteSearchHit(Long id,
+                            String title,
+                            String snippet,
+                            double score,
+                            LocalDateTime createdAt) {}
@@ -0,0 +1,6 @@
+package com.cerebro.dto;
+
+import java.util.List;
+
+/** Response for POST /api/sessions/batch: ids in request order. */
+public record SessionBatchResult(int saved, List<Long> ids) {}
@@ -0,0 +1,10 @@
+package com.cerebro.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One calendar year of study time for GET /api/sessions/heatmap. Entry
+ * {@code i} of both arrays is day {@code firstDay + i}; {@code levels}
+ * buckets each day into 0 (no study) to 4 by quarters of {@code maxMinutes}.
+ */
+public record StudyHeatmap(int year, LocalDate firstDay, int maxMinutes, int[] minutes, int[] levels) {}
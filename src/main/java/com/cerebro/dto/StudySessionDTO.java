@@ -0,0 +1,22 @@
+package com.cerebro.dto;
+
+import java.time.Instant;
+
+/**
+ * A study session with its course and topic inlined, read in one query.
+ * {@code course} / {@code topic} are null for sessions recorded without them.
+ */
+public record StudySessionDTO(Long id, Instant startTime, Instant endTime, Long durationInMinutes,
+                              CourseDTO course, TopicRef topic) {
+
+    public record TopicRef(Long id, String name, boolean completed) {}
+
+    /** Flat form used by the JPQL constructor queries in StudySessionRepository. */
+    public StudySessionDTO(Long id, Instant startTime, Instant endTime, Long durationInMinutes,
+                           Long courseId, String courseName, String courseDescription,
+                           Long topicId, String topicName, Boolean topicCompleted) {
+        this(id, startTime, endTime, durationInMinutes,
+             courseId != null ? new CourseDTO(courseId, courseName, courseDescription) : null,
+             topicId != null ? new TopicRef(topicId, topicName, Boolean.TRUE.equals(topicCompleted)) : null);
+    }
+}
@@ -0,0 +1,19 @@
+package com.cerebro.dto;
+
+import com.cerebro.model.Topic;
+
+/** A topic with its course inlined; the JSON shape the topic endpoints have always returned. */
+public record TopicDTO(Long id, String name, boolean completed, CourseDTO course) {
+
+    /** Flat form used by the JPQL constructor queries in TopicRepository. */
+    public TopicDTO(Long id, String name, Boolean completed,
+                    Long courseId, String courseName, String courseDescription) {
+        this(id, name, Boolean.TRUE.equals(completed),
+             new CourseDTO(courseId, courseName, courseDescription));
+    }
+
+    public static TopicDTO of(Topic topic) {
+        return new TopicDTO(topic.getId(), topic.getName(), topic.isCompleted(),
+                            topic.getCourse() != null ? CourseDTO.of(topic.getCourse()) : null);
+    }
+}
@@ -0,0 +1,4 @@
+package com.cerebro.event;
+
+/** One of the user's courses or topics was created, deleted or had its completion toggled. */
+public record CourseCatalogChangedEvent(long userId, Long courseId) {}
@@ -0,0 +1,10 @@
+package com.cerebro.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a read finds a stored streak whose last study day is
+ * before yesterday, so it can no longer continue and streak challenge
+ * progress needs resetting.
+ */
+public record StreakLapsedEvent(long userId, LocalDate lastStudyDate) {}
@@ -0,0 +1,10 @@
+package com.cerebro.event;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Published when a deleted session was the last one on its day, so the
+ * streak derived from the daily rollup needs repairing.
+ */
+public record StudyDayRemovedEvent(long userId, LocalDate studyDate, Instant recordedAt) {}
@@ -0,0 +1,21 @@
+package com.cerebro.event;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.SortedSet;
+
+/**
+ * Published inside the transaction that stores study sessions and handled
+ * after it commits.
+ *
+ * @param studyDates   distinct days the sessions started on
+ * @param sessionCount sessions with a known duration (counted by challenges)
+ * @param totalMinutes sum of those sessions' durations
+ */
+public record StudySessionsRecordedEvent(
+        long userId,
+        SortedSet<LocalDate> studyDates,
+        int sessionCount,
+        long totalMinutes,
+        Instant recordedAt
+) {}
@@ -1,24 +1,53 @@
 // src/main/java/com/cerebro/model/AiConversation.java
 package com.cerebro.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_ai_conversation_prompt_hash", columnList = "prompt_hash, created_at"),
+    // History pages per user
+    @Index(name = "idx_ai_conversation_user", columnList = "user_id, id")
+})
 public class AiConversation {
 
+    public static final int PREVIEW_LENGTH = 200;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Lob
+    // Bodies are stored deflated. Rows from before that (LONGTEXT until the
+    // V2 migration) stay readable as plain UTF-8.
+    @Convert(converter = DeflateTextConverter.class)
+    @Column(columnDefinition = "LONGBLOB")
     private String prompt;
 
-    @Lob
+    @Convert(converter = DeflateTextConverter.class)
+    @Column(columnDefinition = "LONGBLOB")
     private String answer;
 
+    // Start of the prompt, so history listings never touch the bodies
+    @Column(length = PREVIEW_LENGTH)
+    private String promptPreview;
+
+    // SHA-256 of the normalized prompt (and model) for answers that came
+    // through the AI gateway; null for conversations saved by the client
+    @Column(length = 64)
+    private String promptHash;
+
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Owner; rows from before accounts existed belong to user 1
+    @JsonIgnore
+    @Column(name = "user_id", nullable = false)
+    @ColumnDefault("1")
+    private Long userId;
+
     // ─── Getters & Setters ────────────────────────────────────────────
 
     public Long getId() {
@@ -30,6 +59,7 @@ public class AiConversation {
     }
     public void setPrompt(String prompt) {
         this.prompt = prompt;
+        this.promptPreview = preview(prompt);
     }
 
     public String getAnswer() {
@@ -45,4 +75,33 @@ public class AiConversation {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public String getPromptHash() {
+        return promptHash;
+    }
+    public void setPromptHash(String promptHash) {
+        this.promptHash = promptHash;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getPromptPreview() {
+        return promptPreview;
+    }
+
+    public static String preview(String text) {
+        if (text == null || text.length() <= PREVIEW_LENGTH) {
+            return text;
+        }
+        int end = PREVIEW_LENGTH - 1;
+        if (Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end) + "…";
+    }
 }
\ No newline at end of file
@@ -1,12 +1,22 @@
 package com.cerebro.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_challenge_type_dates", columnList = "type, start_date, end_date")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Challenge {
 
@@ -28,8 +38,17 @@ private LocalDate endDate;
 @Column(name="target_hours")
 private Integer targetMinutes;
 
+// User who created it; only they (or an admin) may edit or delete it.
+// Null for challenges from before users existed, which only admins may change.
+@Column(name = "created_by")
+@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+private Long createdBy;
+
+// Every user's progress; never serialized, each user reads their own rows
+// from /api/challenges/progress/{userId}
 @OneToMany(mappedBy = "challenge", cascade = CascadeType.ALL, orphanRemoval = true)
-@JsonIgnoreProperties("challenge") // or use @JsonManagedReference/@JsonBackReference
+@BatchSize(size = 100)
+@JsonIgnore
 private List<UserChallengeProgress> progressEntries;
 
 // Getters and Setters
@@ -86,6 +105,13 @@ public void setTargetMinutes(Integer targetMinutes) {
     this.targetMinutes = targetMinutes;
 }
 
+public Long getCreatedBy() {
+    return createdBy;
+}
+public void setCreatedBy(Long createdBy) {
+    this.createdBy = createdBy;
+}
+
 public List<UserChallengeProgress> getProgressEntries() {
     return progressEntries;
 }
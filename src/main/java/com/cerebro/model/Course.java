@@ -1,11 +1,19 @@
 // src/main/java/com/cerebro/model/Course.java
 package com.cerebro.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_course_user", columnList = "user_id, id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Course {
 
     @Id
@@ -15,8 +23,15 @@ public class Course {
     private String name;
     private String description;
 
+    // Owner; rows from before accounts existed belong to user 1
+    @JsonIgnore
+    @Column(name = "user_id", nullable = false)
+    @ColumnDefault("1")
+    private Long userId;
+
     // Prevent serializing back-reference from Topic.course → Course.topics
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnoreProperties("course")
     private List<Topic> topics;
 
@@ -51,6 +66,14 @@ public class Course {
         this.description = description;
     }
 
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
     public List<Topic> getTopics() {
         return topics;
     }
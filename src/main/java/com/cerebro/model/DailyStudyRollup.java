@@ -0,0 +1,37 @@
+package com.cerebro.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Per-user, per-day study totals. Kept in step with study_session by
+ * StudySessionService so the daily summary never has to scan sessions.
+ */
+@Getter
+@Setter
+@Entity
+@Table(
+    name = "daily_study_rollup",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_daily_study_rollup_user_date",
+        columnNames = {"user_id", "study_date"}
+    )
+)
+public class DailyStudyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "study_date", nullable = false)
+    private LocalDate studyDate;
+
+    private long totalMinutes;
+    private int sessionCount;
+}
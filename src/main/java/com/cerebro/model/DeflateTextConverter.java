@@ -0,0 +1,80 @@
+package com.cerebro.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores large text columns as deflate-compressed bytes behind a short magic
+ * header. Values without the header are read as plain UTF-8, which covers
+ * rows written before compression and short texts that deflate would only
+ * make longer.
+ */
+@Converter
+public class DeflateTextConverter implements AttributeConverter<String, byte[]> {
+
+    // Leading NUL can't start real UTF-8 text, so it can't be confused with a legacy row
+    private static final byte[] MAGIC = {0x00, 'D', 'F', 0x01};
+    static final int MIN_COMPRESS_BYTES = 128;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < MIN_COMPRESS_BYTES) {
+            return raw;
+        }
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + MAGIC.length);
+            out.writeBytes(MAGIC);
+            byte[] buf = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buf, 0, deflater.deflate(buf));
+            }
+            return out.size() < raw.length ? out.toByteArray() : raw;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored.length < MAGIC.length || !Arrays.equals(stored, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            return new String(stored, StandardCharsets.UTF_8);
+        }
+
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(stored, MAGIC.length, stored.length - MAGIC.length);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(stored.length * 4);
+            byte[] buf = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buf);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed text column");
+                }
+                out.write(buf, 0, n);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed text column", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
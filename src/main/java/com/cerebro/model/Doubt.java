@@ -1,7 +1,9 @@
 package com.cerebro.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -24,4 +26,10 @@ public class Doubt {
     private LocalDateTime askedAt;
 
     private Boolean helpful;
+
+    // Owner; rows from before accounts existed belong to user 1
+    @JsonIgnore
+    @Column(name = "user_id", nullable = false)
+    @ColumnDefault("1")
+    private Long userId;
 }
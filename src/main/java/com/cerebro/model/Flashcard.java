@@ -1,9 +1,20 @@
 package com.cerebro.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_flashcard_user", columnList = "user_id, id"),
+    // Due queue per user
+    @Index(name = "idx_flashcard_user_due_at", columnList = "user_id, due_at"),
+    // Cards of one topic (GET /api/flashcards/topic/{topic})
+    @Index(name = "idx_flashcard_user_topic", columnList = "user_id, topic")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,5 +36,22 @@ public class Flashcard {
     private Boolean bookmarked;
 
     private Boolean mastered; // has user marked it as "learned"
+
+    // SM-2 scheduling state; null on cards created before scheduling existed
+    private Double easeFactor;
+
+    private Integer intervalDays;
+
+    private Integer repetitions;
+
+    private Instant dueAt; // null = never reviewed, due now
+
+    private Instant lastReviewedAt;
+
+    // Owner; rows from before accounts existed belong to user 1
+    @JsonIgnore
+    @Column(name = "user_id", nullable = false)
+    @ColumnDefault("1")
+    private Long userId;
 }
 
@@ -1,9 +1,12 @@
 package com.cerebro.model;
 // src/main/java/com/cerebro/model/Note.java
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 @Entity
+@Table(indexes = @Index(name = "idx_note_user", columnList = "user_id, id"))
 @Data
 public class Note {
     @Id
@@ -17,6 +20,12 @@ public class Note {
 
     private LocalDateTime createdAt;
 
+    // Owner; rows from before accounts existed belong to user 1
+    @JsonIgnore
+    @Column(name = "user_id", nullable = false)
+    @ColumnDefault("1")
+    private Long userId;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -1,16 +1,35 @@
 package com.cerebro.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.Duration;
 import java.time.Instant;
 
 @Entity
+@Table(indexes = {
+    // One user's sessions in id order (lists, keyset pages)
+    @Index(name = "idx_study_session_user_id", columnList = "user_id, id"),
+    // One course's sessions in id order (per-course keyset pages)
+    @Index(name = "idx_study_session_user_course_id", columnList = "user_id, course_id, id"),
+    // Covering: weekly summary and rollup rebuild read only these columns
+    @Index(name = "idx_study_session_user_start", columnList = "user_id, start_time, duration_in_minutes"),
+    // Covering indexes for the per-course / per-topic minute totals
+    @Index(name = "idx_study_session_user_course_minutes", columnList = "user_id, course_id, duration_in_minutes"),
+    @Index(name = "idx_study_session_user_topic_minutes", columnList = "user_id, topic_id, duration_in_minutes")
+})
 public class StudySession {
 
+    /** Ids reserved per trip to study_session_seq; the pooled optimizer hands out value-49 .. value. */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence (table-backed on MySQL) so inserts can be JDBC-batched;
+    // IDENTITY forces Hibernate to insert rows one at a time
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "study_session_seq")
+    @SequenceGenerator(name = "study_session_seq", sequenceName = "study_session_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private Instant startTime;
@@ -18,12 +37,18 @@ public class StudySession {
 
     private Long durationInMinutes;
 
-    @ManyToOne
+    // Owner; rows from before accounts existed belong to user 1
+    @JsonIgnore
+    @Column(name = "user_id", nullable = false)
+    @ColumnDefault("1")
+    private Long userId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id")
     @JsonIgnoreProperties({"topics", "studySessions"})
     private Course course;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "topic_id")
     @JsonIgnoreProperties({"studySessions", "course"})
     private Topic topic;
@@ -62,6 +87,14 @@ public class StudySession {
         this.durationInMinutes = durationInMinutes;
     }
 
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
     public Course getCourse() {
         return course;
     }
@@ -0,0 +1,26 @@
+package com.cerebro.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Materialized streak state, one row per user. Advanced when sessions are
+ * saved and repaired from daily_study_rollup when history changes.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "study_streak")
+public class StudyStreak {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    private int currentLength;
+    private int longestLength;
+    private LocalDate lastStudyDate;
+}
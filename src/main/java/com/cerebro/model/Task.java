@@ -1,11 +1,17 @@
 package com.cerebro.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_task_user", columnList = "user_id, id"),
+    @Index(name = "idx_task_user_completed", columnList = "user_id, completed")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,4 +26,10 @@ public class Task {
     private LocalDate dueDate;
 
     private boolean completed;
+
+    // Owner; rows from before accounts existed belong to user 1
+    @JsonIgnore
+    @Column(name = "user_id", nullable = false)
+    @ColumnDefault("1")
+    private Long userId;
 }
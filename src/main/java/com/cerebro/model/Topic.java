@@ -2,9 +2,17 @@ package com.cerebro.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_topic_course_completed", columnList = "course_id, completed")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Topic {
 
     @Id
@@ -15,7 +23,7 @@ public class Topic {
     private boolean completed;
 
     // ← we still want the Course name & description, but ignore its back-refs
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     @JsonIgnoreProperties({"topics","studySessions"})
     private Course course;
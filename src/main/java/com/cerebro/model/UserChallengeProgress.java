@@ -2,12 +2,17 @@ package com.cerebro.model;
 
 import lombok.*;
 import jakarta.persistence.*;
+import java.time.Instant;
 import java.time.LocalDate;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Getter
 @Setter
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+    name = "uk_user_challenge",
+    columnNames = {"user_id", "challenge_id"}
+))
 public class UserChallengeProgress {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,4 +28,8 @@ public class UserChallengeProgress {
     private int currentValue;
     private boolean completed;
     private LocalDate lastUpdated;
+
+    // Only sessions that start from here on count toward HOURS and SESSION_COUNT
+    @Column(nullable = false)
+    private Instant joinedAt = Instant.now();
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.cerebro.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Last write-behind log record applied to the database, updated in the same
+ * transaction as the rows it covers so a replay never applies a record twice.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "write_behind_checkpoint")
+public class WriteBehindCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    private long lastSeq;
+}
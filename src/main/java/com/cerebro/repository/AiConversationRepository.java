@@ -1,9 +1,46 @@
 // src/main/java/com/cerebro/repository/AiConversationRepository.java
 package com.cerebro.repository;
 
+import com.cerebro.dto.AiConversationSummary;
 import com.cerebro.model.AiConversation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AiConversationRepository
         extends JpaRepository<AiConversation, Long> {
-}
\ No newline at end of file
+
+    Optional<AiConversation> findByIdAndUserId(Long id, Long userId);
+
+    // Keyset pages, newest first, and a cursor-backed stream for NDJSON export
+    List<AiConversation> findByUserIdAndIdLessThanOrderByIdDesc(Long userId, Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<AiConversation> streamAllByUserIdOrderByIdAsc(Long userId);
+
+    // Newest gateway answer for a prompt hash still within the cache TTL, from
+    // any user: answers are shared, conversations are not
+    Optional<AiConversation> findFirstByPromptHashAndCreatedAtAfterOrderByCreatedAtDesc(String promptHash,
+                                                                                       LocalDateTime after);
+
+    // The same, limited to one user's rows; idx_ai_conversation_prompt_hash
+    // narrows to the hash, which has at most one row per asker within the TTL
+    Optional<AiConversation> findFirstByUserIdAndPromptHashAndCreatedAtAfterOrderByCreatedAtDesc(
+        Long userId, String promptHash, LocalDateTime after);
+
+    // Summary rows only; the compressed bodies are never read
+    @Query("SELECT new com.cerebro.dto.AiConversationSummary(c.id, c.createdAt, c.promptPreview) "
+         + "FROM AiConversation c WHERE c.userId = :userId AND c.id < :before ORDER BY c.id DESC")
+    List<AiConversationSummary> findSummariesBefore(@Param("userId") Long userId,
+                                                    @Param("before") Long before,
+                                                    Limit limit);
+}
@@ -1,8 +1,17 @@
 package com.cerebro.repository;
 
 import com.cerebro.model.Challenge;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 public interface ChallengeRepository extends JpaRepository<Challenge, Long> {
-    // no additional methods needed for now
-}
\ No newline at end of file
+
+    // Served from the query cache until a challenge row changes
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Challenge> findAll();
+}
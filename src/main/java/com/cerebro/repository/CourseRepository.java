@@ -1,6 +1,37 @@
 package com.cerebro.repository;
 
+import com.cerebro.dto.CourseCompletion;
 import com.cerebro.model.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface CourseRepository extends JpaRepository<Course, Long> {}
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface CourseRepository extends JpaRepository<Course, Long> {
+
+    // Both served from the query cache until a course row changes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Course> findByUserIdOrderByIdAsc(Long userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<Course> findByIdAndUserId(Long id, Long userId);
+
+    // Ids among the given ones that belong to the user
+    @Query("SELECT c.id FROM Course c WHERE c.userId = :userId AND c.id IN :ids")
+    List<Long> findOwnedIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // One user's courses via idx_course_user, then idx_topic_course_completed per course
+    @Query("SELECT new com.cerebro.dto.CourseCompletion(c.id, c.name, COUNT(t), " +
+           "COALESCE(SUM(CASE WHEN t.completed = true THEN 1L ELSE 0L END), 0L)) " +
+           "FROM Course c LEFT JOIN c.topics t " +
+           "WHERE c.userId = :userId " +
+           "GROUP BY c.id, c.name " +
+           "ORDER BY c.id")
+    List<CourseCompletion> findCompletionStats(@Param("userId") Long userId);
+}
@@ -0,0 +1,68 @@
+package com.cerebro.repository;
+
+import com.cerebro.model.DailyStudyRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyStudyRollupRepository extends JpaRepository<DailyStudyRollup, Long> {
+
+    List<DailyStudyRollup> findByUserIdOrderByStudyDateDesc(Long userId);
+
+    // [studyDate, totalMinutes] for one date range; a range scan of the (user_id, study_date) key
+    @Query("SELECT r.studyDate, r.totalMinutes FROM DailyStudyRollup r " +
+           "WHERE r.userId = :userId AND r.studyDate BETWEEN :from AND :to AND r.totalMinutes > 0")
+    List<Object[]> findMinutesBetween(@Param("userId") Long userId,
+                                      @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to);
+
+    @Query("SELECT r.studyDate FROM DailyStudyRollup r " +
+           "WHERE r.userId = :userId AND r.sessionCount > 0 " +
+           "ORDER BY r.studyDate DESC")
+    List<LocalDate> findStudyDatesDesc(@Param("userId") Long userId);
+
+    // Atomic upsert so concurrent saves for the same day never lose an increment
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_study_rollup"))
+    @Query(value = """
+      INSERT INTO daily_study_rollup (user_id, study_date, total_minutes, session_count)
+      VALUES (:userId, :studyDate, :minutes, :sessions)
+      ON DUPLICATE KEY UPDATE
+        total_minutes = total_minutes + :minutes,
+        session_count = session_count + :sessions
+      """, nativeQuery = true)
+    int addToDay(@Param("userId") Long userId,
+                 @Param("studyDate") LocalDate studyDate,
+                 @Param("minutes") long minutes,
+                 @Param("sessions") int sessions);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_study_rollup"))
+    @Query(value = """
+      UPDATE daily_study_rollup
+      SET total_minutes = GREATEST(total_minutes - :minutes, 0),
+          session_count = session_count - :sessions
+      WHERE user_id = :userId AND study_date = :studyDate
+      """, nativeQuery = true)
+    int subtractFromDay(@Param("userId") Long userId,
+                        @Param("studyDate") LocalDate studyDate,
+                        @Param("minutes") long minutes,
+                        @Param("sessions") int sessions);
+
+    @Modifying
+    @Query("DELETE FROM DailyStudyRollup r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM DailyStudyRollup r " +
+           "WHERE r.userId = :userId AND r.studyDate = :studyDate AND r.sessionCount <= 0")
+    int deleteEmptyDay(@Param("userId") Long userId,
+                       @Param("studyDate") LocalDate studyDate);
+}
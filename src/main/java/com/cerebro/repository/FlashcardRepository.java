@@ -1,12 +1,37 @@
 package com.cerebro.repository;
 
 import com.cerebro.model.Flashcard;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface FlashcardRepository extends JpaRepository<Flashcard, Long> {
-    List<Flashcard> findByTopic(String topic);
-    List<Flashcard> findByBookmarkedTrue();
-    List<Flashcard> findByMasteredFalse();
+    // One user's cards via idx_flashcard_user (user_id, id)
+    List<Flashcard> findByUserIdOrderByIdAsc(Long userId);
+    Optional<Flashcard> findByIdAndUserId(Long id, Long userId);
+    List<Flashcard> findByUserIdAndTopic(Long userId, String topic);
+    List<Flashcard> findByUserIdAndBookmarkedTrue(Long userId);
+    List<Flashcard> findByUserIdAndMasteredFalse(Long userId);
+
+    // Due queue: a range scan on idx_flashcard_user_due_at, never-reviewed (null) cards first.
+    // MySQL already sorts NULL first, so Hibernate leaves NULLS FIRST out of its SQL
+    @Query("SELECT f FROM Flashcard f " +
+           "WHERE f.userId = :userId AND (f.dueAt IS NULL OR f.dueAt <= :now) " +
+           "ORDER BY f.dueAt ASC NULLS FIRST, f.id ASC")
+    List<Flashcard> findDue(@Param("userId") Long userId, @Param("now") Instant now, Limit limit);
+
+    // Keyset pages in id order, and a cursor-backed stream for NDJSON export
+    List<Flashcard> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Flashcard> streamByUserIdOrderByIdAsc(Long userId);
 }
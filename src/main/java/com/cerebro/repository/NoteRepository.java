@@ -4,9 +4,37 @@ package com.cerebro.repository;
 
 
 import com.cerebro.model.Note;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface NoteRepository extends JpaRepository<Note, Long> {
-    List<Note> findByTitleContainingIgnoreCase(String keyword);
+    // One user's notes via idx_note_user (user_id, id)
+    List<Note> findByUserIdOrderByIdAsc(Long userId);
+
+    Optional<Note> findByIdAndUserId(Long id, Long userId);
+
+    List<Note> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    // Keyset pages in id order, and a cursor-backed stream for NDJSON export
+    List<Note> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Note> streamByUserIdOrderByIdAsc(Long userId);
+
+    // [id, userId, title, content] rows for (re)building the search index without managed entities
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT n.id, n.userId, n.title, n.content FROM Note n")
+    Stream<Object[]> streamSearchableText();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT n.id, n.userId, n.title, n.content FROM Note n WHERE n.userId = :userId")
+    Stream<Object[]> streamSearchableTextByUserId(Long userId);
 }
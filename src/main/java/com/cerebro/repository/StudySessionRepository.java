@@ -1,26 +1,41 @@
 package com.cerebro.repository;
 
+import com.cerebro.dto.StudySessionDTO;
 import com.cerebro.model.StudySession;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.sql.Date;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface StudySessionRepository extends JpaRepository<StudySession, Long> {
 
-    // Daily summary
-    @Query(value = """
-      SELECT 
-        DATE(CONVERT_TZ(start_time, '+00:00', @@session.time_zone)) AS local_date,
-        SUM(duration_in_minutes) AS total_minutes
-      FROM study_session
-      GROUP BY DATE(CONVERT_TZ(start_time, '+00:00', @@session.time_zone))
-      ORDER BY local_date DESC
-      """, nativeQuery = true)
-    List<Object[]> getRawDailySummary();
+    @Query("SELECT DISTINCT s.userId FROM StudySession s")
+    List<Long> findDistinctUserIds();
+
+    // Source rows for rebuilding one user's daily_study_rollup; scalar columns only, no entities
+    @Query("SELECT s.startTime, s.durationInMinutes " +
+       "FROM StudySession s " +
+       "WHERE s.userId = :userId AND s.startTime IS NOT NULL")
+    Stream<Object[]> streamStartTimesAndDurations(@Param("userId") Long userId);
+
+    // Weekly summary: range scan on idx_study_session_user_start, scalar columns only
+    @Query("SELECT s.startTime, s.durationInMinutes " +
+       "FROM StudySession s " +
+       "WHERE s.userId = :userId AND s.startTime >= :from AND s.startTime < :to")
+    List<Object[]> findStartTimesAndDurationsBetween(@Param("userId") Long userId,
+                                                     @Param("from") Instant from,
+                                                     @Param("to") Instant to);
 
 //     @Query(value = """
 //   SELECT 
@@ -32,14 +47,61 @@ public interface StudySessionRepository extends JpaRepository<StudySession, Long
 //   """, nativeQuery = true)
 // List<Object[]> getRawWeeklySummaryNative(@Param("startOfWeek") String startOfWeek);
 
-    @Query("SELECT DISTINCT FUNCTION('DATE', s.startTime) " +
+    // Read endpoints: one user's sessions with course and topic columns in a single select
+    String DTO_SELECT = "SELECT new com.cerebro.dto.StudySessionDTO(" +
+        "s.id, s.startTime, s.endTime, s.durationInMinutes, " +
+        "c.id, c.name, c.description, t.id, t.name, t.completed) " +
+        "FROM StudySession s LEFT JOIN s.course c LEFT JOIN s.topic t " +
+        "WHERE s.userId = :userId ";
+
+    @Query(DTO_SELECT + "ORDER BY s.id")
+    List<StudySessionDTO> findAllDtos(@Param("userId") Long userId);
+
+    @Query(DTO_SELECT + "AND s.id = :id")
+    Optional<StudySessionDTO> findDtoById(@Param("userId") Long userId, @Param("id") Long id);
+
+    // Keyset pages, newest first ((user_id, id) / (user_id, course_id, id) index range scans)
+    @Query(DTO_SELECT + "AND s.id < :before ORDER BY s.id DESC")
+    List<StudySessionDTO> findDtosBefore(@Param("userId") Long userId,
+                                         @Param("before") Long before, Limit limit);
+
+    @Query(DTO_SELECT + "AND s.course.id = :courseId AND s.id < :before ORDER BY s.id DESC")
+    List<StudySessionDTO> findDtosByCourseIdBefore(@Param("userId") Long userId,
+                                                   @Param("courseId") Long courseId,
+                                                   @Param("before") Long before, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(DTO_SELECT + "ORDER BY s.id")
+    Stream<StudySessionDTO> streamAllDtos(@Param("userId") Long userId);
+
+    @Query(DTO_SELECT + "AND s.course.id = :courseId ORDER BY s.id")
+    List<StudySessionDTO> findDtosByCourseId(@Param("userId") Long userId, @Param("courseId") Long courseId);
+
+    @Query(DTO_SELECT + "AND s.topic.id = :topicId ORDER BY s.id")
+    List<StudySessionDTO> findDtosByTopicId(@Param("userId") Long userId, @Param("topicId") Long topicId);
+
+    Optional<StudySession> findByIdAndUserId(Long id, Long userId);
+
+    // Minute totals, answered from the (user_id, course_id|topic_id, duration_in_minutes) indexes
+    @Query("SELECT COALESCE(SUM(s.durationInMinutes), 0) FROM StudySession s " +
+       "WHERE s.userId = :userId AND s.course.id = :courseId")
+    long sumMinutesByCourseId(@Param("userId") Long userId, @Param("courseId") Long courseId);
+
+    @Query("SELECT COALESCE(SUM(s.durationInMinutes), 0) FROM StudySession s " +
+       "WHERE s.userId = :userId AND s.topic.id = :topicId")
+    long sumMinutesByTopicId(@Param("userId") Long userId, @Param("topicId") Long topicId);
+
+    @Query("SELECT s.course.id, COALESCE(SUM(s.durationInMinutes), 0) " +
+       "FROM StudySession s " +
+       "WHERE s.userId = :userId AND s.course.id IN :courseIds " +
+       "GROUP BY s.course.id")
+    List<Object[]> sumMinutesByCourseIds(@Param("userId") Long userId,
+                                         @Param("courseIds") Collection<Long> courseIds);
+
+    @Query("SELECT s.topic.id, COALESCE(SUM(s.durationInMinutes), 0) " +
        "FROM StudySession s " +
-       "WHERE s.startTime IS NOT NULL " +
-       "ORDER BY FUNCTION('DATE', s.startTime) DESC")
-    List<java.sql.Date> findDistinctStudyDatesOrderedDesc();
-    
-
-    // New feature: course/topic linkage
-    List<StudySession> findByCourseId(Long courseId);
-    List<StudySession> findByTopicId(Long topicId);
+       "WHERE s.userId = :userId AND s.topic.id IN :topicIds " +
+       "GROUP BY s.topic.id")
+    List<Object[]> sumMinutesByTopicIds(@Param("userId") Long userId,
+                                        @Param("topicIds") Collection<Long> topicIds);
 }
@@ -0,0 +1,30 @@
+package com.cerebro.repository;
+
+import com.cerebro.model.StudyStreak;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface StudyStreakRepository extends JpaRepository<StudyStreak, Long> {
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "study_streak"))
+    @Query(value = """
+      INSERT IGNORE INTO study_streak (user_id, current_length, longest_length)
+      VALUES (:userId, 0, 0)
+      """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId);
+
+    // Serializes concurrent saves for the same user
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StudyStreak s WHERE s.userId = :userId")
+    Optional<StudyStreak> findForUpdate(@Param("userId") Long userId);
+}
@@ -1,10 +1,25 @@
 package com.cerebro.repository;
 
 import com.cerebro.model.Task;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
-    List<Task> findByCompleted(boolean completed);
+    // One user's tasks via idx_task_user (user_id, id) / idx_task_user_completed
+    List<Task> findByUserIdOrderByIdAsc(Long userId);
+    Optional<Task> findByIdAndUserId(Long id, Long userId);
+    List<Task> findByUserIdAndCompleted(Long userId, boolean completed);
+
+    // Keyset pages in id order, and a cursor-backed stream for NDJSON export
+    List<Task> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Task> streamByUserIdOrderByIdAsc(Long userId);
 }
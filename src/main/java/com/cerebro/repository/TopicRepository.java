@@ -1,12 +1,43 @@
 package com.cerebro.repository;
 
+import com.cerebro.dto.TopicDTO;
 import com.cerebro.model.Topic;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface TopicRepository extends JpaRepository<Topic, Long> {
-    List<Topic> findByCourseId(Long courseId);
+    // Topics belong to a user through their course. Topics with their course
+    // columns in one select, kept in the query cache until a topic or course row changes
+    String DTO_SELECT = "SELECT new com.cerebro.dto.TopicDTO(" +
+        "t.id, t.name, t.completed, c.id, c.name, c.description) " +
+        "FROM Topic t JOIN t.course c " +
+        "WHERE c.userId = :userId ";
+
+    @Query(DTO_SELECT + "ORDER BY t.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<TopicDTO> findAllDtos(@Param("userId") Long userId);
+
+    @Query(DTO_SELECT + "AND c.id = :courseId ORDER BY t.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<TopicDTO> findDtosByCourseId(@Param("userId") Long userId, @Param("courseId") Long courseId);
+
+    @Query(DTO_SELECT + "AND t.id = :id")
+    Optional<TopicDTO> findDtoById(@Param("userId") Long userId, @Param("id") Long id);
+
+    @Query("SELECT t FROM Topic t JOIN FETCH t.course c WHERE t.id = :id AND c.userId = :userId")
+    Optional<Topic> findOwned(@Param("userId") Long userId, @Param("id") Long id);
+
+    // Ids among the given ones that belong to the user
+    @Query("SELECT t.id FROM Topic t WHERE t.course.userId = :userId AND t.id IN :ids")
+    List<Long> findOwnedIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 
     long countByCourseId(Long courseId);
 
@@ -1,17 +1,107 @@
 package com.cerebro.repository;
 
 import com.cerebro.model.UserChallengeProgress;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 public interface UserChallengeProgressRepository
         extends JpaRepository<UserChallengeProgress, Long> {
 
+    // The progress list serializes each row's challenge; fetch them in the same select
+    @EntityGraph(attributePaths = "challenge")
     List<UserChallengeProgress> findByUserId(Long userId);
 
     Optional<UserChallengeProgress> findByUserIdAndChallengeId(Long userId, Long challengeId);
 
-    List<UserChallengeProgress> findByChallengeId(Long challengeId);
+    // Every user's progress on one challenge, in one statement
+    @Modifying
+    @Query("DELETE FROM UserChallengeProgress p WHERE p.challenge.id = :challengeId")
+    int deleteByChallengeId(@Param("challengeId") Long challengeId);
+
+    @Query("SELECT DISTINCT p.userId FROM UserChallengeProgress p")
+    List<Long> findDistinctUserIds();
+
+    /*
+     * Set-based progress updates. Only challenges of the given type that are
+     * active on :today are touched; the challenge lookup uses
+     * idx_challenge_type_dates and the progress rows uk_user_challenge.
+     * `completed` is assigned first so it sees the pre-update value under
+     * MySQL's left-to-right SET evaluation as well as standard SQL semantics.
+     * The native-spaces hint names the table written, so Hibernate doesn't
+     * evict every second-level cache region after the update.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_challenge_progress"))
+    @Query(value = """
+      UPDATE user_challenge_progress p
+      SET p.completed = (p.completed OR :value >= (
+                SELECT CASE WHEN c.target_value > 0 THEN c.target_value
+                            ELSE COALESCE(c.target_hours, 0) END
+                FROM challenge c WHERE c.id = p.challenge_id)),
+          p.current_value = :value,
+          p.last_updated = :today
+      WHERE p.user_id = :userId
+        AND p.challenge_id IN (
+              SELECT c.id FROM challenge c
+              WHERE c.type = :type
+                AND (c.start_date IS NULL OR c.start_date <= :today)
+                AND (c.end_date IS NULL OR c.end_date >= :today))
+      """, nativeQuery = true)
+    int setActive(@Param("userId") Long userId,
+                  @Param("type") String type,
+                  @Param("value") int value,
+                  @Param("today") LocalDate today);
+
+    /*
+     * HOURS and SESSION_COUNT progress, derived from the user's committed
+     * sessions: those that started after they joined and within the
+     * challenge's dates. HOURS sums minutes, SESSION_COUNT counts sessions
+     * with a duration. Both types in one statement; each row's session lookup
+     * is a range on idx_study_session_user_start, covering, that starts at
+     * the join time. Idempotent, so a recompute that overlaps another one or
+     * follows a lost job can't count a session twice.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_challenge_progress"))
+    @Query(value = """
+      UPDATE user_challenge_progress p
+      SET p.current_value = (
+                SELECT COALESCE(SUM(CASE WHEN c.type = 'HOURS' THEN s.duration_in_minutes
+                                         WHEN s.duration_in_minutes IS NOT NULL THEN 1 END), 0)
+                FROM challenge c, study_session s
+                WHERE c.id = p.challenge_id
+                  AND s.user_id = p.user_id
+                  AND s.start_time >= p.joined_at
+                  AND (c.start_date IS NULL OR s.start_time >= c.start_date)
+                  AND (c.end_date IS NULL OR CAST(s.start_time AS DATE) <= c.end_date)),
+          p.last_updated = :today
+      WHERE p.user_id = :userId
+        AND p.challenge_id IN (SELECT c.id FROM challenge c WHERE c.type IN ('HOURS', 'SESSION_COUNT'))
+      """, nativeQuery = true)
+    int recomputeFromSessions(@Param("userId") Long userId,
+                              @Param("today") LocalDate today);
+
+    // Follows recomputeFromSessions; completion is re-derived, so it can also go back to false
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_challenge_progress"))
+    @Query(value = """
+      UPDATE user_challenge_progress p
+      SET p.completed = (p.current_value >= (
+                SELECT CASE WHEN c.target_value > 0 THEN c.target_value
+                            ELSE COALESCE(c.target_hours, 0) END
+                FROM challenge c WHERE c.id = p.challenge_id))
+      WHERE p.user_id = :userId
+        AND p.challenge_id IN (SELECT c.id FROM challenge c WHERE c.type IN ('HOURS', 'SESSION_COUNT'))
+      """, nativeQuery = true)
+    int recomputeSessionCompletion(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.cerebro.repository;
+
+import com.cerebro.model.WriteBehindCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface WriteBehindCheckpointRepository extends JpaRepository<WriteBehindCheckpoint, String> {
+}
@@ -1,10 +1,16 @@
 // src/main/java/com/cerebro/service/AiConversationService.java
 package com.cerebro.service;
 
+import com.cerebro.dto.AiConversationSummary;
 import com.cerebro.model.AiConversation;
 import com.cerebro.repository.AiConversationRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Service
 public class AiConversationService {
 
@@ -17,10 +23,35 @@ public class AiConversationService {
     /**
      * Persist a new AI conversation (prompt + answer).
      */
-    public AiConversation save(String prompt, String answer) {
+    public AiConversation save(long userId, String prompt, String answer) {
+        return save(userId, prompt, answer, null);
+    }
+
+    /** Save an answer produced by the AI gateway, keyed for later cache lookups. */
+    public AiConversation save(long userId, String prompt, String answer, String promptHash) {
         AiConversation conv = new AiConversation();
+        conv.setUserId(userId);
         conv.setPrompt(prompt);
         conv.setAnswer(answer);
+        conv.setPromptHash(promptHash);
         return repo.save(conv);
     }
-}
\ No newline at end of file
+
+    public Optional<AiConversation> findRecentAnswer(String promptHash, LocalDateTime since) {
+        return repo.findFirstByPromptHashAndCreatedAtAfterOrderByCreatedAtDesc(promptHash, since);
+    }
+
+    /** The user's own newest gateway answer for a prompt hash since {@code since}. */
+    public Optional<AiConversation> findRecentAnswer(long userId, String promptHash, LocalDateTime since) {
+        return repo.findFirstByUserIdAndPromptHashAndCreatedAtAfterOrderByCreatedAtDesc(userId, promptHash, since);
+    }
+
+    public Optional<AiConversation> getConversation(long userId, Long id) {
+        return repo.findByIdAndUserId(id, userId);
+    }
+
+    /** The user's conversations, newest first, ids below {@code before}. */
+    public List<AiConversationSummary> getSummaries(long userId, Long before, int limit) {
+        return repo.findSummariesBefore(userId, before != null ? before : Long.MAX_VALUE, Limit.of(limit));
+    }
+}
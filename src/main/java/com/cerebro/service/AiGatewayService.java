@@ -0,0 +1,247 @@
+package com.cerebro.service;
+
+import com.cerebro.dto.AiAnswer;
+import com.cerebro.dto.AiAnswer.Source;
+import com.cerebro.model.AiConversation;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Server-side entry point for model calls, with a two-tier answer cache.
+ *
+ * Prompts are normalized (Unicode NFKC, case, whitespace) and hashed with the
+ * model name. A hit is served from a bounded in-memory cache, or failing
+ * that from the newest ai_conversation row with the same hash inside the TTL.
+ * Only a miss goes to the provider, and concurrent misses for the same hash
+ * share a single call.
+ *
+ * Answers are shared between users; conversations are not. A hit on another
+ * user's answer is saved again as a conversation of the caller, so it shows
+ * up in their history and its id is one they can read. That copy is saved
+ * once: later hits reuse the caller's own row while it holds the same answer.
+ */
+@Service
+public class AiGatewayService {
+
+    private record Cached(Long conversationId, long userId, String answer) {}
+
+    /** A user's copy of another user's cached conversation. */
+    private record CopyKey(Long sourceId, long userId) {}
+
+    private final GeminiClient client;
+    private final AiConversationService conversations;
+    private final Duration ttl;
+
+    private final Cache<String, Cached> memory;
+    private final Cache<CopyKey, Long> copies;
+    private final ConcurrentMap<String, CompletableFuture<Cached>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter misses;
+    private final Counter bypasses;
+    private final Timer firstToken;
+    private final Timer streamDuration;
+
+    public AiGatewayService(GeminiClient client,
+                            AiConversationService conversations,
+                            MeterRegistry registry,
+                            @Value("${cerebro.ai.cache.ttl-minutes:1440}") long ttlMinutes,
+                            @Value("${cerebro.ai.cache.max-entries:10000}") long maxEntries) {
+        this.client        = client;
+        this.conversations = conversations;
+        this.ttl           = Duration.ofMinutes(ttlMinutes);
+
+        // Caffeine evicts by W-TinyLFU, so one-off prompts don't push out popular ones
+        this.memory = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(ttl)
+            .build();
+        this.copies = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(ttl)
+            .build();
+
+        this.memoryHits   = Counter.builder("cerebro.ai.cache").tag("result", "hit").tag("tier", "memory").register(registry);
+        this.databaseHits = Counter.builder("cerebro.ai.cache").tag("result", "hit").tag("tier", "database").register(registry);
+        this.misses       = Counter.builder("cerebro.ai.cache").tag("result", "miss").tag("tier", "none").register(registry);
+        this.bypasses     = Counter.builder("cerebro.ai.cache").tag("result", "bypass").tag("tier", "none").register(registry);
+        this.firstToken     = Timer.builder("cerebro.ai.stream.first-token")
+            .description("Time from request to the first streamed text fragment")
+            .register(registry);
+        this.streamDuration = Timer.builder("cerebro.ai.stream.duration")
+            .description("Time to stream a complete answer")
+            .register(registry);
+        Gauge.builder("cerebro.ai.cache.size", memory, Cache::estimatedSize)
+            .description("Answers held in the in-memory prompt cache")
+            .register(registry);
+    }
+
+    /**
+     * Answers a prompt, from cache unless {@code bypassCache}. A bypassed call
+     * still stores its answer, replacing the cached one.
+     */
+    public AiAnswer ask(long userId, String prompt, boolean bypassCache) {
+        String key = promptHash(prompt, client.model());
+
+        if (bypassCache) {
+            bypasses.increment();
+            return answerFor(userId, prompt, key, callProvider(userId, prompt, key), Source.PROVIDER);
+        }
+
+        Optional<AiAnswer> hit = lookup(userId, prompt, key);
+        if (hit.isPresent()) {
+            return hit.get();
+        }
+
+        misses.increment();
+        CompletableFuture<Cached> mine = new CompletableFuture<>();
+        CompletableFuture<Cached> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return answerFor(userId, prompt, key, join(running), Source.PROVIDER);
+        }
+        try {
+            mine.complete(callProvider(userId, prompt, key));
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, mine);
+        }
+        return answerFor(userId, prompt, key, join(mine), Source.PROVIDER);
+    }
+
+    /**
+     * Streaming variant of {@link #ask}: text fragments go to {@code onText}
+     * as the provider produces them. A cache hit is delivered as a single
+     * fragment. The conversation is saved once the stream has completed.
+     */
+    public AiAnswer stream(long userId, String prompt, boolean bypassCache, Consumer<String> onText) {
+        long started = System.nanoTime();
+        String key = promptHash(prompt, client.model());
+
+        if (bypassCache) {
+            bypasses.increment();
+        } else {
+            Optional<AiAnswer> hit = lookup(userId, prompt, key);
+            if (hit.isPresent()) {
+                onText.accept(hit.get().answer());
+                return hit.get();
+            }
+            misses.increment();
+        }
+
+        boolean[] first = {true};
+        String answer = client.stream(prompt, text -> {
+            if (first[0]) {
+                first[0] = false;
+                firstToken.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+            onText.accept(text);
+        });
+        streamDuration.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        AiConversation saved = conversations.save(userId, prompt, answer, key);
+        memory.put(key, new Cached(saved.getId(), userId, answer));
+        return new AiAnswer(saved.getId(), answer, Source.PROVIDER);
+    }
+
+    /** Drops the in-memory tier; persisted answers are still found within the TTL. */
+    public void clearMemoryCache() {
+        memory.invalidateAll();
+        copies.invalidateAll();
+    }
+
+    private Optional<AiAnswer> lookup(long userId, String prompt, String key) {
+        Cached cached = memory.getIfPresent(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return Optional.of(answerFor(userId, prompt, key, cached, Source.MEMORY));
+        }
+
+        Optional<AiConversation> stored = conversations.findRecentAnswer(key, LocalDateTime.now().minus(ttl));
+        if (stored.isPresent()) {
+            databaseHits.increment();
+            AiConversation conv = stored.get();
+            cached = new Cached(conv.getId(), conv.getUserId(), conv.getAnswer());
+            memory.put(key, cached);
+            return Optional.of(answerFor(userId, prompt, key, cached, Source.DATABASE));
+        }
+        return Optional.empty();
+    }
+
+    private AiAnswer answerFor(long userId, String prompt, String key, Cached cached, Source source) {
+        if (cached.userId() == userId) {
+            return new AiAnswer(cached.conversationId(), cached.answer(), source);
+        }
+        CopyKey copyKey = new CopyKey(cached.conversationId(), userId);
+        Long copyId = copies.get(copyKey, k -> conversations
+            .findRecentAnswer(userId, key, LocalDateTime.now().minus(ttl))
+            .filter(own -> cached.answer().equals(own.getAnswer()))
+            .map(AiConversation::getId)
+            .orElse(null));
+        if (copyId == null) {
+            copyId = conversations.save(userId, prompt, cached.answer(), key).getId();
+            copies.put(copyKey, copyId);
+        }
+        return new AiAnswer(copyId, cached.answer(), source);
+    }
+
+    private Cached callProvider(long userId, String prompt, String key) {
+        String answer = client.generate(prompt);
+        AiConversation saved = conversations.save(userId, prompt, answer, key);
+        Cached cached = new Cached(saved.getId(), userId, answer);
+        memory.put(key, cached);
+        return cached;
+    }
+
+    private static Cached join(CompletableFuture<Cached> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    static String normalize(String prompt) {
+        return Normalizer.normalize(prompt, Normalizer.Form.NFKC)
+            .toLowerCase(Locale.ROOT)
+            .strip()
+            .replaceAll("\\s+", " ");
+    }
+
+    static String promptHash(String prompt, String model) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(model.getBytes(StandardCharsets.UTF_8));
+            sha.update((byte) 0);
+            return HexFormat.of().formatHex(sha.digest(normalize(prompt).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
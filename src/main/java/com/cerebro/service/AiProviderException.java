@@ -0,0 +1,13 @@
+package com.cerebro.service;
+
+/** The upstream model could not produce an answer (misconfigured, unreachable or erroring). */
+public class AiProviderException extends RuntimeException {
+
+    public AiProviderException(String message) {
+        super(message);
+    }
+
+    public AiProviderException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -5,30 +5,45 @@ import com.cerebro.model.ChallengeType;
 import com.cerebro.model.UserChallengeProgress;
 import com.cerebro.repository.ChallengeRepository;
 import com.cerebro.repository.UserChallengeProgressRepository;
+import com.cerebro.service.DashboardVersions.Aggregate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ChallengeService {
     private final ChallengeRepository challengeRepo;
     private final UserChallengeProgressRepository progressRepo;
+    private final DashboardVersions versions;
 
     public ChallengeService(ChallengeRepository challengeRepo,
-                            UserChallengeProgressRepository progressRepo) {
+                            UserChallengeProgressRepository progressRepo,
+                            DashboardVersions versions) {
         this.challengeRepo = challengeRepo;
         this.progressRepo  = progressRepo;
+        this.versions      = versions;
     }
 
     public List<Challenge> getAllChallenges() {
         return challengeRepo.findAll();
     }
 
-    /** Create a new challenge and initialize progress for userId=1 */
+    public Optional<Challenge> getChallenge(Long id) {
+        return challengeRepo.findById(id);
+    }
+
+    /** Only a challenge's creator or an admin may edit or delete it */
+    public static boolean mayModify(Challenge challenge, long userId, boolean admin) {
+        return admin || (challenge.getCreatedBy() != null && challenge.getCreatedBy() == userId);
+    }
+
+    /** Create a new challenge and initialize progress for its creator */
     @Transactional
     public Challenge createChallenge(Long userId, Challenge challenge) {
+        challenge.setCreatedBy(userId);
         Challenge saved = challengeRepo.save(challenge);
 
         UserChallengeProgress initial = new UserChallengeProgress();
@@ -38,69 +53,58 @@ public class ChallengeService {
         initial.setCompleted(false);
         initial.setLastUpdated(LocalDate.now());
         progressRepo.save(initial);
+        versions.bumpAfterCommit(userId, Aggregate.CHALLENGES);
 
         return saved;
     }
 
-    /** Called after saving a StudySession */
+    /**
+     * Called after saving or losing track of StudySessions: re-derives the
+     * user's HOURS and SESSION_COUNT progress from their committed sessions.
+     * Two statements, independent of how many challenges or sessions there are.
+     */
     @Transactional
-    public void updateProgressFromSession(long minutes, long userId) {
-        // Minutes challenges
-        challengeRepo.findAll().stream()
-            .filter(c -> c.getType() == ChallengeType.HOURS)
-            .forEach(ch -> progressRepo.findByUserIdAndChallengeId(userId, ch.getId())
-                .ifPresent(p -> {
-                    int updated = p.getCurrentValue() + (int) minutes;
-                    p.setCurrentValue(updated);
-                    if (updated >= (ch.getTargetValue() > 0 ? ch.getTargetValue() : ch.getTargetMinutes())) {
-                        p.setCompleted(true);
-                    }
-                    p.setLastUpdated(LocalDate.now());
-                    progressRepo.save(p);
-                })
-            );
-
-        // SESSION_COUNT challenges
-        challengeRepo.findAll().stream()
-            .filter(c -> c.getType() == ChallengeType.SESSION_COUNT)
-            .forEach(ch -> progressRepo.findByUserIdAndChallengeId(userId, ch.getId())
-                .ifPresent(p -> {
-                    int updated = p.getCurrentValue() + 1;
-                    p.setCurrentValue(updated);
-                    if (updated >= ch.getTargetValue()) {
-                        p.setCompleted(true);
-                    }
-                    p.setLastUpdated(LocalDate.now());
-                    progressRepo.save(p);
-                })
-            );
+    public void recomputeProgressFromSessions(long userId) {
+        progressRepo.recomputeFromSessions(userId, LocalDate.now());
+        progressRepo.recomputeSessionCompletion(userId);
+        versions.bumpAfterCommit(userId, Aggregate.CHALLENGES);
     }
 
-    /** Called after computing current streak */
+    /** Called when the user's streak length changes */
     @Transactional
     public void updateProgressFromStreak(int streakDays, long userId) {
-        challengeRepo.findAll().stream()
-            .filter(c -> c.getType() == ChallengeType.STREAK)
-            .forEach(ch -> progressRepo.findByUserIdAndChallengeId(userId, ch.getId())
-                .ifPresent(p -> {
-                    p.setCurrentValue(streakDays);
-                    if (streakDays >= ch.getTargetValue()) {
-                        p.setCompleted(true);
-                    }
-                    p.setLastUpdated(LocalDate.now());
-                    progressRepo.save(p);
-                })
-            );
+        progressRepo.setActive(userId, ChallengeType.STREAK.name(), streakDays, LocalDate.now());
+        versions.bumpAfterCommit(userId, Aggregate.CHALLENGES);
+    }
+
+    /**
+     * Update challenge metadata; the cached entity is refreshed on commit.
+     * Progress responses embed the challenge, so every user's version moves.
+     */
+    @Transactional
+    public Optional<Challenge> updateChallenge(Long id, Challenge updated) {
+        return challengeRepo.findById(id).map(existing -> {
+            versions.bumpAllAfterCommit(Aggregate.CHALLENGES);
+            existing.setTitle(updated.getTitle());
+            existing.setDescription(updated.getDescription());
+            existing.setType(updated.getType());
+            existing.setTargetValue(updated.getTargetValue());
+            existing.setTargetMinutes(updated.getTargetMinutes());
+            existing.setStartDate(updated.getStartDate());
+            existing.setEndDate(updated.getEndDate());
+            return existing;
+        });
     }
 
     public List<UserChallengeProgress> getProgressForUser(Long userId) {
         return progressRepo.findByUserId(userId);
     }
 
+    /** One DELETE for every user's progress rows, however many users took part. */
     @Transactional
     public void deleteChallengeAndProgress(Long challengeId) {
-        progressRepo.findByChallengeId(challengeId)
-                    .forEach(progressRepo::delete);
+        progressRepo.deleteByChallengeId(challengeId);
         challengeRepo.deleteById(challengeId);
+        versions.bumpAllAfterCommit(Aggregate.CHALLENGES);
     }
 }
\ No newline at end of file
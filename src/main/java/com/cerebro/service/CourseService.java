@@ -1,9 +1,11 @@
 package com.cerebro.service;
 
+import com.cerebro.dto.TopicDTO;
+import com.cerebro.event.CourseCatalogChangedEvent;
 import com.cerebro.model.Course;
-import com.cerebro.model.Topic;
 import com.cerebro.repository.CourseRepository;
 import com.cerebro.repository.TopicRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import java.util.List;
 
@@ -12,41 +14,40 @@ public class CourseService {
 
     private final CourseRepository courseRepo;
     private final TopicRepository topicRepo;
+    private final ApplicationEventPublisher events;
 
     public CourseService(CourseRepository courseRepo,
-                         TopicRepository topicRepo) {
+                         TopicRepository topicRepo,
+                         ApplicationEventPublisher events) {
         this.courseRepo  = courseRepo;
         this.topicRepo   = topicRepo;
+        this.events      = events;
     }
 
-    public Course create(Course course) {
-        return courseRepo.save(course);
+    public Course create(long userId, Course course) {
+        course.setUserId(userId);
+        Course saved = courseRepo.save(course);
+        events.publishEvent(new CourseCatalogChangedEvent(userId, saved.getId()));
+        return saved;
     }
 
-    public List<Course> getAll() {
-        return courseRepo.findAll();
+    public List<Course> getAll(long userId) {
+        return courseRepo.findByUserIdOrderByIdAsc(userId);
     }
 
-    public Course getById(Long id) {
-        return courseRepo.findById(id).orElse(null);
+    public Course getById(long userId, Long id) {
+        return courseRepo.findByIdAndUserId(id, userId).orElse(null);
     }
 
-    public void delete(Long id) {
-        courseRepo.deleteById(id);
+    public void delete(long userId, Long id) {
+        courseRepo.findByIdAndUserId(id, userId).ifPresent(course -> {
+            courseRepo.delete(course);
+            events.publishEvent(new CourseCatalogChangedEvent(userId, id));
+        });
     }
 
-    /** Pull all Topics under a Course, forcing course.name/description to load */
-    public List<Topic> getTopicsByCourseId(Long courseId) {
-        List<Topic> topics = topicRepo.findByCourseId(courseId);
-
-        // ensure course.name + description are loaded
-        for (Topic t : topics) {
-            Course c = t.getCourse();
-            if (c != null) {
-                c.getName();
-                c.getDescription();
-            }
-        }
-        return topics;
+    /** All Topics under one of the user's Courses, with the course columns joined in the same query. */
+    public List<TopicDTO> getTopicsByCourseId(long userId, Long courseId) {
+        return topicRepo.findDtosByCourseId(userId, courseId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.cerebro.service;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills daily_study_rollup from existing sessions at startup, e.g.
+ * {@code java -jar cerebro.jar --cerebro.rollup.rebuild-on-startup=true}
+ */
+@Component
+@ConditionalOnProperty(name = "cerebro.rollup.rebuild-on-startup", havingValue = "true")
+public class DailyRollupRebuildRunner implements ApplicationRunner {
+
+    private final StudySessionService sessionService;
+
+    public DailyRollupRebuildRunner(StudySessionService sessionService) {
+        this.sessionService = sessionService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        sessionService.rebuildAllDailySummaries();
+    }
+}
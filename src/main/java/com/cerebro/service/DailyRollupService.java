@@ -0,0 +1,150 @@
+package com.cerebro.service;
+
+import com.cerebro.dto.DailyStudySummary;
+import com.cerebro.dto.StudyHeatmap;
+import com.cerebro.model.DailyStudyRollup;
+import com.cerebro.model.StudySession;
+import com.cerebro.repository.DailyStudyRollupRepository;
+import com.cerebro.repository.StudySessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Maintains daily_study_rollup. Writes join the caller's transaction so the
+ * rollup can never drift from the study_session rows it summarizes.
+ */
+@Service
+public class DailyRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(DailyRollupService.class);
+
+    private final DailyStudyRollupRepository rollupRepo;
+    private final StudySessionRepository sessionRepo;
+
+    public DailyRollupService(DailyStudyRollupRepository rollupRepo,
+                              StudySessionRepository sessionRepo) {
+        this.rollupRepo  = rollupRepo;
+        this.sessionRepo = sessionRepo;
+    }
+
+    /** The calendar day a session is bucketed under (server-local, like the weekly summary). */
+    public static LocalDate studyDateOf(Instant startTime) {
+        return startTime.atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    /**
+     * Fold a batch of new sessions into the rollup, one upsert per distinct day.
+     * Returns the days touched.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public SortedSet<LocalDate> addSessions(List<StudySession> sessions, long userId) {
+        Map<LocalDate, long[]> perDay = new TreeMap<>();
+        for (StudySession s : sessions) {
+            if (s.getStartTime() == null) {
+                continue;
+            }
+            long[] acc = perDay.computeIfAbsent(studyDateOf(s.getStartTime()), d -> new long[2]);
+            acc[0] += minutesOf(s);
+            acc[1]++;
+        }
+        perDay.forEach((day, acc) -> rollupRepo.addToDay(userId, day, acc[0], (int) acc[1]));
+        return new TreeSet<>(perDay.keySet());
+    }
+
+    /** Returns true when the session was the last one on its day. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean removeSession(StudySession session, long userId) {
+        if (session.getStartTime() == null) {
+            return false;
+        }
+        LocalDate day = studyDateOf(session.getStartTime());
+        rollupRepo.subtractFromDay(userId, day, minutesOf(session), 1);
+        return rollupRepo.deleteEmptyDay(userId, day) > 0;
+    }
+
+    /** Distinct days with at least one session, most recent first. */
+    @Transactional(readOnly = true)
+    public List<LocalDate> getStudyDatesDesc(long userId) {
+        return rollupRepo.findStudyDatesDesc(userId);
+    }
+
+    /** Days with study time, most recent first. */
+    @Transactional(readOnly = true)
+    public List<DailyStudySummary> getDailySummary(long userId) {
+        List<DailyStudySummary> out = new ArrayList<>();
+        for (DailyStudyRollup r : rollupRepo.findByUserIdOrderByStudyDateDesc(userId)) {
+            if (r.getTotalMinutes() > 0) {
+                out.add(new DailyStudySummary(r.getStudyDate(), r.getTotalMinutes()));
+            }
+        }
+        return out;
+    }
+
+    /** Per-day minutes and intensity levels for one calendar year, read from at most 366 rollup rows. */
+    @Transactional(readOnly = true)
+    public StudyHeatmap getHeatmap(long userId, int year) {
+        LocalDate first = LocalDate.ofYearDay(year, 1);
+        LocalDate last = first.plusYears(1).minusDays(1);
+        int[] minutes = new int[first.lengthOfYear()];
+        int max = 0;
+        for (Object[] row : rollupRepo.findMinutesBetween(userId, first, last)) {
+            int day = (int) ChronoUnit.DAYS.between(first, (LocalDate) row[0]);
+            minutes[day] = (int) Math.min(((Number) row[1]).longValue(), Integer.MAX_VALUE);
+            max = Math.max(max, minutes[day]);
+        }
+
+        int[] levels = new int[minutes.length];
+        for (int i = 0; i < minutes.length; i++) {
+            // 1..4 by quarter of the busiest day; any study at all is at least 1
+            levels[i] = minutes[i] == 0 ? 0 : (int) Math.ceil(4.0 * minutes[i] / max);
+        }
+        return new StudyHeatmap(year, first, max, minutes, levels);
+    }
+
+    /**
+     * Throw away the user's rollup and recompute it from their study_session rows.
+     * Returns the number of day rows written.
+     */
+    @Transactional
+    public int rebuild(long userId) {
+        Map<LocalDate, DailyStudyRollup> days = new TreeMap<>();
+        try (Stream<Object[]> rows = sessionRepo.streamStartTimesAndDurations(userId)) {
+            rows.forEach(row -> {
+                LocalDate day = studyDateOf((Instant) row[0]);
+                long minutes = row[1] != null ? ((Number) row[1]).longValue() : 0L;
+                DailyStudyRollup r = days.computeIfAbsent(day, d -> {
+                    DailyStudyRollup fresh = new DailyStudyRollup();
+                    fresh.setUserId(userId);
+                    fresh.setStudyDate(d);
+                    return fresh;
+                });
+                r.setTotalMinutes(r.getTotalMinutes() + minutes);
+                r.setSessionCount(r.getSessionCount() + 1);
+            });
+        }
+
+        rollupRepo.deleteByUserId(userId);
+        rollupRepo.saveAll(days.values());
+        log.info("Rebuilt daily_study_rollup for user {}: {} days", userId, days.size());
+        return days.size();
+    }
+
+    private static long minutesOf(StudySession session) {
+        return session.getDurationInMinutes() != null ? session.getDurationInMinutes() : 0L;
+    }
+}
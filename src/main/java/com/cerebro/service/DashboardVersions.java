@@ -0,0 +1,86 @@
+package com.cerebro.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Version counters for the dashboard aggregates, per user. A write bumps the
+ * aggregate's counter once the data it derives from is committed and
+ * refreshed, so the current version can be checked against If-None-Match
+ * without touching the database.
+ *
+ * Readers must take the version before computing the response: a write
+ * landing in between then only makes the next poll refetch, never pins
+ * stale data under a new tag. The counters live in this JVM, which is
+ * right for the single instance the app runs as; the boot stamp in each
+ * tag keeps tags from a previous run from matching.
+ */
+@Component
+public class DashboardVersions {
+
+    public enum Aggregate {
+        /** Daily summary, weekly summary and heatmap (the daily rollup) */
+        STUDY_TIME,
+        /** Current streak, updated by the progress lanes */
+        STREAK,
+        /** Course completion insights */
+        COMPLETION,
+        /** Challenge progress rows */
+        CHALLENGES
+    }
+
+    private static final int AGGREGATES = Aggregate.values().length;
+
+    private final String bootStamp = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentMap<Long, AtomicLongArray> perUser = new ConcurrentHashMap<>();
+    // Changes that affect every user, e.g. a challenge being edited or deleted
+    private final AtomicLongArray global = new AtomicLongArray(AGGREGATES);
+
+    /** Strong ETag for the user's current view of the aggregate; {@code qualifiers} add request inputs. */
+    public String etag(long userId, Aggregate aggregate, Object... qualifiers) {
+        AtomicLongArray versions = perUser.get(userId);
+        long user = versions != null ? versions.get(aggregate.ordinal()) : 0;
+        StringBuilder tag = new StringBuilder("\"")
+            .append(bootStamp).append('-')
+            .append(aggregate.ordinal()).append('-')
+            .append(global.get(aggregate.ordinal())).append('-')
+            .append(user);
+        for (Object q : qualifiers) {
+            tag.append('-').append(q);
+        }
+        return tag.append('"').toString();
+    }
+
+    public void bump(long userId, Aggregate aggregate) {
+        perUser.computeIfAbsent(userId, u -> new AtomicLongArray(AGGREGATES))
+            .incrementAndGet(aggregate.ordinal());
+    }
+
+    /** {@link #bump} once the current transaction commits, or now if there is none. */
+    public void bumpAfterCommit(long userId, Aggregate aggregate) {
+        afterCommit(() -> bump(userId, aggregate));
+    }
+
+    /** Bumps the aggregate for every user once the current transaction commits. */
+    public void bumpAllAfterCommit(Aggregate aggregate) {
+        afterCommit(() -> global.incrementAndGet(aggregate.ordinal()));
+    }
+
+    private static void afterCommit(Runnable bump) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump.run();
+            }
+        });
+    }
+}
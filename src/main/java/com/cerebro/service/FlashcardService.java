@@ -2,34 +2,63 @@ package com.cerebro.service;
 
 import com.cerebro.model.Flashcard;
 import com.cerebro.repository.FlashcardRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class FlashcardService {
 
+    // SM-2 constants
+    public static final int MIN_QUALITY = 0;
+    public static final int MAX_QUALITY = 5;
+    private static final int PASSING_QUALITY = 3;
+    private static final double INITIAL_EASE = 2.5;
+    private static final double MIN_EASE = 1.3;
+
     private final FlashcardRepository repository;
 
     public FlashcardService(FlashcardRepository repository) {
         this.repository = repository;
     }
 
-    public Flashcard createFlashcard(Flashcard flashcard) {
+    /** New cards start unreviewed and due now, whatever id or review state the body carries. */
+    public Flashcard createFlashcard(long userId, Flashcard flashcard) {
+        flashcard.setId(null);
+        flashcard.setUserId(userId);
+        flashcard.setEaseFactor(null);
+        flashcard.setIntervalDays(null);
+        flashcard.setRepetitions(null);
+        flashcard.setLastReviewedAt(null);
+        flashcard.setDueAt(Instant.now());
         return repository.save(flashcard);
     }
 
-    public List<Flashcard> getAllFlashcards() {
-        return repository.findAll();
+    public List<Flashcard> getAllFlashcards(long userId) {
+        return repository.findByUserIdOrderByIdAsc(userId);
+    }
+
+    public List<Flashcard> getFlashcardsPage(long userId, Long after, int limit) {
+        return repository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, after != null ? after : 0L, Limit.of(limit));
     }
 
-    public Optional<Flashcard> getFlashcardById(Long id) {
-        return repository.findById(id);
+    /** All of a user's flashcards as a database cursor; the caller must hold a transaction. */
+    public Stream<Flashcard> streamAllFlashcards(long userId) {
+        return repository.streamByUserIdOrderByIdAsc(userId);
     }
 
-    public Flashcard updateFlashcard(Long id, Flashcard updatedCard) {
-        return repository.findById(id).map(card -> {
+    public Optional<Flashcard> getFlashcardById(long userId, Long id) {
+        return repository.findByIdAndUserId(id, userId);
+    }
+
+    public Flashcard updateFlashcard(long userId, Long id, Flashcard updatedCard) {
+        return repository.findByIdAndUserId(id, userId).map(card -> {
             card.setQuestion(updatedCard.getQuestion());
             card.setAnswer(updatedCard.getAnswer());
             card.setTopic(updatedCard.getTopic());
@@ -40,19 +69,63 @@ public class FlashcardService {
         }).orElse(null);
     }
 
-    public void deleteFlashcard(Long id) {
-        repository.deleteById(id);
+    public void deleteFlashcard(long userId, Long id) {
+        repository.findByIdAndUserId(id, userId).ifPresent(repository::delete);
+    }
+
+    public List<Flashcard> getFlashcardsByTopic(long userId, String topic) {
+        return repository.findByUserIdAndTopic(userId, topic);
     }
 
-    public List<Flashcard> getFlashcardsByTopic(String topic) {
-        return repository.findByTopic(topic);
+    public List<Flashcard> getBookmarkedFlashcards(long userId) {
+        return repository.findByUserIdAndBookmarkedTrue(userId);
     }
 
-    public List<Flashcard> getBookmarkedFlashcards() {
-        return repository.findByBookmarkedTrue();
+    public List<Flashcard> getUnmasteredFlashcards(long userId) {
+        return repository.findByUserIdAndMasteredFalse(userId);
     }
 
-    public List<Flashcard> getUnmasteredFlashcards() {
-        return repository.findByMasteredFalse();
+    /** The user's next {@code limit} cards whose review is due, most overdue first. */
+    public List<Flashcard> getDueFlashcards(long userId, int limit) {
+        return repository.findDue(userId, Instant.now(), Limit.of(limit));
+    }
+
+    /** Applies one review with the given recall quality and reschedules the card. */
+    @Transactional
+    public Optional<Flashcard> reviewFlashcard(long userId, Long id, int quality) {
+        if (quality < MIN_QUALITY || quality > MAX_QUALITY) {
+            throw new IllegalArgumentException("quality must be between " + MIN_QUALITY + " and " + MAX_QUALITY);
+        }
+        return repository.findByIdAndUserId(id, userId).map(card -> {
+            schedule(card, quality, Instant.now());
+            return card;
+        });
+    }
+
+    /** SM-2: ease moves with answer quality, a failed recall restarts the interval sequence. */
+    static void schedule(Flashcard card, int quality, Instant now) {
+        double ease = card.getEaseFactor() != null ? card.getEaseFactor() : INITIAL_EASE;
+        int reps = card.getRepetitions() != null ? card.getRepetitions() : 0;
+        int interval = card.getIntervalDays() != null ? card.getIntervalDays() : 0;
+
+        if (quality >= PASSING_QUALITY) {
+            interval = switch (reps) {
+                case 0 -> 1;
+                case 1 -> 6;
+                default -> (int) Math.round(interval * ease);
+            };
+            reps++;
+        } else {
+            reps = 0;
+            interval = 1;
+        }
+        int miss = MAX_QUALITY - quality;
+        ease = Math.max(MIN_EASE, ease + 0.1 - miss * (0.08 + miss * 0.02));
+
+        card.setEaseFactor(ease);
+        card.setRepetitions(reps);
+        card.setIntervalDays(interval);
+        card.setLastReviewedAt(now);
+        card.setDueAt(now.plus(Duration.ofDays(interval)));
     }
 }
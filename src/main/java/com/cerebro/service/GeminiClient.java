@@ -0,0 +1,154 @@
+package com.cerebro.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/** Minimal generateContent / streamGenerateContent client for the Gemini REST API. */
+@Component
+public class GeminiClient {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private final OkHttpClient http;
+    private final ObjectMapper mapper;
+    private final HttpUrl baseUrl;
+    private final String model;
+    private final String apiKey;
+    private final long callTimeoutSeconds;
+    private final long streamTimeoutSeconds;
+
+    public GeminiClient(OkHttpClient aiHttpClient,
+                        ObjectMapper mapper,
+                        @Value("${cerebro.ai.base-url}") String baseUrl,
+                        @Value("${cerebro.ai.model}") String model,
+                        @Value("${cerebro.ai.api-key:}") String apiKey,
+                        @Value("${cerebro.ai.timeout-seconds:60}") long callTimeoutSeconds,
+                        @Value("${cerebro.ai.stream-timeout-seconds:300}") long streamTimeoutSeconds) {
+        this.http                 = aiHttpClient;
+        this.mapper               = mapper;
+        this.baseUrl              = HttpUrl.get(baseUrl);
+        this.model                = model;
+        this.apiKey               = apiKey;
+        this.callTimeoutSeconds   = callTimeoutSeconds;
+        this.streamTimeoutSeconds = streamTimeoutSeconds;
+    }
+
+    public String model() {
+        return model;
+    }
+
+    /** Sends one user prompt and returns the concatenated text of the first candidate. */
+    public String generate(String prompt) {
+        Call call = http.newCall(request(modelUrl("generateContent"), prompt));
+        call.timeout().timeout(callTimeoutSeconds, TimeUnit.SECONDS);
+
+        try (Response response = call.execute()) {
+            String payload = response.body() != null ? response.body().string() : "";
+            if (!response.isSuccessful()) {
+                throw new AiProviderException("Gemini returned HTTP " + response.code() + ": " + payload);
+            }
+            return extractText(mapper.readTree(payload));
+        } catch (IOException e) {
+            throw new AiProviderException("Gemini request failed", e);
+        }
+    }
+
+    /**
+     * Streams the answer, handing each text fragment to {@code onText} as it
+     * arrives, and returns the full text. The next fragment is only read once
+     * {@code onText} returns, so a slow consumer slows the upstream read
+     * instead of buffering. An exception from {@code onText} aborts the call.
+     */
+    public String stream(String prompt, Consumer<String> onText) {
+        HttpUrl url = modelUrl("streamGenerateContent").newBuilder()
+            .addQueryParameter("alt", "sse")
+            .build();
+        Call call = http.newCall(request(url, prompt));
+        call.timeout().timeout(streamTimeoutSeconds, TimeUnit.SECONDS);
+
+        try (Response response = call.execute()) {
+            if (!response.isSuccessful()) {
+                String payload = response.body() != null ? response.body().string() : "";
+                throw new AiProviderException("Gemini returned HTTP " + response.code() + ": " + payload);
+            }
+            StringBuilder full = new StringBuilder();
+            BufferedSource source = response.body().source();
+            String line;
+            while ((line = source.readUtf8Line()) != null) {
+                if (!line.startsWith("data:")) {
+                    continue;
+                }
+                String text = textOf(mapper.readTree(line.substring(5).trim()));
+                if (!text.isEmpty()) {
+                    full.append(text);
+                    onText.accept(text);
+                }
+            }
+            if (full.isEmpty()) {
+                throw new AiProviderException("Gemini stream ended without text");
+            }
+            return full.toString();
+        } catch (IOException e) {
+            throw new AiProviderException("Gemini stream failed", e);
+        }
+    }
+
+    private Request request(HttpUrl url, String prompt) {
+        if (apiKey.isBlank()) {
+            throw new AiProviderException("cerebro.ai.api-key is not set");
+        }
+        Map<String, Object> body = Map.of(
+            "contents", List.of(Map.of(
+                "role", "user",
+                "parts", List.of(Map.of("text", prompt)))));
+        try {
+            return new Request.Builder()
+                .url(url)
+                .header("x-goog-api-key", apiKey)
+                .post(RequestBody.create(mapper.writeValueAsBytes(body), JSON))
+                .build();
+        } catch (IOException e) {
+            throw new AiProviderException("Could not encode request", e);
+        }
+    }
+
+    HttpUrl modelUrl(String method) {
+        return baseUrl.newBuilder()
+            .addPathSegment("models")
+            .addPathSegment(model + ":" + method)
+            .build();
+    }
+
+    static String extractText(JsonNode response) {
+        String text = textOf(response);
+        if (text.isEmpty()) {
+            throw new AiProviderException("Gemini response had no text: " + response);
+        }
+        return text;
+    }
+
+    // Text of the first candidate; empty for chunks that only carry metadata
+    private static String textOf(JsonNode response) {
+        StringBuilder text = new StringBuilder();
+        for (JsonNode part : response.path("candidates").path(0).path("content").path("parts")) {
+            text.append(part.path("text").asText(""));
+        }
+        return text.toString();
+    }
+}
@@ -1,54 +1,75 @@
 // src/main/java/com/cerebro/service/InsightsService.java
 package com.cerebro.service;
 
-import com.cerebro.model.Course;
-import com.cerebro.model.Topic;
+import com.cerebro.dto.CourseCompletion;
+import com.cerebro.event.CourseCatalogChangedEvent;
 import com.cerebro.repository.CourseRepository;
-import com.cerebro.repository.TopicRepository;
+import com.cerebro.service.DashboardVersions.Aggregate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 
 @Service
 public class InsightsService {
 
     private final CourseRepository courseRepo;
-    private final TopicRepository  topicRepo;
+    private final DashboardVersions versions;
 
-    public InsightsService(CourseRepository courseRepo,
-                           TopicRepository topicRepo) {
+    // Per-user completion stats keyed by course id, dropped whenever one of the
+    // user's courses/topics changes. Invalidating waits for an in-flight load of
+    // the same user, so a result computed before the change is never kept.
+    private final Cache<Long, Map<Long, CourseCompletion>> completionCache = Caffeine.newBuilder()
+        .maximumSize(10_000)
+        .expireAfterAccess(Duration.ofHours(1))
+        .build();
+
+    public InsightsService(CourseRepository courseRepo, DashboardVersions versions) {
         this.courseRepo = courseRepo;
-        this.topicRepo  = topicRepo;
+        this.versions = versions;
     }
 
     /**
      * Only the manual 'completed' flag on each Topic drives course completion.
      */
-    public Map<String, Double> getCourseCompletionPercentages() {
+    public Map<String, Double> getCourseCompletionPercentages(long userId) {
         Map<String, Double> completionMap = new LinkedHashMap<>();
 
-        // Iterate all courses
-        for (Course course : courseRepo.findAll()) {
-            List<Topic> topics = topicRepo.findByCourseId(course.getId());
-            long total = topics.size();
-
-            // Count only those topics whose 'completed' field is true
-            long completedCount = topics.stream()
-                    .filter(Topic::isCompleted)
-                    .count();
-
-            // Compute percentage (guard divide by zero)
-            double pct = (total > 0)
-                       ? (completedCount * 100.0 / total)
-                       : 0.0;
-
+        for (CourseCompletion c : completionStats(userId).values()) {
             // Round to two decimals
-            double roundedPct = Math.round(pct * 100.0) / 100.0;
-            completionMap.put(course.getName(), roundedPct);
+            double roundedPct = Math.round(c.ratio() * 100.0 * 100.0) / 100.0;
+            completionMap.put(c.courseName(), roundedPct);
         }
 
         return completionMap;
     }
-}
\ No newline at end of file
+
+    /** completed / total topics for one of the user's courses, 0 if it has none or isn't theirs. */
+    public double getCourseCompletion(long userId, Long courseId) {
+        CourseCompletion c = completionStats(userId).get(courseId);
+        return c != null ? c.ratio() : 0.0;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCourseCatalogChanged(CourseCatalogChangedEvent event) {
+        // Invalidate first so a request carrying the new version can't reload stale stats
+        completionCache.invalidate(event.userId());
+        versions.bump(event.userId(), Aggregate.COMPLETION);
+    }
+
+    private Map<Long, CourseCompletion> completionStats(long userId) {
+        return completionCache.get(userId, id -> {
+            Map<Long, CourseCompletion> loaded = new LinkedHashMap<>();
+            for (CourseCompletion c : courseRepo.findCompletionStats(id)) {
+                loaded.put(c.courseId(), c);
+            }
+            return Collections.unmodifiableMap(loaded);
+        });
+    }
+}
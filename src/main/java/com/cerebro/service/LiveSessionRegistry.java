@@ -0,0 +1,334 @@
+package com.cerebro.service;
+
+import com.cerebro.dto.LiveSessionView;
+import com.cerebro.model.Course;
+import com.cerebro.model.StudySession;
+import com.cerebro.model.Topic;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Study sessions in progress, kept in memory only.
+ *
+ * Each user has at most one live session. A heartbeat is a volatile write on
+ * the session looked up in a ConcurrentHashMap, so it takes no lock and runs
+ * no SQL. Sessions reach study_session only once they end: stopped ones, and
+ * ones whose heartbeats lapsed (closed at their last heartbeat), are queued
+ * and written by a background thread every flush interval, one
+ * {@link StudySessionService#createSessions} batch per user.
+ *
+ * Lapsed sessions are found with a timing wheel of one-second slots instead
+ * of a scan over every session: a session waits in the slot of its deadline,
+ * and when that slot comes round it is either reaped or, if heartbeats came
+ * in meanwhile, moved to the slot of its new deadline.
+ *
+ * A session ended less than a minute after it started is dropped instead:
+ * saved, it would last 0 minutes yet count as a session, e.g. for a
+ * double-clicked Start or a tab closed right away.
+ *
+ * Nothing here survives a restart. Sessions still running at shutdown are
+ * saved up to their last heartbeat; clients get a 404 on their next
+ * heartbeat and start a new one.
+ */
+@Component
+public class LiveSessionRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveSessionRegistry.class);
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final class LiveSession {
+        final String id = UUID.randomUUID().toString();
+        final long userId;
+        final Long courseId;
+        final Long topicId;
+        final Instant startTime;
+        volatile long lastBeatMillis;
+
+        LiveSession(long userId, Long courseId, Long topicId, long nowMillis) {
+            this.userId = userId;
+            this.courseId = courseId;
+            this.topicId = topicId;
+            this.startTime = Instant.ofEpochMilli(nowMillis);
+            this.lastBeatMillis = nowMillis;
+        }
+
+        LiveSessionView view(Instant endTime, Instant now) {
+            Instant upTo = endTime != null ? endTime : now;
+            return new LiveSessionView(id, courseId, topicId, startTime,
+                Instant.ofEpochMilli(lastBeatMillis), endTime, Duration.between(startTime, upTo).toMinutes());
+        }
+    }
+
+    /** An ended session waiting to be written; {@code withRefs} false once its course or topic is gone. */
+    private record Completed(LiveSession session, Instant endTime, boolean withRefs, int attempts) {
+
+        StudySession toEntity() {
+            StudySession entity = new StudySession();
+            entity.setStartTime(session.startTime);
+            entity.setEndTime(endTime);
+            if (withRefs && session.courseId != null) {
+                Course course = new Course();
+                course.setId(session.courseId);
+                entity.setCourse(course);
+            }
+            if (withRefs && session.topicId != null) {
+                Topic topic = new Topic();
+                topic.setId(session.topicId);
+                entity.setTopic(topic);
+            }
+            return entity;
+        }
+    }
+
+    private final StudySessionService sessions;
+    private final Clock clock;
+    private final long timeoutMillis;
+    private final long flushIntervalMillis;
+
+    private final Map<Long, LiveSession> active = new ConcurrentHashMap<>();
+    private final Queue<Completed> completed = new ConcurrentLinkedQueue<>();
+    private final List<Queue<LiveSession>> wheel = new ArrayList<>();
+    private final int wheelMask;
+    private volatile long wheelTick;
+
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private final Counter stopped;
+    private final Counter reaped;
+    private final Counter saved;
+    private final Counter failed;
+    private final Counter dropped;
+
+    public LiveSessionRegistry(StudySessionService sessions,
+                               MeterRegistry registry,
+                               ObjectProvider<Clock> clock,
+                               @Value("${cerebro.live.heartbeat-timeout-seconds:90}") int timeoutSeconds,
+                               @Value("${cerebro.live.flush-interval-ms:2000}") long flushIntervalMillis) {
+        if (timeoutSeconds < 1) {
+            throw new IllegalArgumentException("cerebro.live.heartbeat-timeout-seconds must be at least 1");
+        }
+        this.sessions = sessions;
+        this.clock = clock.getIfAvailable(Clock::systemUTC);
+        this.timeoutMillis = timeoutSeconds * 1000L;
+        this.flushIntervalMillis = flushIntervalMillis;
+
+        // More slots than the timeout spans, so a deadline never laps the wheel
+        int slots = Integer.highestOneBit(timeoutSeconds + 2) << 1;
+        for (int i = 0; i < slots; i++) {
+            wheel.add(new ConcurrentLinkedQueue<>());
+        }
+        this.wheelMask = slots - 1;
+        this.wheelTick = this.clock.millis() / TICK_MILLIS;
+
+        this.stopped = Counter.builder("cerebro.live.sessions").tag("outcome", "stopped").register(registry);
+        this.reaped  = Counter.builder("cerebro.live.sessions").tag("outcome", "reaped").register(registry);
+        this.saved   = Counter.builder("cerebro.live.sessions").tag("outcome", "saved").register(registry);
+        this.failed  = Counter.builder("cerebro.live.sessions").tag("outcome", "failed").register(registry);
+        this.dropped = Counter.builder("cerebro.live.sessions").tag("outcome", "too-short").register(registry);
+        Gauge.builder("cerebro.live.active", active, Map::size)
+            .description("Study sessions currently in progress")
+            .register(registry);
+        Gauge.builder("cerebro.live.pending", completed, Queue::size)
+            .description("Ended live sessions not yet written")
+            .register(registry);
+
+        this.worker = Thread.ofVirtual().name("live-sessions").start(this::run);
+    }
+
+    /**
+     * Starts a session for the user. A session the user already had running
+     * is ended at its last heartbeat, as if it had lapsed.
+     *
+     * @throws IllegalArgumentException if the course or topic isn't the user's
+     */
+    public LiveSessionView start(long userId, Long courseId, Long topicId) {
+        if (courseId != null || topicId != null) {
+            LiveSession probe = new LiveSession(userId, courseId, topicId, 0);
+            sessions.checkOwnership(userId, List.of(new Completed(probe, null, true, 0).toEntity()));
+        }
+        long now = clock.millis();
+        LiveSession session = new LiveSession(userId, courseId, topicId, now);
+        LiveSession previous = active.put(userId, session);
+        if (previous != null) {
+            reaped.increment();
+            complete(previous, Instant.ofEpochMilli(previous.lastBeatMillis));
+        }
+        schedule(session, now + timeoutMillis);
+        return session.view(null, Instant.ofEpochMilli(now));
+    }
+
+    /** Records a heartbeat; empty if {@code id} isn't the user's running session (stopped or reaped). */
+    public Optional<LiveSessionView> heartbeat(long userId, String id) {
+        LiveSession session = active.get(userId);
+        if (session == null || !session.id.equals(id)) {
+            return Optional.empty();
+        }
+        long now = clock.millis();
+        session.lastBeatMillis = now;
+        // Reaped meanwhile: the worker ended it before seeing this heartbeat
+        if (active.get(userId) != session) {
+            return Optional.empty();
+        }
+        return Optional.of(session.view(null, Instant.ofEpochMilli(now)));
+    }
+
+    /** Ends the session now and queues it for writing; empty if it isn't running. */
+    public Optional<LiveSessionView> stop(long userId, String id) {
+        LiveSession session = active.get(userId);
+        if (session == null || !session.id.equals(id) || !active.remove(userId, session)) {
+            return Optional.empty();
+        }
+        Instant end = clock.instant();
+        stopped.increment();
+        complete(session, end);
+        return Optional.of(session.view(end, end));
+    }
+
+    public Optional<LiveSessionView> current(long userId) {
+        LiveSession session = active.get(userId);
+        return session == null ? Optional.empty() : Optional.of(session.view(null, clock.instant()));
+    }
+
+    /** Writes every ended session queued so far. Runs on the worker; public for tests. */
+    public void flush() {
+        Map<Long, List<Completed>> byUser = new LinkedHashMap<>();
+        for (Completed c; (c = completed.poll()) != null; ) {
+            byUser.computeIfAbsent(c.session().userId, k -> new ArrayList<>()).add(c);
+        }
+        byUser.forEach(this::save);
+    }
+
+    private void save(long userId, List<Completed> batch) {
+        try {
+            sessions.createSessions(userId, batch.stream().map(Completed::toEntity).toList());
+            saved.increment(batch.size());
+        } catch (IllegalArgumentException e) {
+            if (batch.size() > 1) {
+                // Find the session(s) whose course or topic is gone
+                batch.forEach(c -> save(userId, List.of(c)));
+                return;
+            }
+            // Deleted while the session ran: keep the time, drop the link
+            log.warn("Saving live session of user {} without course/topic: {}", userId, e.getMessage());
+            retry(batch.get(0), false);
+        } catch (RuntimeException e) {
+            log.warn("Saving {} live sessions of user {} failed, will retry: {}", batch.size(), userId, e.getMessage());
+            batch.forEach(c -> retry(c, c.withRefs()));
+        }
+    }
+
+    /** Queues an ended session for writing, unless it lasted under a minute. */
+    private void complete(LiveSession session, Instant endTime) {
+        if (Duration.between(session.startTime, endTime).toMinutes() < 1) {
+            dropped.increment();
+            return;
+        }
+        completed.add(new Completed(session, endTime, true, 0));
+    }
+
+    private void retry(Completed c, boolean withRefs) {
+        if (c.attempts() + 1 >= MAX_ATTEMPTS) {
+            failed.increment();
+            log.error("Dropping live session {} of user {} ({} to {}) after {} attempts",
+                      c.session().id, c.session().userId, c.session().startTime, c.endTime(), MAX_ATTEMPTS);
+            return;
+        }
+        completed.add(new Completed(c.session(), c.endTime(), withRefs, c.attempts() + 1));
+    }
+
+    private void schedule(LiveSession session, long deadlineMillis) {
+        long tick = Math.max(deadlineMillis / TICK_MILLIS + 1, wheelTick + 1);
+        wheel.get((int) (tick & wheelMask)).add(session);
+    }
+
+    /** Processes every slot up to now; sessions whose deadline moved go to their new slot. */
+    private void advance(long nowMillis) {
+        long target = nowMillis / TICK_MILLIS;
+        while (wheelTick < target) {
+            wheelTick++;
+            Queue<LiveSession> slot = wheel.get((int) (wheelTick & wheelMask));
+            for (LiveSession s; (s = slot.poll()) != null; ) {
+                if (active.get(s.userId) != s) {
+                    continue;  // stopped or replaced
+                }
+                long deadline = s.lastBeatMillis + timeoutMillis;
+                if (deadline > nowMillis) {
+                    schedule(s, deadline);
+                } else if (active.remove(s.userId, s)) {
+                    // A heartbeat racing the removal either sees it and answers
+                    // 404, or lands before the re-read below and keeps the session
+                    long lastBeat = s.lastBeatMillis;
+                    if (lastBeat + timeoutMillis > nowMillis && active.putIfAbsent(s.userId, s) == null) {
+                        schedule(s, lastBeat + timeoutMillis);
+                    } else {
+                        reaped.increment();
+                        complete(s, Instant.ofEpochMilli(lastBeat));
+                    }
+                }
+            }
+        }
+    }
+
+    private void run() {
+        long lastFlush = clock.millis();
+        while (running) {
+            try {
+                Thread.sleep(TICK_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                long now = clock.millis();
+                advance(now);
+                if (now - lastFlush >= flushIntervalMillis) {
+                    lastFlush = now;
+                    flush();
+                }
+            } catch (RuntimeException e) {
+                log.error("Live session housekeeping failed", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (!worker.join(Duration.ofSeconds(10))) {
+            log.warn("{} still busy at shutdown, interrupting", worker.getName());
+            worker.interrupt();
+        }
+        for (LiveSession s : active.values()) {
+            if (active.remove(s.userId, s)) {
+                complete(s, Instant.ofEpochMilli(s.lastBeatMillis));
+            }
+        }
+        // One pass; anything left for a retry is reported, not lost silently
+        flush();
+        if (!completed.isEmpty()) {
+            log.error("{} live sessions could not be saved at shutdown", completed.size());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.cerebro.service;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/** The note search index lives in memory only, so it is loaded from the table at startup. */
+@Component
+public class NoteIndexRebuildRunner implements ApplicationRunner {
+
+    private final NoteService noteService;
+
+    public NoteIndexRebuildRunner(NoteService noteService) {
+        this.noteService = noteService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        noteService.rebuildSearchIndex();
+    }
+}
@@ -0,0 +1,404 @@
+package com.cerebro.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over note titles and contents, ranked with BM25.
+ *
+ * Terms are kept in a sorted map so {@code foo*} expands to every indexed
+ * term starting with "foo". Title occurrences count {@link #TITLE_WEIGHT}
+ * times. Only ids and term statistics are held here; snippets are built from
+ * the stored text of the few notes that make it into a result page.
+ *
+ * Each user's notes form a separate segment, so a search only scores the
+ * caller's notes and uses their collection statistics.
+ */
+@Component
+public class NoteSearchIndex {
+
+    public record Hit(long noteId, double score) {}
+
+    /** One query word; {@code prefix} when it was written as {@code word*}. */
+    public record QueryTerm(String text, boolean prefix) {
+        boolean matches(String token) {
+            return prefix ? token.startsWith(text) : token.equals(text);
+        }
+    }
+
+    @FunctionalInterface
+    interface TokenSink {
+        void accept(String token, int start, int end);
+    }
+
+    static final int TITLE_WEIGHT = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is",
+        "it", "of", "on", "or", "that", "the", "this", "to", "was", "with");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Segment> live = new HashMap<>();
+    // Changes made while a rebuild is streaming, replayed onto the new segments
+    private List<Consumer<Map<Long, Segment>>> pendingDuringRebuild;
+
+    public void put(long userId, long noteId, String title, String content) {
+        apply(segments -> segments.computeIfAbsent(userId, u -> new Segment()).put(noteId, title, content));
+    }
+
+    public void remove(long userId, long noteId) {
+        apply(segments -> {
+            Segment segment = segments.get(userId);
+            if (segment != null) {
+                segment.remove(noteId);
+            }
+        });
+    }
+
+    /**
+     * Replaces the index with the given rows ({@code [id, userId, title, content]}).
+     * Searches keep using the previous contents until the new index is complete.
+     */
+    public synchronized int rebuild(Stream<Object[]> rows) {
+        return rebuild(rows, fresh -> {
+            live = fresh;
+            return totalSize(fresh);
+        });
+    }
+
+    /**
+     * Replaces one user's segment with the given rows, which must all be
+     * theirs. Other users' segments are left as they are.
+     */
+    public synchronized int rebuild(long userId, Stream<Object[]> rows) {
+        return rebuild(rows, fresh -> {
+            Segment segment = fresh.getOrDefault(userId, new Segment());
+            live.put(userId, segment);
+            return segment.size();
+        });
+    }
+
+    private int rebuild(Stream<Object[]> rows, ToIntFunction<Map<Long, Segment>> install) {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, Segment> fresh = new HashMap<>();
+        try {
+            rows.forEach(r -> fresh.computeIfAbsent(((Number) r[1]).longValue(), u -> new Segment())
+                .put(((Number) r[0]).longValue(), (String) r[2], (String) r[3]));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.forEach(change -> change.accept(fresh));
+            pendingDuringRebuild = null;
+            return install.applyAsInt(fresh);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return totalSize(live);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The user's best {@code limit} notes for the query, highest score first. */
+    public List<Hit> search(long userId, List<QueryTerm> query, int limit) {
+        if (query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Segment segment = live.get(userId);
+            return segment != null ? segment.search(query, limit) : List.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int totalSize(Map<Long, Segment> segments) {
+        int n = 0;
+        for (Segment segment : segments.values()) {
+            n += segment.size();
+        }
+        return n;
+    }
+
+    /** Splits user input into terms; a trailing '*' marks a prefix term. */
+    public static List<QueryTerm> parseQuery(String query) {
+        Map<String, QueryTerm> terms = new LinkedHashMap<>();
+        if (query == null) {
+            return List.of();
+        }
+        for (String word : query.trim().split("\\s+")) {
+            boolean prefix = word.endsWith("*");
+            tokenize(word, (token, start, end) -> {
+                if (prefix && end == word.length() - 1) {
+                    terms.putIfAbsent(token + "*", new QueryTerm(token, true));
+                } else if (!STOP_WORDS.contains(token)) {
+                    terms.putIfAbsent(token, new QueryTerm(token, false));
+                }
+            });
+        }
+        return List.copyOf(terms.values());
+    }
+
+    /** Lower-cased runs of letters/digits with their offsets in {@code text}. */
+    static void tokenize(String text, TokenSink sink) {
+        if (text == null) {
+            return;
+        }
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            while (i < n && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < n && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                sink.accept(text.substring(start, i).toLowerCase(Locale.ROOT), start, i);
+            }
+        }
+    }
+
+    private void apply(Consumer<Map<Long, Segment>> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(live);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Term dictionary over dense per-note ordinals, so scoring can accumulate
+     * into a plain array. Ordinals of deleted notes are not reused; a rebuild
+     * compacts them. Not thread-safe on its own.
+     */
+    private static final class Segment {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final NavigableMap<String, Postings> terms = new TreeMap<>();
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        // One segment per user, most with a handful of notes; grow() doubles
+        private long[] noteIds = new long[INITIAL_CAPACITY];
+        private int[] lengths = new int[INITIAL_CAPACITY];
+        // Postings each live note appears in, for removal
+        private Postings[][] docTerms = new Postings[INITIAL_CAPACITY][];
+        private int nextOrdinal;
+        private long totalLength;
+
+        int size() {
+            return ordinals.size();
+        }
+
+        void put(long noteId, String title, String content) {
+            Map<String, Integer> tf = new HashMap<>();
+            int[] length = {0};
+            tokenize(title, (token, start, end) -> {
+                if (!STOP_WORDS.contains(token)) {
+                    tf.merge(token, TITLE_WEIGHT, Integer::sum);
+                    length[0] += TITLE_WEIGHT;
+                }
+            });
+            tokenize(content, (token, start, end) -> {
+                if (!STOP_WORDS.contains(token)) {
+                    tf.merge(token, 1, Integer::sum);
+                    length[0]++;
+                }
+            });
+
+            // An update keeps its ordinal
+            Integer existing = ordinals.get(noteId);
+            int ord;
+            if (existing != null) {
+                ord = existing;
+                unlink(ord);
+            } else {
+                ord = nextOrdinal++;
+                grow(ord);
+                ordinals.put(noteId, ord);
+                noteIds[ord] = noteId;
+            }
+
+            Postings[] linked = new Postings[tf.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> e : tf.entrySet()) {
+                Postings postings = terms.computeIfAbsent(e.getKey(), Postings::new);
+                postings.add(ord, e.getValue());
+                linked[i++] = postings;
+            }
+            docTerms[ord] = linked;
+            lengths[ord] = length[0];
+            totalLength += length[0];
+        }
+
+        void remove(long noteId) {
+            Integer ord = ordinals.remove(noteId);
+            if (ord != null) {
+                unlink(ord);
+            }
+        }
+
+        private void unlink(int ord) {
+            totalLength -= lengths[ord];
+            lengths[ord] = 0;
+            for (Postings postings : docTerms[ord]) {
+                if (postings.remove(ord) && postings.size == 0) {
+                    terms.remove(postings.term);
+                }
+            }
+            docTerms[ord] = null;
+        }
+
+        private void grow(int ord) {
+            if (ord == noteIds.length) {
+                int capacity = noteIds.length * 2;
+                noteIds  = Arrays.copyOf(noteIds, capacity);
+                lengths  = Arrays.copyOf(lengths, capacity);
+                docTerms = Arrays.copyOf(docTerms, capacity);
+            }
+        }
+
+        List<Hit> search(List<QueryTerm> query, int limit) {
+            int n = size();
+            if (n == 0) {
+                return List.of();
+            }
+            double avgLength = Math.max(1.0, (double) totalLength / n);
+
+            double[] scores = new double[nextOrdinal];
+            for (QueryTerm term : query) {
+                for (Postings postings : expand(term)) {
+                    double idf = Math.log(1 + (n - postings.size + 0.5) / (postings.size + 0.5));
+                    int[] ords = postings.ords;
+                    int[] tfs = postings.tfs;
+                    for (int i = 0; i < postings.size; i++) {
+                        int ord = ords[i];
+                        int tf = tfs[i];
+                        double norm = K1 * (1 - B + B * lengths[ord] / avgLength);
+                        scores[ord] += idf * tf * (K1 + 1) / (tf + norm);
+                    }
+                }
+            }
+
+            Comparator<Hit> byScore = Comparator.comparingDouble(Hit::score)
+                .thenComparing(Hit::noteId, Comparator.reverseOrder());
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, byScore);
+            for (int ord = 0; ord < scores.length; ord++) {
+                double score = scores[ord];
+                if (score <= 0 || (top.size() == limit && score <= top.peek().score())) {
+                    continue;
+                }
+                top.add(new Hit(noteIds[ord], score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(byScore.reversed());
+            return hits;
+        }
+
+        private List<Postings> expand(QueryTerm term) {
+            if (!term.prefix()) {
+                Postings exact = terms.get(term.text());
+                return exact != null ? List.of(exact) : List.of();
+            }
+            List<Postings> matches = new ArrayList<>();
+            for (Map.Entry<String, Postings> e : terms.tailMap(term.text(), true).entrySet()) {
+                if (!e.getKey().startsWith(term.text()) || matches.size() == MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                matches.add(e.getValue());
+            }
+            return matches;
+        }
+    }
+
+    /** Ordinals (sorted) containing one term, with their term frequency. */
+    private static final class Postings {
+
+        private final String term;
+        private int[] ords = new int[2];
+        private int[] tfs = new int[2];
+        private int size;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void add(int ord, int tf) {
+            int i = Arrays.binarySearch(ords, 0, size, ord);
+            if (i >= 0) {
+                tfs[i] = tf;
+                return;
+            }
+            i = -i - 1;
+            if (size == ords.length) {
+                ords = Arrays.copyOf(ords, size * 2);
+                tfs  = Arrays.copyOf(tfs, size * 2);
+            }
+            System.arraycopy(ords, i, ords, i + 1, size - i);
+            System.arraycopy(tfs, i, tfs, i + 1, size - i);
+            ords[i] = ord;
+            tfs[i]  = tf;
+            size++;
+        }
+
+        boolean remove(int ord) {
+            int i = Arrays.binarySearch(ords, 0, size, ord);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(ords, i + 1, ords, i, size - i - 1);
+            System.arraycopy(tfs, i + 1, tfs, i, size - i - 1);
+            size--;
+            return true;
+        }
+    }
+}
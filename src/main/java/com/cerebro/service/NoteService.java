@@ -0,0 +1,142 @@
+package com.cerebro.service;
+
+import com.cerebro.dto.NoteSearchHit;
+import com.cerebro.model.Note;
+import com.cerebro.repository.NoteRepository;
+import com.cerebro.service.NoteSearchIndex.Hit;
+import com.cerebro.service.NoteSearchIndex.QueryTerm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Note CRUD plus full-text search. Every write is mirrored into the
+ * {@link NoteSearchIndex} once the row has been saved.
+ */
+@Service
+public class NoteService {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteService.class);
+
+    private final NoteRepository repository;
+    private final NoteSearchIndex index;
+    private final TransactionTemplate readOnlyTx;
+
+    public NoteService(NoteRepository repository,
+                       NoteSearchIndex index,
+                       PlatformTransactionManager txManager) {
+        this.repository = repository;
+        this.index      = index;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public List<Note> getAllNotes(long userId) {
+        return repository.findByUserIdOrderByIdAsc(userId);
+    }
+
+    public List<Note> getNotesPage(long userId, Long after, int limit) {
+        return repository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, after != null ? after : 0L, Limit.of(limit));
+    }
+
+    /** All of a user's notes as a database cursor; the caller must hold a transaction. */
+    public Stream<Note> streamAllNotes(long userId) {
+        return repository.streamByUserIdOrderByIdAsc(userId);
+    }
+
+    public Note createNote(long userId, Note note) {
+        note.setUserId(userId);
+        Note saved = repository.save(note);
+        index.put(userId, saved.getId(), saved.getTitle(), saved.getContent());
+        return saved;
+    }
+
+    public Note updateNote(long userId, Long id, Note updatedNote) {
+        Note saved = repository.findByIdAndUserId(id, userId).map(note -> {
+            note.setTitle(updatedNote.getTitle());
+            note.setContent(updatedNote.getContent());
+            return repository.save(note);
+        }).orElseThrow(() -> new RuntimeException("Note not found"));
+        index.put(userId, saved.getId(), saved.getTitle(), saved.getContent());
+        return saved;
+    }
+
+    public void deleteNote(long userId, Long id) {
+        repository.findByIdAndUserId(id, userId).ifPresent(note -> {
+            repository.delete(note);
+            index.remove(userId, id);
+        });
+    }
+
+    /** The user's notes matching the query in title or content, best match first. */
+    public List<Note> searchNotes(long userId, String query, int limit) {
+        return load(userId, index.search(userId, NoteSearchIndex.parseQuery(query), limit)).stream()
+            .map(Ranked::note)
+            .toList();
+    }
+
+    /** Like {@link #searchNotes} but with scores and highlighted snippets. */
+    public List<NoteSearchHit> searchHits(long userId, String query, int limit) {
+        List<QueryTerm> terms = NoteSearchIndex.parseQuery(query);
+        return load(userId, index.search(userId, terms, limit)).stream()
+            .map(r -> new NoteSearchHit(
+                r.note().getId(),
+                NoteSnippets.highlight(r.note().getTitle(), terms),
+                NoteSnippets.snippet(r.note().getContent(), terms),
+                r.score(),
+                r.note().getCreatedAt()))
+            .toList();
+    }
+
+    /** Re-reads every note into a fresh search index. */
+    public int rebuildSearchIndex() {
+        long started = System.nanoTime();
+        Integer indexed = readOnlyTx.execute(status -> {
+            try (Stream<Object[]> rows = repository.streamSearchableText()) {
+                return index.rebuild(rows);
+            }
+        });
+        log.info("Indexed {} notes for search in {} ms", indexed, (System.nanoTime() - started) / 1_000_000);
+        return indexed != null ? indexed : 0;
+    }
+
+    /** Re-reads one user's notes into their part of the search index. */
+    public int rebuildSearchIndex(long userId) {
+        Integer indexed = readOnlyTx.execute(status -> {
+            try (Stream<Object[]> rows = repository.streamSearchableTextByUserId(userId)) {
+                return index.rebuild(userId, rows);
+            }
+        });
+        return indexed != null ? indexed : 0;
+    }
+
+    private record Ranked(Note note, double score) {}
+
+    private List<Ranked> load(long userId, List<Hit> hits) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Note> byId = repository.findByUserIdAndIdIn(userId, hits.stream().map(Hit::noteId).toList()).stream()
+            .collect(Collectors.toMap(Note::getId, Function.identity()));
+
+        // Keep index order; skip ids deleted since the search ran
+        List<Ranked> ranked = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            Note note = byId.get(hit.noteId());
+            if (note != null) {
+                ranked.add(new Ranked(note, hit.score()));
+            }
+        }
+        return ranked;
+    }
+}
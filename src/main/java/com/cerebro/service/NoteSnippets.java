@@ -0,0 +1,112 @@
+package com.cerebro.service;
+
+import com.cerebro.service.NoteSearchIndex.QueryTerm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Highlights query terms with {@code <mark>} in HTML-escaped note text. */
+final class NoteSnippets {
+
+    static final int SNIPPET_LENGTH = 160;
+    private static final int LEAD_IN = 30;
+
+    private NoteSnippets() {
+    }
+
+    /** The whole text, escaped, with every matching word marked. */
+    static String highlight(String text, List<QueryTerm> terms) {
+        if (text == null) {
+            return null;
+        }
+        return render(text, matches(text, terms), 0, text.length());
+    }
+
+    /**
+     * Roughly {@link #SNIPPET_LENGTH} characters around the densest cluster of
+     * matches, or the start of the text when nothing matches.
+     */
+    static String snippet(String text, List<QueryTerm> terms) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        List<int[]> matches = matches(text, terms);
+        if (text.length() <= SNIPPET_LENGTH) {
+            return render(text, matches, 0, text.length());
+        }
+
+        int from = 0;
+        int best = 0;
+        for (int i = 0, j = 0; i < matches.size(); i++) {
+            while (j < matches.size() && matches.get(j)[1] <= matches.get(i)[0] + SNIPPET_LENGTH - LEAD_IN) {
+                j++;
+            }
+            if (j - i > best) {
+                best = j - i;
+                from = matches.get(i)[0];
+            }
+        }
+
+        if (best > 0) {
+            from = Math.max(0, from - LEAD_IN);
+            // Don't start in the middle of a word
+            while (from > 0 && !Character.isWhitespace(text.charAt(from - 1))) {
+                from--;
+            }
+        }
+        int to = Math.min(text.length(), from + SNIPPET_LENGTH);
+        while (to < text.length() && to > from && Character.isLetterOrDigit(text.charAt(to))) {
+            to--;
+        }
+        if (to == from) {
+            to = Math.min(text.length(), from + SNIPPET_LENGTH);
+        }
+
+        return (from > 0 ? "…" : "")
+             + render(text, matches, from, to).strip()
+             + (to < text.length() ? "…" : "");
+    }
+
+    private static List<int[]> matches(String text, List<QueryTerm> terms) {
+        List<int[]> matches = new ArrayList<>();
+        NoteSearchIndex.tokenize(text, (token, start, end) -> {
+            for (QueryTerm term : terms) {
+                if (term.matches(token)) {
+                    matches.add(new int[] {start, end});
+                    return;
+                }
+            }
+        });
+        return matches;
+    }
+
+    private static String render(String text, List<int[]> matches, int from, int to) {
+        StringBuilder out = new StringBuilder(to - from + 32);
+        int pos = from;
+        for (int[] m : matches) {
+            if (m[0] < from || m[1] > to) {
+                continue;
+            }
+            escape(text, pos, m[0], out);
+            out.append("<mark>");
+            escape(text, m[0], m[1], out);
+            out.append("</mark>");
+            pos = m[1];
+        }
+        escape(text, pos, to, out);
+        return out.toString();
+    }
+
+    private static void escape(String text, int from, int to, StringBuilder out) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
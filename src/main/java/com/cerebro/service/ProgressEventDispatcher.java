@@ -0,0 +1,214 @@
+package com.cerebro.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs challenge/streak progress work off the request thread.
+ *
+ * Work is hashed by user onto a fixed set of lanes. Each lane is a bounded
+ * queue drained by a single virtual thread, so one user's events are applied
+ * in the order they were committed while different users proceed in
+ * parallel. A full lane blocks the submitter rather than dropping progress.
+ *
+ * Progress is mostly applied as increments, so a job that is given up on
+ * would leave it wrong for good. Jobs can carry a repair that re-derives the
+ * user's progress from committed data; it is queued behind the user's other
+ * pending jobs when the job fails for the last time.
+ */
+@Component
+public class ProgressEventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ProgressEventDispatcher.class);
+
+    private record Job(long userId, String name, Runnable work, Runnable repair, long enqueuedNanos) {}
+
+    private final List<BlockingQueue<Job>> lanes = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private volatile boolean running = true;
+    // Queued plus being run: a job leaves its lane before it is applied
+    private final AtomicInteger unfinished = new AtomicInteger();
+
+    private final Timer lag;
+    private final Counter processed;
+    private final Counter retried;
+    private final Counter failed;
+
+    public ProgressEventDispatcher(MeterRegistry registry,
+                                   @Value("${cerebro.progress.lanes:8}") int laneCount,
+                                   @Value("${cerebro.progress.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${cerebro.progress.max-attempts:3}") int maxAttempts,
+                                   @Value("${cerebro.progress.retry-backoff-ms:200}") long retryBackoffMs) {
+        this.maxAttempts    = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+
+        for (int i = 0; i < laneCount; i++) {
+            BlockingQueue<Job> queue = new LinkedBlockingQueue<>(queueCapacity);
+            lanes.add(queue);
+            workers.add(Thread.ofVirtual()
+                .name("progress-lane-" + i)
+                .start(() -> drain(queue)));
+        }
+
+        this.lag       = Timer.builder("cerebro.progress.lag")
+            .description("Time between commit and the start of progress processing")
+            .register(registry);
+        this.processed = Counter.builder("cerebro.progress.events").tag("outcome", "processed").register(registry);
+        this.retried   = Counter.builder("cerebro.progress.events").tag("outcome", "retried").register(registry);
+        this.failed    = Counter.builder("cerebro.progress.events").tag("outcome", "failed").register(registry);
+        Gauge.builder("cerebro.progress.queue.depth", this, ProgressEventDispatcher::queueDepth)
+            .description("Progress events waiting to be processed")
+            .register(registry);
+        Gauge.builder("cerebro.progress.queue.oldest", this, ProgressEventDispatcher::oldestPendingSeconds)
+            .description("Age in seconds of the oldest waiting progress event")
+            .baseUnit("seconds")
+            .register(registry);
+    }
+
+    /** Queue work for a user; blocks while that user's lane is full. */
+    public void submit(long userId, String name, Runnable work) {
+        submit(userId, name, work, null);
+    }
+
+    /**
+     * Queue work for a user, with a {@code repair} to run in its place if it
+     * still fails after the last attempt.
+     */
+    public void submit(long userId, String name, Runnable work, Runnable repair) {
+        if (!running) {
+            log.warn("Dispatcher stopped, running {} for user {} inline", name, userId);
+            work.run();
+            return;
+        }
+        BlockingQueue<Job> lane = laneOf(userId);
+        unfinished.incrementAndGet();
+        try {
+            lane.put(new Job(userId, name, work, repair, System.nanoTime()));
+        } catch (InterruptedException e) {
+            unfinished.decrementAndGet();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing " + name, e);
+        }
+    }
+
+    private BlockingQueue<Job> laneOf(long userId) {
+        return lanes.get(Math.floorMod(Long.hashCode(userId), lanes.size()));
+    }
+
+    public int queueDepth() {
+        return lanes.stream().mapToInt(BlockingQueue::size).sum();
+    }
+
+    /** Jobs submitted and not yet finished, including ones a lane is running now. */
+    public int unfinishedJobs() {
+        return unfinished.get();
+    }
+
+    public double oldestPendingSeconds() {
+        long now = System.nanoTime();
+        long oldest = 0;
+        for (BlockingQueue<Job> lane : lanes) {
+            Job head = lane.peek();
+            if (head != null) {
+                oldest = Math.max(oldest, now - head.enqueuedNanos());
+            }
+        }
+        return oldest / 1_000_000_000.0;
+    }
+
+    private void drain(BlockingQueue<Job> queue) {
+        while (running || !queue.isEmpty()) {
+            Job job;
+            try {
+                job = queue.poll(500, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (job != null) {
+                lag.record(System.nanoTime() - job.enqueuedNanos(), TimeUnit.NANOSECONDS);
+                try {
+                    runWithRetries(job);
+                } finally {
+                    unfinished.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void runWithRetries(Job job) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                job.work().run();
+                processed.increment();
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    failed.increment();
+                    log.error("Giving up on {} for user {} after {} attempts",
+                              job.name(), job.userId(), attempt, e);
+                    queueRepair(job);
+                    return;
+                }
+                retried.increment();
+                log.warn("Retrying {} for user {} (attempt {}): {}",
+                         job.name(), job.userId(), attempt, e.getMessage());
+                try {
+                    Thread.sleep(retryBackoffMs * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs after the user's jobs already queued, so their increments land
+     * before the recompute rather than on top of it. Called on the lane's own
+     * thread, which can't wait for room in its queue: a full lane runs the
+     * repair right away instead.
+     */
+    private void queueRepair(Job failedJob) {
+        if (failedJob.repair() == null) {
+            return;
+        }
+        Job repair = new Job(failedJob.userId(), failedJob.name() + "-repair", failedJob.repair(), null,
+                             System.nanoTime());
+        unfinished.incrementAndGet();
+        if (!laneOf(failedJob.userId()).offer(repair)) {
+            try {
+                runWithRetries(repair);
+            } finally {
+                unfinished.decrementAndGet();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            if (!worker.join(Duration.ofSeconds(10))) {
+                log.warn("{} still busy at shutdown, interrupting", worker.getName());
+                worker.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.cerebro.service;
+
+import com.cerebro.repository.StudySessionRepository;
+import com.cerebro.repository.UserChallengeProgressRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Progress jobs still queued when the process died are gone. When enabled,
+ * every user's progress is re-derived from committed data at startup, the
+ * same way the jobs themselves derive it. The repairs go
+ * through the progress lanes, ahead of new events for the same user, and
+ * don't hold up startup.
+ */
+@Component
+@ConditionalOnProperty(name = "cerebro.progress.repair-on-startup", havingValue = "true")
+public class ProgressRepairRunner implements ApplicationRunner {
+
+    private final StudySessionRepository sessionRepo;
+    private final UserChallengeProgressRepository progressRepo;
+    private final ProgressEventDispatcher dispatcher;
+    private final StudyProgressService progressService;
+
+    public ProgressRepairRunner(StudySessionRepository sessionRepo,
+                                UserChallengeProgressRepository progressRepo,
+                                ProgressEventDispatcher dispatcher,
+                                StudyProgressService progressService) {
+        this.sessionRepo     = sessionRepo;
+        this.progressRepo    = progressRepo;
+        this.dispatcher      = dispatcher;
+        this.progressService = progressService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Set<Long> userIds = new TreeSet<>(sessionRepo.findDistinctUserIds());
+        userIds.addAll(progressRepo.findDistinctUserIds());
+        for (long userId : userIds) {
+            dispatcher.submit(userId, "startup-repair", () -> progressService.repair(userId));
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.cerebro.service;
+
+import com.cerebro.model.Course;
+import com.cerebro.model.StudySession;
+import com.cerebro.model.Topic;
+import com.cerebro.model.WriteBehindCheckpoint;
+import com.cerebro.repository.CourseRepository;
+import com.cerebro.repository.TopicRepository;
+import com.cerebro.repository.WriteBehindCheckpointRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional write-behind path for POST /api/sessions and /batch
+ * (cerebro.write-behind.enabled).
+ *
+ * Ownership is checked up front, then the sessions are appended to a local
+ * {@link SessionWriteLog} and the request is acknowledged once the log has
+ * fsynced them. A writer thread drains the log into the database in batches:
+ * one transaction per batch, one {@link StudySessionService#createSessions}
+ * call per user in it (so challenge and streak progress is applied once per
+ * user per batch), and the checkpoint row moved forward in the same
+ * transaction. Records past the checkpoint are replayed at startup, and
+ * fully applied segments are deleted.
+ *
+ * Until a batch commits, the sessions are missing from reads; dashboards lag
+ * by up to the flush interval.
+ */
+@Component
+@ConditionalOnProperty(name = "cerebro.write-behind.enabled", havingValue = "true")
+public class SessionWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionWriteBehind.class);
+
+    static final String CHECKPOINT = "study_session";
+
+    /** What the log stores for one session. */
+    record LoggedSession(long userId, Instant startTime, Instant endTime, Long durationInMinutes,
+                         Long courseId, Long topicId) {
+
+        StudySession toEntity() {
+            StudySession entity = new StudySession();
+            entity.setStartTime(startTime);
+            entity.setEndTime(endTime);
+            if (endTime == null) {
+                entity.setDurationInMinutes(durationInMinutes);
+            }
+            if (courseId != null) {
+                Course course = new Course();
+                course.setId(courseId);
+                entity.setCourse(course);
+            }
+            if (topicId != null) {
+                Topic topic = new Topic();
+                topic.setId(topicId);
+                entity.setTopic(topic);
+            }
+            return entity;
+        }
+
+        /** Keeps only the course and topic the user still owns. */
+        LoggedSession withOwnedRefs(Set<Long> ownedCourses, Set<Long> ownedTopics) {
+            return new LoggedSession(userId, startTime, endTime, durationInMinutes,
+                courseId != null && ownedCourses.contains(courseId) ? courseId : null,
+                topicId != null && ownedTopics.contains(topicId) ? topicId : null);
+        }
+    }
+
+    private record Pending(long seq, LoggedSession session) {}
+
+    /** A user's course or topic vanished between acknowledgement and write. */
+    private static final class StaleReference extends RuntimeException {
+        final long userId;
+
+        StaleReference(long userId, IllegalArgumentException cause) {
+            super(cause.getMessage(), cause);
+            this.userId = userId;
+        }
+    }
+
+    private final StudySessionService sessionService;
+    private final CourseRepository courseRepository;
+    private final TopicRepository topicRepository;
+    private final WriteBehindCheckpointRepository checkpoints;
+    private final TransactionTemplate tx;
+    private final ObjectMapper json;
+    private final long flushIntervalMillis;
+    private final int maxBatch;
+
+    private final SessionWriteLog writeLog;
+    private final BlockingQueue<Pending> pending = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final Timer commits;
+    private final Counter written;
+    private final Counter retries;
+
+    public SessionWriteBehind(StudySessionService sessionService,
+                              CourseRepository courseRepository,
+                              TopicRepository topicRepository,
+                              WriteBehindCheckpointRepository checkpoints,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper json,
+                              MeterRegistry registry,
+                              @Value("${cerebro.write-behind.dir:data/write-behind}") Path dir,
+                              @Value("${cerebro.write-behind.segment-bytes:67108864}") long segmentBytes,
+                              @Value("${cerebro.write-behind.flush-interval-ms:200}") long flushIntervalMillis,
+                              @Value("${cerebro.write-behind.max-batch:2000}") int maxBatch) throws IOException {
+        this.sessionService = sessionService;
+        this.courseRepository = courseRepository;
+        this.topicRepository = topicRepository;
+        this.checkpoints = checkpoints;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.json = json;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxBatch = maxBatch;
+
+        this.commits = Timer.builder("cerebro.write-behind.commit")
+            .description("Database transaction per write-behind batch")
+            .register(registry);
+        this.written = Counter.builder("cerebro.write-behind.sessions").register(registry);
+        this.retries = Counter.builder("cerebro.write-behind.retries").register(registry);
+        Gauge.builder("cerebro.write-behind.backlog", pending, BlockingQueue::size)
+            .description("Acknowledged sessions not yet in the database")
+            .register(registry);
+
+        long checkpoint = checkpoints.findById(CHECKPOINT).map(WriteBehindCheckpoint::getLastSeq).orElse(0L);
+        this.writeLog = new SessionWriteLog(dir, segmentBytes, this::enqueue);
+        List<SessionWriteLog.Entry> replay = writeLog.open(checkpoint);
+        if (!replay.isEmpty()) {
+            log.info("Replaying {} study sessions from the write-behind log (checkpoint {})", replay.size(), checkpoint);
+            enqueue(replay);
+        }
+        this.writer = Thread.ofVirtual().name("write-behind-writer").start(this::run);
+    }
+
+    /**
+     * Logs the sessions durably for writing later.
+     *
+     * @throws IllegalArgumentException if a session references a course or
+     *         topic the user doesn't own
+     * @throws IOException if the log can't take them; nothing was acknowledged
+     */
+    public void accept(long userId, List<StudySession> sessions) throws IOException, InterruptedException {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        sessionService.checkOwnership(userId, sessions);
+        List<byte[]> payloads = new ArrayList<>(sessions.size());
+        for (StudySession s : sessions) {
+            payloads.add(json.writeValueAsBytes(new LoggedSession(userId, s.getStartTime(), s.getEndTime(),
+                s.getDurationInMinutes(),
+                s.getCourse() != null ? s.getCourse().getId() : null,
+                s.getTopic() != null ? s.getTopic().getId() : null)));
+        }
+        writeLog.append(payloads);
+    }
+
+    public int backlog() {
+        return pending.size();
+    }
+
+    /** Called in sequence order by the log once entries are durable. */
+    private void enqueue(List<SessionWriteLog.Entry> entries) {
+        for (SessionWriteLog.Entry e : entries) {
+            try {
+                pending.add(new Pending(e.seq(), json.readValue(e.payload(), LoggedSession.class)));
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Unreadable write-behind record " + e.seq(), ex);
+            }
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>();
+        while (running || !pending.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    if (pending.size() < maxBatch) {
+                        TimeUnit.MILLISECONDS.sleep(flushIntervalMillis);
+                    }
+                    pending.drainTo(batch, maxBatch);
+                    if (batch.isEmpty()) {
+                        continue;
+                    }
+                }
+                Timer.Sample sample = Timer.start();
+                commit(batch);
+                sample.stop(commits);
+                written.increment(batch.size());
+                writeLog.truncateThrough(batch.get(batch.size() - 1).seq());
+                batch.clear();
+            } catch (StaleReference e) {
+                try {
+                    dropDeletedReferences(e.userId, batch);
+                } catch (RuntimeException lookupFailed) {
+                    if (!backOff(batch, lookupFailed)) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                if (!backOff(batch, e)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /** The batch stays first in line; the log still has it if we never get through. False if interrupted. */
+    private boolean backOff(List<Pending> batch, RuntimeException e) {
+        retries.increment();
+        log.error("Write-behind batch of {} failed, retrying: {}", batch.size(), e.getMessage());
+        try {
+            TimeUnit.MILLISECONDS.sleep(Math.max(1000, flushIntervalMillis));
+            return true;
+        } catch (InterruptedException ie) {
+            return false;
+        }
+    }
+
+    /**
+     * A course or topic of the user's was deleted after their sessions were
+     * acknowledged. Looks up each distinct id the user's sessions in the batch
+     * reference and unlinks only those that are gone; the rest keep theirs.
+     */
+    private void dropDeletedReferences(long userId, List<Pending> batch) {
+        Set<Long> courseIds = new HashSet<>();
+        Set<Long> topicIds = new HashSet<>();
+        for (Pending p : batch) {
+            if (p.session().userId() == userId) {
+                if (p.session().courseId() != null) {
+                    courseIds.add(p.session().courseId());
+                }
+                if (p.session().topicId() != null) {
+                    topicIds.add(p.session().topicId());
+                }
+            }
+        }
+        Set<Long> ownedCourses = courseIds.isEmpty()
+            ? Set.of() : new HashSet<>(courseRepository.findOwnedIds(userId, courseIds));
+        Set<Long> ownedTopics = topicIds.isEmpty()
+            ? Set.of() : new HashSet<>(topicRepository.findOwnedIds(userId, topicIds));
+        courseIds.removeAll(ownedCourses);
+        topicIds.removeAll(ownedTopics);
+        log.warn("Writing user {}'s logged sessions without deleted courses {} and topics {}",
+            userId, courseIds, topicIds);
+        batch.replaceAll(p -> p.session().userId() == userId
+            ? new Pending(p.seq(), p.session().withOwnedRefs(ownedCourses, ownedTopics)) : p);
+    }
+
+    private void commit(List<Pending> batch) {
+        Map<Long, List<StudySession>> byUser = new LinkedHashMap<>();
+        for (Pending p : batch) {
+            byUser.computeIfAbsent(p.session().userId(), k -> new ArrayList<>()).add(p.session().toEntity());
+        }
+        tx.executeWithoutResult(status -> {
+            byUser.forEach((userId, sessions) -> {
+                try {
+                    sessionService.createSessions(userId, sessions);
+                } catch (IllegalArgumentException e) {
+                    throw new StaleReference(userId, e);
+                }
+            });
+            WriteBehindCheckpoint checkpoint = new WriteBehindCheckpoint();
+            checkpoint.setName(CHECKPOINT);
+            checkpoint.setLastSeq(batch.get(batch.size() - 1).seq());
+            checkpoints.save(checkpoint);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        writeLog.close();
+        running = false;
+        if (!writer.join(Duration.ofSeconds(30))) {
+            log.warn("{} sessions still unwritten at shutdown; they will be replayed from the log", pending.size());
+            writer.interrupt();
+        }
+    }
+}
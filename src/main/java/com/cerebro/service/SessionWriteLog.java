@@ -0,0 +1,303 @@
+package com.cerebro.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log behind {@link SessionWriteBehind}, split into segment files
+ * named after the sequence number of their first record.
+ *
+ * Record layout: seq (8 bytes) | payload length (4) | CRC32C of seq and
+ * payload (4) | payload. Appends are group-committed: one thread writes
+ * everything queued since its last pass and fsyncs once, then releases all
+ * of those callers. Durable records are handed to {@code onDurable} in
+ * sequence order. On open, a torn or corrupt tail (a crash mid-write) is cut
+ * off; it was never acknowledged.
+ */
+final class SessionWriteLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionWriteLog.class);
+
+    private static final int HEADER_BYTES = 16;
+    private static final String SUFFIX = ".log";
+
+    record Entry(long seq, byte[] payload) {}
+
+    private record Append(List<byte[]> payloads, CompletableFuture<Long> done) {}
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final Consumer<List<Entry>> onDurable;
+
+    private final NavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private final BlockingQueue<Append> queue = new LinkedBlockingQueue<>();
+    private FileChannel active;
+    private long nextSeq;
+    private IOException failure;
+
+    private Thread writer;
+    private volatile boolean running;
+
+    SessionWriteLog(Path dir, long segmentBytes, Consumer<List<Entry>> onDurable) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.onDurable = onDurable;
+    }
+
+    /**
+     * Recovers the log and starts accepting appends.
+     *
+     * @return the records after {@code checkpoint}, oldest first
+     */
+    List<Entry> open(long checkpoint) throws IOException {
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> p.getFileName().toString().endsWith(SUFFIX))
+                 .forEach(p -> segments.put(baseOf(p), p));
+        }
+
+        List<Entry> unapplied = new ArrayList<>();
+        long last = checkpoint;
+        for (Path segment : segments.values()) {
+            last = Math.max(last, recover(segment, checkpoint, unapplied));
+        }
+        nextSeq = last + 1;
+        roll();
+
+        running = true;
+        writer = Thread.ofVirtual().name("write-behind-log").start(this::run);
+        return unapplied;
+    }
+
+    /**
+     * Appends the payloads and returns once they are on disk.
+     *
+     * @return the sequence number of the last one
+     */
+    long append(List<byte[]> payloads) throws IOException, InterruptedException {
+        if (!running) {
+            throw new IOException("Write-behind log is closed");
+        }
+        Append append = new Append(payloads, new CompletableFuture<>());
+        queue.put(append);
+        try {
+            return append.done().get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        }
+    }
+
+    /** Deletes segments whose records are all at or below {@code seq}; never the one being written. */
+    void truncateThrough(long seq) {
+        Iterator<Map.Entry<Long, Path>> it = segments.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Path> segment = it.next();
+            Long nextBase = segments.higherKey(segment.getKey());
+            if (nextBase == null || nextBase > seq + 1) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(segment.getValue());
+                it.remove();
+            } catch (IOException e) {
+                log.warn("Could not delete applied segment {}: {}", segment.getValue(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(Duration.ofSeconds(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (active != null) {
+            active.close();
+        }
+    }
+
+    private void run() {
+        List<Append> group = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Append first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(group);
+            try {
+                List<Entry> entries = write(group);
+                onDurable.accept(entries);
+                long seq = nextSeq - entries.size() - 1;
+                for (Append append : group) {
+                    seq += append.payloads().size();
+                    append.done().complete(seq);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Write-behind log append failed", e);
+                IOException io = e instanceof IOException x ? x : new IOException(e);
+                group.forEach(a -> a.done().completeExceptionally(io));
+            }
+            group.clear();
+        }
+    }
+
+    /** Writes one group and fsyncs; on error the segment is cut back so nothing half-written stays. */
+    private List<Entry> write(List<Append> group) throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        int bytes = 0;
+        for (Append append : group) {
+            for (byte[] payload : append.payloads()) {
+                bytes += HEADER_BYTES + payload.length;
+            }
+        }
+        if (active.position() > 0 && active.position() + bytes > segmentBytes) {
+            roll();
+        }
+
+        long startPosition = active.position();
+        long startSeq = nextSeq;
+        List<Entry> entries = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        for (Append append : group) {
+            for (byte[] payload : append.payloads()) {
+                long seq = nextSeq++;
+                buffer.putLong(seq).putInt(payload.length).putInt(crc(seq, payload)).put(payload);
+                entries.add(new Entry(seq, payload));
+            }
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                active.write(buffer);
+            }
+            active.force(false);
+        } catch (IOException e) {
+            nextSeq = startSeq;
+            try {
+                active.truncate(startPosition);
+                active.position(startPosition);
+            } catch (IOException t) {
+                // Can't tell what is on disk any more: refuse further appends
+                failure = t;
+            }
+            throw e;
+        }
+        return entries;
+    }
+
+    private void roll() throws IOException {
+        if (active != null) {
+            active.close();
+        }
+        Path path = dir.resolve(String.format("%020d%s", nextSeq, SUFFIX));
+        // A segment already named for nextSeq holds no valid record, so it can be emptied
+        active = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        segments.put(nextSeq, path);
+        try (FileChannel d = FileChannel.open(dir, StandardOpenOption.READ)) {
+            d.force(true);
+        } catch (IOException e) {
+            // Not every filesystem lets a directory be opened; the file itself is still fsynced
+        }
+    }
+
+    /** Reads one segment, cutting it at the first bad record; returns the highest valid seq or 0. */
+    private long recover(Path segment, long checkpoint, List<Entry> unapplied) throws IOException {
+        long last = 0;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long position = 0;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (position < size) {
+                try {
+                    header.clear();
+                    readFully(channel, header, position);
+                    header.flip();
+                    long seq = header.getLong();
+                    int length = header.getInt();
+                    int crc = header.getInt();
+                    if (length < 0 || position + HEADER_BYTES + length > size) {
+                        throw new EOFException();
+                    }
+                    ByteBuffer payload = ByteBuffer.allocate(length);
+                    readFully(channel, payload, position + HEADER_BYTES);
+                    if (crc(seq, payload.array()) != crc) {
+                        throw new EOFException();
+                    }
+                    if (seq > checkpoint) {
+                        unapplied.add(new Entry(seq, payload.array()));
+                    }
+                    last = seq;
+                    position += HEADER_BYTES + length;
+                } catch (EOFException e) {
+                    log.warn("Cutting {} at byte {} of {}: incomplete or corrupt record", segment, position, size);
+                    channel.truncate(position);
+                    channel.force(true);
+                    break;
+                }
+            }
+        }
+        return last;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private static int crc(long seq, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(8).putLong(0, seq));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static long baseOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+}
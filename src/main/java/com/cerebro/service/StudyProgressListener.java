@@ -0,0 +1,43 @@
+package com.cerebro.service;
+
+import com.cerebro.event.StreakLapsedEvent;
+import com.cerebro.event.StudyDayRemovedEvent;
+import com.cerebro.event.StudySessionsRecordedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Hands committed session events to the per-user progress lanes. A job that
+ * keeps failing is replaced by a repair of the user's progress.
+ */
+@Component
+public class StudyProgressListener {
+
+    private final ProgressEventDispatcher dispatcher;
+    private final StudyProgressService progressService;
+
+    public StudyProgressListener(ProgressEventDispatcher dispatcher,
+                                 StudyProgressService progressService) {
+        this.dispatcher      = dispatcher;
+        this.progressService = progressService;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSessionsRecorded(StudySessionsRecordedEvent event) {
+        dispatcher.submit(event.userId(), "sessions-recorded", () -> progressService.apply(event),
+                          () -> progressService.repair(event.userId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStudyDayRemoved(StudyDayRemovedEvent event) {
+        dispatcher.submit(event.userId(), "study-day-removed", () -> progressService.apply(event),
+                          () -> progressService.repair(event.userId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStreakLapsed(StreakLapsedEvent event) {
+        dispatcher.submit(event.userId(), "streak-lapsed", () -> progressService.apply(event),
+                          () -> progressService.repair(event.userId()));
+    }
+}
@@ -0,0 +1,85 @@
+package com.cerebro.service;
+
+import com.cerebro.event.StreakLapsedEvent;
+import com.cerebro.event.StudyDayRemovedEvent;
+import com.cerebro.event.StudySessionsRecordedEvent;
+import com.cerebro.service.DashboardVersions.Aggregate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Derived progress (streak + challenges) that follows committed session
+ * writes. Invoked from the progress lanes, never on the request thread.
+ */
+@Service
+public class StudyProgressService {
+
+    private final StudyStreakService streakService;
+    private final ChallengeService challengeService;
+    private final DashboardVersions versions;
+
+    public StudyProgressService(StudyStreakService streakService,
+                                ChallengeService challengeService,
+                                DashboardVersions versions) {
+        this.streakService    = streakService;
+        this.challengeService = challengeService;
+        this.versions         = versions;
+    }
+
+    @Transactional
+    public void apply(StudySessionsRecordedEvent event) {
+        long userId = event.userId();
+
+        boolean streakChanged = false;
+        for (LocalDate day : event.studyDates()) {
+            streakChanged |= streakService.recordStudyDay(userId, day);
+        }
+        // Also covers the last study day moving, which /streak reads too
+        versions.bumpAfterCommit(userId, Aggregate.STREAK);
+        if (streakChanged) {
+            syncStreakChallenges(userId);
+        }
+
+        if (event.sessionCount() > 0) {
+            challengeService.recomputeProgressFromSessions(userId);
+        }
+    }
+
+    @Transactional
+    public void apply(StudyDayRemovedEvent event) {
+        versions.bumpAfterCommit(event.userId(), Aggregate.STREAK);
+        if (streakService.repair(event.userId())) {
+            syncStreakChallenges(event.userId());
+        }
+    }
+
+    @Transactional
+    public void apply(StreakLapsedEvent event) {
+        // GET /streak already reads 0; only the challenges move
+        if (streakService.expireIfLapsed(event.userId())) {
+            syncStreakChallenges(event.userId());
+        }
+    }
+
+    /**
+     * Re-derives the streak (from the daily rollup, which is written with the
+     * sessions) and all challenge progress from committed data. Used after an
+     * administrative rebuild, when a progress job is given up on, and at
+     * startup for jobs lost in a crash. Challenge progress is computed the
+     * same way as after every session write, so a repair never disagrees
+     * with, or double counts against, the jobs around it.
+     */
+    @Transactional
+    public void repair(long userId) {
+        versions.bumpAfterCommit(userId, Aggregate.STREAK);
+        streakService.repair(userId);
+        syncStreakChallenges(userId);
+        challengeService.recomputeProgressFromSessions(userId);
+    }
+
+    private void syncStreakChallenges(long userId) {
+        challengeService.updateProgressFromStreak(streakService.getStoredLength(userId), userId);
+    }
+}
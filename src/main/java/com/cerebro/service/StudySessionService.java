@@ -1,102 +1,216 @@
 package com.cerebro.service;
 
 import com.cerebro.dto.DailyStudySummary;
+import com.cerebro.dto.StudyHeatmap;
+import com.cerebro.dto.StudySessionDTO;
+import com.cerebro.event.StudyDayRemovedEvent;
+import com.cerebro.event.StudySessionsRecordedEvent;
 import com.cerebro.model.StudySession;
+import com.cerebro.repository.CourseRepository;
 import com.cerebro.repository.StudySessionRepository;
 import com.cerebro.repository.TopicRepository;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.cerebro.service.DashboardVersions.Aggregate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.sql.Date;
 import java.time.*;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.stream.Stream;
 
 @Service
 public class StudySessionService {
 
-    private static final Logger log = LoggerFactory.getLogger(StudySessionService.class);
-    private static final long DUMMY_USER_ID = 1L;
-
     private final StudySessionRepository repo;
-    private final ChallengeService challengeService;
+    private final CourseRepository courseRepository;
     private final TopicRepository topicRepository;
+    private final DailyRollupService rollupService;
+    private final StudyStreakService streakService;
+    private final StudyProgressService progressService;
+    private final DashboardVersions versions;
+    private final ApplicationEventPublisher events;
 
     public StudySessionService(
             StudySessionRepository repo,
-            ChallengeService challengeService,
-            TopicRepository topicRepository
+            CourseRepository courseRepository,
+            TopicRepository topicRepository,
+            DailyRollupService rollupService,
+            StudyStreakService streakService,
+            StudyProgressService progressService,
+            DashboardVersions versions,
+            ApplicationEventPublisher events
     ) {
         this.repo = repo;
-        this.challengeService = challengeService;
+        this.courseRepository = courseRepository;
         this.topicRepository = topicRepository;
+        this.rollupService = rollupService;
+        this.streakService = streakService;
+        this.progressService = progressService;
+        this.versions = versions;
+        this.events = events;
     }
 
-    public StudySession createSession(StudySession session) {
-        if (session.getStartTime() != null && session.getEndTime() != null) {
-            session.setDurationInMinutes(
-                Duration.between(session.getStartTime(), session.getEndTime())
-                        .toMinutes()
-            );
-        }
-        StudySession saved = repo.save(session);
+    /**
+     * Stores the session and its daily rollup in one transaction. Streak and
+     * challenge progress follow asynchronously once that transaction commits.
+     */
+    @Transactional
+    public StudySession createSession(long userId, StudySession session) {
+        return createSessions(userId, List.of(session)).get(0);
+    }
 
-        if (saved.getDurationInMinutes() != null) {
-            challengeService.updateProgressFromSession(saved.getDurationInMinutes(), DUMMY_USER_ID);
+    /**
+     * Bulk variant of {@link #createSession}. Inserts go out as JDBC batches,
+     * the rollup gets one upsert per day and challenge progress is applied
+     * once for the whole batch.
+     *
+     * @throws IllegalArgumentException if a session references a course or
+     *         topic the user doesn't own
+     */
+    @Transactional
+    public List<StudySession> createSessions(long userId, List<StudySession> sessions) {
+        checkOwnership(userId, sessions);
+        int counted = 0;
+        long minutes = 0;
+        for (StudySession session : sessions) {
+            session.setUserId(userId);
+            if (session.getStartTime() != null && session.getEndTime() != null) {
+                session.setDurationInMinutes(
+                    Duration.between(session.getStartTime(), session.getEndTime())
+                            .toMinutes()
+                );
+            }
+            if (session.getDurationInMinutes() != null) {
+                counted++;
+                minutes += session.getDurationInMinutes();
+            }
         }
 
+        List<StudySession> saved = repo.saveAll(sessions);
+        SortedSet<LocalDate> days = rollupService.addSessions(saved, userId);
+        versions.bumpAfterCommit(userId, Aggregate.STUDY_TIME);
+
+        events.publishEvent(new StudySessionsRecordedEvent(
+            userId, days, counted, minutes, Instant.now()));
+
         return saved;
     }
 
-    public List<StudySession> getAllSessions() {
-        return repo.findAll();
+    /** One lookup per referenced kind, not per session. */
+    void checkOwnership(long userId, List<StudySession> sessions) {
+        Set<Long> courseIds = new HashSet<>();
+        Set<Long> topicIds = new HashSet<>();
+        for (StudySession session : sessions) {
+            if (session.getCourse() != null && session.getCourse().getId() != null) {
+                courseIds.add(session.getCourse().getId());
+            }
+            if (session.getTopic() != null && session.getTopic().getId() != null) {
+                topicIds.add(session.getTopic().getId());
+            }
+        }
+        if (!courseIds.isEmpty() && courseRepository.findOwnedIds(userId, courseIds).size() != courseIds.size()) {
+            throw new IllegalArgumentException("Unknown course in sessions");
+        }
+        if (!topicIds.isEmpty() && topicRepository.findOwnedIds(userId, topicIds).size() != topicIds.size()) {
+            throw new IllegalArgumentException("Unknown topic in sessions");
+        }
     }
 
-    public StudySession getSession(Long id) {
-        return repo.findById(id).orElse(null);
+    public List<StudySessionDTO> getAllSessions(long userId) {
+        return repo.findAllDtos(userId);
     }
 
-    public void deleteSession(Long id) {
-        repo.deleteById(id);
+    /** Newest-first keyset page, optionally restricted to one course. */
+    public List<StudySessionDTO> getSessionsPage(long userId, Long courseId, Long before, int limit) {
+        long cursor = before != null ? before : Long.MAX_VALUE;
+        return courseId != null
+            ? repo.findDtosByCourseIdBefore(userId, courseId, cursor, Limit.of(limit))
+            : repo.findDtosBefore(userId, cursor, Limit.of(limit));
     }
 
-    public List<DailyStudySummary> getDailySummary() {
-        var raw = repo.getRawDailySummary();
-        List<DailyStudySummary> out = new ArrayList<>();
-        for (Object[] row : raw) {
-            if (row[0] != null && row[1] != null) {
-                LocalDate date = ((Date) row[0]).toLocalDate();
-                long total = ((Number) row[1]).longValue();
-                if (total > 0) {
-                    out.add(new DailyStudySummary(date, total));
-                }
+    /** All of a user's sessions as a database cursor; the caller must hold a transaction. */
+    public Stream<StudySessionDTO> streamAllSessions(long userId) {
+        return repo.streamAllDtos(userId);
+    }
+
+    public StudySessionDTO getSession(long userId, Long id) {
+        return repo.findDtoById(userId, id).orElse(null);
+    }
+
+    @Transactional
+    public void deleteSession(long userId, Long id) {
+        repo.findByIdAndUserId(id, userId).ifPresent(s -> {
+            boolean dayEmptied = rollupService.removeSession(s, userId);
+            repo.delete(s);
+            versions.bumpAfterCommit(userId, Aggregate.STUDY_TIME);
+            if (dayEmptied) {
+                events.publishEvent(new StudyDayRemovedEvent(
+                    userId, DailyRollupService.studyDateOf(s.getStartTime()), Instant.now()));
             }
+        });
+    }
+
+    public List<DailyStudySummary> getDailySummary(long userId) {
+        return rollupService.getDailySummary(userId);
+    }
+
+    public StudyHeatmap getHeatmap(long userId, int year) {
+        return rollupService.getHeatmap(userId, year);
+    }
+
+    /** Recompute the user's daily rollup, and the streak and challenge progress, from their stored sessions. */
+    @Transactional
+    public int rebuildDailySummary(long userId) {
+        int days = rollupService.rebuild(userId);
+        versions.bumpAfterCommit(userId, Aggregate.STUDY_TIME);
+        progressService.repair(userId);
+        return days;
+    }
+
+    /** {@link #rebuildDailySummary} for every user with sessions; returns the day rows written. */
+    @Transactional
+    public int rebuildAllDailySummaries() {
+        int days = 0;
+        for (Long userId : repo.findDistinctUserIds()) {
+            days += rebuildDailySummary(userId);
         }
-        return out;
+        return days;
     }
 
-    public Map<String, Integer> getWeeklySummary() {
+    public Map<String, Integer> getWeeklySummary(long userId) {
+        return getWeeklySummary(userId, 0);
+    }
+
+    /**
+     * Minutes per weekday for the Monday-based week {@code weeksAgo} weeks
+     * before the current one. Only that week's rows are read.
+     */
+    public Map<String, Integer> getWeeklySummary(long userId, int weeksAgo) {
         ZoneId zone = ZoneId.systemDefault();
-        LocalDate today = LocalDate.now(zone);
-        LocalDate monday = today.with(DayOfWeek.MONDAY);
+        LocalDate monday = LocalDate.now(zone)
+                .with(DayOfWeek.MONDAY)
+                .minusWeeks(weeksAgo);
 
         Map<DayOfWeek, Integer> temp = new LinkedHashMap<>();
         for (DayOfWeek d : DayOfWeek.values()) {
             temp.put(d, 0);
         }
 
-        LocalDateTime weekStart = monday.atStartOfDay();
-        Instant weekStartInstant = weekStart.atZone(ZoneId.systemDefault()).toInstant();
-        List<StudySession> sessions = repo.findAll().stream()
-            .filter(s -> s.getStartTime() != null && !s.getStartTime().isBefore(weekStartInstant))
-            .toList();
-
-        for (StudySession s : sessions) {
-            DayOfWeek dow = s.getStartTime().atZone(ZoneId.systemDefault()).getDayOfWeek();
-            temp.put(dow, temp.get(dow) + s.getDurationInMinutes().intValue());
+        Instant weekStart = monday.atStartOfDay(zone).toInstant();
+        Instant weekEnd   = monday.plusWeeks(1).atStartOfDay(zone).toInstant();
+        for (Object[] row : repo.findStartTimesAndDurationsBetween(userId, weekStart, weekEnd)) {
+            if (row[1] == null) {
+                continue;
+            }
+            DayOfWeek dow = ((Instant) row[0]).atZone(zone).getDayOfWeek();
+            temp.put(dow, temp.get(dow) + ((Number) row[1]).intValue());
         }
 
         Map<String, Integer> result = new LinkedHashMap<>();
@@ -106,62 +220,45 @@ public class StudySessionService {
         return result;
     }
 
-    public int getCurrentStreak() {
-        List<java.sql.Date> rawDates =
-            repo.findDistinctStudyDatesOrderedDesc();
-        List<LocalDate> studyDates = rawDates.stream()
-            .map(Date::toLocalDate)
-            .toList();
-
-        log.info("📆 Distinct study dates (desc): {}", studyDates);
-
-        if (studyDates.isEmpty()) {
-            log.info("🌵 No study dates, streak = 0");
-            return 0;
-        }
-
-        int streak = 0;
-        LocalDate today = LocalDate.now();
-        while (streak < studyDates.size() &&
-               studyDates.get(streak).equals(today.minusDays(streak))) {
-            streak++;
-        }
-
-        log.info("🔥 Calculated streak = {} days", streak);
+    /** The streak is maintained when sessions are written; a lapsed one is reset off this thread. */
+    public int getCurrentStreak(long userId) {
+        return streakService.getCurrentStreak(userId);
+    }
 
-        challengeService.updateProgressFromStreak(streak, DUMMY_USER_ID);
+    public List<StudySessionDTO> getSessionsByCourseId(long userId, Long courseId) {
+        return repo.findDtosByCourseId(userId, courseId);
+    }
 
-        return streak;
+    public List<StudySessionDTO> getSessionsByTopicId(long userId, Long topicId) {
+        return repo.findDtosByTopicId(userId, topicId);
     }
 
-    public List<StudySession> getSessionsByCourseId(Long courseId) {
-        return repo.findByCourseId(courseId);
+    public long getTotalMinutesByCourseId(long userId, Long courseId) {
+        return repo.sumMinutesByCourseId(userId, courseId);
     }
 
-    public List<StudySession> getSessionsByTopicId(Long topicId) {
-        return repo.findByTopicId(topicId);
+    public long getTotalMinutesByTopicId(long userId, Long topicId) {
+        return repo.sumMinutesByTopicId(userId, topicId);
     }
 
-    public long getTotalMinutesByCourseId(Long courseId) {
-        return getSessionsByCourseId(courseId).stream()
-                    .mapToLong(StudySession::getDurationInMinutes)
-                    .sum();
+    /** Totals for many courses in one query; ids without sessions map to 0. */
+    public Map<Long, Long> getTotalMinutesByCourseIds(long userId, Collection<Long> courseIds) {
+        return toTotals(courseIds, repo.sumMinutesByCourseIds(userId, courseIds));
     }
 
-    public long getTotalMinutesByTopicId(Long topicId) {
-        return getSessionsByTopicId(topicId).stream()
-                    .mapToLong(StudySession::getDurationInMinutes)
-                    .sum();
+    /** Totals for many topics in one query; ids without sessions map to 0. */
+    public Map<Long, Long> getTotalMinutesByTopicIds(long userId, Collection<Long> topicIds) {
+        return toTotals(topicIds, repo.sumMinutesByTopicIds(userId, topicIds));
     }
 
-    /** New method to get course completion percentage */
-    public double getCourseCompletion(Long courseId) {
-        long totalTopics = topicRepository.countByCourseId(courseId);
-        long completedTopics = topicRepository.countByCourseIdAndCompletedTrue(courseId);
-    
-        if (totalTopics == 0) {
-            return 0.0;
+    private static Map<Long, Long> toTotals(Collection<Long> ids, List<Object[]> rows) {
+        Map<Long, Long> totals = new LinkedHashMap<>();
+        for (Long id : ids) {
+            totals.put(id, 0L);
+        }
+        for (Object[] row : rows) {
+            totals.put((Long) row[0], ((Number) row[1]).longValue());
         }
-        return (double) completedTopics / totalTopics;
+        return totals;
     }
 }
@@ -0,0 +1,160 @@
+package com.cerebro.service;
+
+import com.cerebro.event.StreakLapsedEvent;
+import com.cerebro.model.StudyStreak;
+import com.cerebro.repository.StudyStreakRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keeps study_streak current on write so reading a streak is a single-row
+ * lookup. A read that finds the stored streak lapsed (last studied before
+ * yesterday) publishes {@link StreakLapsedEvent}; the progress lanes then
+ * zero it and the streak challenges through {@link #expireIfLapsed}.
+ */
+@Service
+public class StudyStreakService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudyStreakService.class);
+
+    private final StudyStreakRepository streakRepo;
+    private final DailyRollupService rollupService;
+    private final ApplicationEventPublisher events;
+
+    public StudyStreakService(StudyStreakRepository streakRepo,
+                              DailyRollupService rollupService,
+                              ApplicationEventPublisher events) {
+        this.streakRepo    = streakRepo;
+        this.rollupService = rollupService;
+        this.events        = events;
+    }
+
+    /**
+     * Advance the streak for a newly recorded study day.
+     * Returns true if the current streak length changed.
+     */
+    @Transactional
+    public boolean recordStudyDay(long userId, LocalDate day) {
+        StudyStreak streak = lockStreak(userId);
+        LocalDate last = streak.getLastStudyDate();
+        int before = streak.getCurrentLength();
+
+        if (last == null || day.isAfter(last.plusDays(1))) {
+            streak.setCurrentLength(1);
+            streak.setLastStudyDate(day);
+        } else if (day.equals(last.plusDays(1)) && before > 0) {
+            streak.setCurrentLength(before + 1);
+            streak.setLastStudyDate(day);
+        } else if (day.isBefore(last) || before == 0) {
+            // A back-dated session may bridge a gap in the past, or reach
+            // back to a streak that was expired as lapsed
+            recompute(streak);
+        }
+
+        streak.setLongestLength(Math.max(streak.getLongestLength(), streak.getCurrentLength()));
+        return streak.getCurrentLength() != before;
+    }
+
+    /**
+     * Rebuild the streak from the daily rollup after history was removed.
+     * Returns true if the current streak length changed.
+     */
+    @Transactional
+    public boolean repair(long userId) {
+        StudyStreak streak = lockStreak(userId);
+        int before = streak.getCurrentLength();
+        recompute(streak);
+        return streak.getCurrentLength() != before;
+    }
+
+    /**
+     * Zero a streak that can no longer continue, once per lapse.
+     * Returns true if the current streak length changed.
+     */
+    @Transactional
+    public boolean expireIfLapsed(long userId) {
+        StudyStreak streak = lockStreak(userId);
+        if (!isLapsed(streak, LocalDate.now())) {
+            return false;
+        }
+        streak.setCurrentLength(0);
+        log.info("Streak for user {} lapsed after {}", userId, streak.getLastStudyDate());
+        return true;
+    }
+
+    /** Consecutive days studied up to and including today, 0 if not studied today. */
+    @Transactional(readOnly = true)
+    public int getCurrentStreak(long userId) {
+        LocalDate today = LocalDate.now();
+        return streakRepo.findById(userId)
+            .map(s -> {
+                if (today.equals(s.getLastStudyDate())) {
+                    return s.getCurrentLength();
+                }
+                if (isLapsed(s, today)) {
+                    events.publishEvent(new StreakLapsedEvent(userId, s.getLastStudyDate()));
+                }
+                return 0;
+            })
+            .orElse(0);
+    }
+
+    /** Current length as stored, regardless of whether today was studied. */
+    @Transactional(readOnly = true)
+    public int getStoredLength(long userId) {
+        return streakRepo.findById(userId)
+            .map(StudyStreak::getCurrentLength)
+            .orElse(0);
+    }
+
+    private StudyStreak lockStreak(long userId) {
+        streakRepo.insertIfAbsent(userId);
+        return streakRepo.findForUpdate(userId).orElseThrow();
+    }
+
+    private void recompute(StudyStreak streak) {
+        List<LocalDate> days = rollupService.getStudyDatesDesc(streak.getUserId());
+        if (days.isEmpty()) {
+            streak.setCurrentLength(0);
+            streak.setLongestLength(0);
+            streak.setLastStudyDate(null);
+            return;
+        }
+
+        int longest = 0;
+        int run = 0;
+        LocalDate prev = null;
+        for (LocalDate d : days) {
+            run = (prev != null && d.equals(prev.minusDays(1))) ? run + 1 : 1;
+            longest = Math.max(longest, run);
+            prev = d;
+        }
+        streak.setLastStudyDate(days.get(0));
+        streak.setCurrentLength(days.get(0).isBefore(LocalDate.now().minusDays(1)) ? 0 : leadingRun(days));
+        streak.setLongestLength(longest);
+        log.info("Recomputed streak for user {}: current={}, longest={}",
+                 streak.getUserId(), streak.getCurrentLength(), longest);
+    }
+
+    /** Still counting days although the last one was before yesterday. */
+    private static boolean isLapsed(StudyStreak streak, LocalDate today) {
+        return streak.getCurrentLength() > 0
+            && streak.getLastStudyDate() != null
+            && streak.getLastStudyDate().isBefore(today.minusDays(1));
+    }
+
+    private static int leadingRun(List<LocalDate> daysDesc) {
+        int run = 1;
+        while (run < daysDesc.size()
+               && daysDesc.get(run).equals(daysDesc.get(run - 1).minusDays(1))) {
+            run++;
+        }
+        return run;
+    }
+}
@@ -2,10 +2,12 @@ package com.cerebro.service;
 
 import com.cerebro.model.Task;
 import com.cerebro.repository.TaskRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class TaskService {
@@ -16,20 +18,30 @@ public class TaskService {
         this.repo = repo;
     }
 
-    public Task create(Task task) {
+    public Task create(long userId, Task task) {
+        task.setUserId(userId);
         return repo.save(task);
     }
 
-    public List<Task> getAll() {
-        return repo.findAll();
+    public List<Task> getAll(long userId) {
+        return repo.findByUserIdOrderByIdAsc(userId);
     }
 
-    public List<Task> getByStatus(boolean completed) {
-        return repo.findByCompleted(completed);
+    public List<Task> getPage(long userId, Long after, int limit) {
+        return repo.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, after != null ? after : 0L, Limit.of(limit));
     }
 
-    public Optional<Task> update(Long id, Task updatedTask) {
-        return repo.findById(id).map(task -> {
+    /** All of a user's tasks as a database cursor; the caller must hold a transaction. */
+    public Stream<Task> streamAll(long userId) {
+        return repo.streamByUserIdOrderByIdAsc(userId);
+    }
+
+    public List<Task> getByStatus(long userId, boolean completed) {
+        return repo.findByUserIdAndCompleted(userId, completed);
+    }
+
+    public Optional<Task> update(long userId, Long id, Task updatedTask) {
+        return repo.findByIdAndUserId(id, userId).map(task -> {
             task.setTitle(updatedTask.getTitle());
             task.setDueDate(updatedTask.getDueDate());
             task.setCompleted(updatedTask.isCompleted());
@@ -37,11 +49,10 @@ public class TaskService {
         });
     }
 
-    public boolean delete(Long id) {
-        if (repo.existsById(id)) {
-            repo.deleteById(id);
+    public boolean delete(long userId, Long id) {
+        return repo.findByIdAndUserId(id, userId).map(task -> {
+            repo.delete(task);
             return true;
-        }
-        return false;
+        }).orElse(false);
     }
 }
@@ -1,9 +1,12 @@
 package com.cerebro.service;
 
+import com.cerebro.dto.TopicDTO;
+import com.cerebro.event.CourseCatalogChangedEvent;
 import com.cerebro.model.Topic;
 import com.cerebro.model.Course;
 import com.cerebro.repository.TopicRepository;
 import com.cerebro.repository.CourseRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,40 +19,56 @@ public class TopicService {
 
     private final TopicRepository topicRepo;
     private final CourseRepository courseRepo;
+    private final ApplicationEventPublisher events;
 
-    public TopicService(TopicRepository topicRepo, CourseRepository courseRepo) {
+    public TopicService(TopicRepository topicRepo, CourseRepository courseRepo,
+                        ApplicationEventPublisher events) {
         this.topicRepo = topicRepo;
         this.courseRepo = courseRepo;
+        this.events = events;
     }
 
-    public List<Topic> getAll() {
-        return topicRepo.findAll();
+    public List<TopicDTO> getAll(long userId) {
+        return topicRepo.findAllDtos(userId);
     }
 
-    public Optional<Topic> findById(Long id) {
-        return topicRepo.findById(id);
+    public Optional<TopicDTO> findById(long userId, Long id) {
+        return topicRepo.findDtoById(userId, id);
     }
 
-    public List<Topic> getByCourseId(Long courseId) {
-        return topicRepo.findByCourseId(courseId);
+    public List<TopicDTO> getByCourseId(long userId, Long courseId) {
+        return topicRepo.findDtosByCourseId(userId, courseId);
     }
 
-    public Topic create(Topic topic) {
-        if (topic.getCourse() != null && topic.getCourse().getId() != null) {
-            Course c = courseRepo.findById(topic.getCourse().getId()).orElse(null);
-            topic.setCourse(c);
+    /**
+     * Topics belong to a user through their course, so the course must be
+     * one of the user's.
+     */
+    public TopicDTO create(long userId, Topic topic) {
+        Long courseId = topic.getCourse() != null ? topic.getCourse().getId() : null;
+        Course c = courseId != null ? courseRepo.findByIdAndUserId(courseId, userId).orElse(null) : null;
+        if (c == null) {
+            throw new IllegalArgumentException("Unknown course: " + courseId);
         }
-        return topicRepo.save(topic);
+        topic.setCourse(c);
+        Topic saved = topicRepo.save(topic);
+        events.publishEvent(new CourseCatalogChangedEvent(userId, c.getId()));
+        return TopicDTO.of(saved);
     }
 
-    public void delete(Long id) {
-        topicRepo.deleteById(id);
+    public void delete(long userId, Long id) {
+        topicRepo.findOwned(userId, id).ifPresent(t -> {
+            topicRepo.delete(t);
+            events.publishEvent(new CourseCatalogChangedEvent(userId, t.getCourse().getId()));
+        });
     }
 
-    public Topic toggleComplete(Long id, boolean completed) {
-        return topicRepo.findById(id).map(t -> {
+    public TopicDTO toggleComplete(long userId, Long id, boolean completed) {
+        return topicRepo.findOwned(userId, id).map(t -> {
             t.setCompleted(completed);
-            return topicRepo.save(t);
+            Topic saved = topicRepo.save(t);
+            events.publishEvent(new CourseCatalogChangedEvent(userId, saved.getCourse().getId()));
+            return TopicDTO.of(saved);
         }).orElse(null);
     }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package db.migration;
+
+import com.cerebro.model.AiConversation;
+import com.cerebro.model.DeflateTextConverter;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills in prompt_preview for conversations saved before V2 added it, so the
+ * history listing reads only the summary columns. The prompt has to be
+ * decoded in Java (legacy rows are plain UTF-8, newer ones may be deflated),
+ * hence a Java migration. Rows are read in id order, {@value #BATCH} at a
+ * time; only the preview column is written.
+ */
+public class V7__ai_conversation_prompt_preview extends BaseJavaMigration {
+
+    private static final int BATCH = 500;
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        DeflateTextConverter converter = new DeflateTextConverter();
+
+        long after = 0;
+        while (true) {
+            List<Object[]> previews = new ArrayList<>();
+            jdbc.query("""
+                SELECT id, prompt FROM ai_conversation
+                WHERE prompt_preview IS NULL AND prompt IS NOT NULL AND id > ?
+                ORDER BY id LIMIT ?
+                """,
+                rs -> {
+                    String prompt = converter.convertToEntityAttribute(rs.getBytes("prompt"));
+                    previews.add(new Object[] {AiConversation.preview(prompt), rs.getLong("id")});
+                },
+                after, BATCH);
+            if (previews.isEmpty()) {
+                return;
+            }
+            jdbc.batchUpdate("UPDATE ai_conversation SET prompt_preview = ? WHERE id = ?", previews);
+            after = (long) previews.get(previews.size() - 1)[1];
+        }
+    }
+}
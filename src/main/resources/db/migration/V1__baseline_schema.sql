@@ -0,0 +1,103 @@
+-- Schema of the last release run with ddl-auto=update (MySQL 8, InnoDB):
+-- the tables Hibernate created from its entities, with Hibernate's
+-- constraint names.
+--
+-- Those databases have no Flyway history. They are baselined at version 0
+-- (spring.flyway.baseline-on-migrate), so this still runs on them; "if not
+-- exists" leaves their tables alone and creates any that were never used.
+-- On an empty database it builds the same starting point. V2 upgrades both.
+
+create table if not exists course (
+    id bigint not null auto_increment,
+    name varchar(255),
+    description varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table if not exists topic (
+    id bigint not null auto_increment,
+    course_id bigint not null,
+    name varchar(255),
+    completed bit not null,
+    primary key (id),
+    constraint FKtktaeeogyyjfv5ylr4r06ig1l foreign key (course_id) references course (id)
+) engine=InnoDB;
+
+create table if not exists study_session (
+    id bigint not null auto_increment,
+    start_time datetime(6),
+    end_time datetime(6),
+    duration_in_minutes bigint,
+    course_id bigint,
+    topic_id bigint,
+    primary key (id),
+    constraint FKbe6wgtch3algald10180xuvi8 foreign key (course_id) references course (id),
+    constraint FKkfojempgo0h9h9abubyxnt1hw foreign key (topic_id) references topic (id)
+) engine=InnoDB;
+
+create table if not exists challenge (
+    id bigint not null auto_increment,
+    title varchar(255),
+    description varchar(255),
+    type enum ('DAILY','HOURS','SESSION_COUNT','STREAK','WEEKLY'),
+    target_value integer not null,
+    target_hours integer,
+    start_date date,
+    end_date date,
+    primary key (id)
+) engine=InnoDB;
+
+create table if not exists user_challenge_progress (
+    id bigint not null auto_increment,
+    user_id bigint,
+    challenge_id bigint,
+    current_value integer not null,
+    completed bit not null,
+    last_updated date,
+    primary key (id),
+    constraint FKba2sy54mlhjtwctbtm4jvqojj foreign key (challenge_id) references challenge (id)
+) engine=InnoDB;
+
+create table if not exists flashcard (
+    id bigint not null auto_increment,
+    question varchar(255),
+    answer varchar(255),
+    topic varchar(255),
+    difficulty varchar(255),
+    bookmarked bit,
+    mastered bit,
+    primary key (id)
+) engine=InnoDB;
+
+create table if not exists note (
+    id bigint not null auto_increment,
+    title varchar(255),
+    content TEXT,
+    created_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table if not exists task (
+    id bigint not null auto_increment,
+    title varchar(255),
+    due_date date,
+    completed bit not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table if not exists doubt (
+    id bigint not null auto_increment,
+    question varchar(255),
+    answer longtext,
+    helpful bit,
+    asked_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table if not exists ai_conversation (
+    id bigint not null auto_increment,
+    prompt longtext,
+    answer longtext,
+    created_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
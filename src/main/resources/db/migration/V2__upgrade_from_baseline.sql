@@ -0,0 +1,103 @@
+-- Brings the V1 (last ddl-auto=update release) schema up to the current
+-- entities.
+--
+-- daily_study_rollup and study_streak are derived from study_session and
+-- start out empty. Start the first upgraded instance with
+-- --cerebro.rollup.rebuild-on-startup=true to backfill both.
+
+-- Per-user data. Rows from before users existed belong to user 1.
+alter table course add column user_id bigint default 1 not null;
+alter table study_session add column user_id bigint default 1 not null;
+alter table flashcard add column user_id bigint default 1 not null;
+alter table note add column user_id bigint default 1 not null;
+alter table task add column user_id bigint default 1 not null;
+alter table ai_conversation add column user_id bigint default 1 not null;
+alter table doubt add column user_id bigint default 1 not null;
+
+-- study_session ids come from a pooled sequence instead of AUTO_INCREMENT.
+-- MySQL has no sequences, so Hibernate keeps the next value in a one-row
+-- table. Start it one allocation block (StudySession.ID_ALLOCATION_SIZE)
+-- above the existing rows; StudySessionSequenceInitializer re-checks this
+-- at every startup.
+alter table study_session modify id bigint not null;
+
+create table study_session_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into study_session_seq select coalesce(max(id), 0) + 50 from study_session;
+
+create table daily_study_rollup (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    study_date date not null,
+    total_minutes bigint not null,
+    session_count integer not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table study_streak (
+    user_id bigint not null,
+    current_length integer not null,
+    longest_length integer not null,
+    last_study_date date,
+    primary key (user_id)
+) engine=InnoDB;
+
+-- SM-2 review state; null until a card is first reviewed
+alter table flashcard add column ease_factor float(53);
+alter table flashcard add column interval_days integer;
+alter table flashcard add column repetitions integer;
+alter table flashcard add column due_at datetime(6);
+alter table flashcard add column last_reviewed_at datetime(6);
+
+-- prompt and answer are deflate-compressed by DeflateTextConverter. The
+-- LONGTEXT -> LONGBLOB change keeps each value's UTF-8 bytes, which the
+-- converter reads as plain text; rows are compressed when next written.
+-- prompt_preview is filled in for old rows by the first summary listing.
+alter table ai_conversation modify prompt LONGBLOB;
+alter table ai_conversation modify answer LONGBLOB;
+alter table ai_conversation add column prompt_hash varchar(64);
+alter table ai_conversation add column prompt_preview varchar(200);
+
+create table write_behind_checkpoint (
+    name varchar(64) not null,
+    last_seq bigint not null,
+    primary key (name)
+) engine=InnoDB;
+
+-- One progress row per user and challenge; keep the newest of any duplicates
+delete from user_challenge_progress
+where id not in (
+    select keep_id from (
+        select max(id) as keep_id from user_challenge_progress group by user_id, challenge_id
+    ) newest
+);
+
+alter table user_challenge_progress
+    add constraint uk_user_challenge unique (user_id, challenge_id);
+
+alter table daily_study_rollup
+    add constraint uk_daily_study_rollup_user_date unique (user_id, study_date);
+
+create index idx_course_user on course (user_id, id);
+
+create index idx_topic_course_completed on topic (course_id, completed);
+
+create index idx_study_session_user_id on study_session (user_id, id);
+create index idx_study_session_user_start on study_session (user_id, start_time, duration_in_minutes);
+create index idx_study_session_user_course_minutes on study_session (user_id, course_id, duration_in_minutes);
+create index idx_study_session_user_topic_minutes on study_session (user_id, topic_id, duration_in_minutes);
+
+create index idx_challenge_type_dates on challenge (type, start_date, end_date);
+
+create index idx_flashcard_user on flashcard (user_id, id);
+create index idx_flashcard_user_due_at on flashcard (user_id, due_at);
+
+create index idx_note_user on note (user_id, id);
+
+create index idx_task_user on task (user_id, id);
+create index idx_task_user_completed on task (user_id, completed);
+
+create index idx_ai_conversation_prompt_hash on ai_conversation (prompt_hash, created_at);
+create index idx_ai_conversation_user on ai_conversation (user_id, id);
@@ -0,0 +1,26 @@
+-- GET /api/flashcards/topic/{topic} runs
+--   SELECT ... FROM flashcard WHERE user_id = ? AND topic = ?
+-- which could only narrow by user_id (idx_flashcard_user) and then filter
+-- every card the user has. Plans from EXPLAIN on H2 in MySQL mode with
+-- 2000 cards over 20 users:
+--
+--   before: /* idx_flashcard_user: user_id = 3 */ WHERE user_id = 3 AND topic = 't3'
+--   after:  /* idx_flashcard_user_topic: user_id = 3 AND topic = 't3' */
+--
+-- On MySQL the same change should turn "ref idx_flashcard_user, Using where"
+-- into "ref idx_flashcard_user_topic" with rows estimated per topic, not
+-- per user; not yet captured against a MySQL instance.
+--
+-- Other indexes considered for this change, and already covered:
+--   study_session(start_time), (course_id), (topic_id): every session query
+--     is per user and uses idx_study_session_user_start, _user_course_minutes
+--     or _user_topic_minutes (EXPLAIN shows each, covering); deleting a
+--     course's sessions uses the foreign key index on course_id.
+--   topic(course_id, completed): idx_topic_course_completed (V2).
+--   unique user_challenge_progress(user_id, challenge_id): uk_user_challenge (V2).
+--   task(completed, due_date): tasks are read per user, by
+--     idx_task_user_completed; nothing filters or sorts on due_date yet.
+--   note(created_at): no query filters or sorts notes by created_at; search
+--     is served by the in-memory index and lists use idx_note_user.
+
+create index idx_flashcard_user_topic on flashcard (user_id, topic);
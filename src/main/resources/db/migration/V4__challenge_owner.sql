@@ -0,0 +1,3 @@
+-- Challenges record who created them; only that user or an admin may edit
+-- or delete one. Existing challenges have no creator and stay admin-only.
+alter table challenge add column created_by bigint;
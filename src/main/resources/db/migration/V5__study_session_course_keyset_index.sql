@@ -0,0 +1,14 @@
+-- GET /api/sessions?courseId=&before=&limit= runs
+--   SELECT ... FROM study_session WHERE user_id = ? AND course_id = ? AND id < ?
+--   ORDER BY id DESC LIMIT ?
+-- The only index on (user_id, course_id) was
+-- idx_study_session_user_course_minutes, whose next column is
+-- duration_in_minutes, so MySQL read every one of the user's sessions for the
+-- course and sorted them before applying the LIMIT. V3's note that every
+-- session query is served by an index missed this one.
+--
+-- With (user_id, course_id, id) the page is a backward range scan that stops
+-- after LIMIT rows. The minutes index stays: the course totals read
+-- duration_in_minutes from it without touching the table.
+
+create index idx_study_session_user_course_id on study_session (user_id, course_id, id);
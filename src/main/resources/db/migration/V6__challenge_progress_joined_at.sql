@@ -0,0 +1,14 @@
+-- HOURS and SESSION_COUNT progress is derived from the sessions that started
+-- within the challenge's dates and after the user joined it. Rows from before
+-- join times were recorded take the challenge's start date, or failing that
+-- the day the row was last updated, a day known to be on or after the join,
+-- so they are never credited with sessions from before it.
+alter table user_challenge_progress add column joined_at datetime(6);
+
+update user_challenge_progress p
+set joined_at = coalesce(
+        (select c.start_date from challenge c where c.id = p.challenge_id),
+        p.last_updated,
+        current_date);
+
+alter table user_challenge_progress modify joined_at datetime(6) not null;
@@ -0,0 +1,31 @@
+package com.cerebro.perf;
+
+import com.cerebro.CerebroApplication;
+import com.cerebro.service.ProgressEventDispatcher;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/** Boots the real application against the embedded "perf" database. */
+public final class PerfApplication {
+
+    private PerfApplication() {
+    }
+
+    public static ConfigurableApplicationContext start() {
+        // devtools would relaunch the caller's main() in a restart classloader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(CerebroApplication.class)
+            .profiles("perf")
+            .logStartupInfo(false)
+            .run();
+    }
+
+    /** Waits until asynchronous progress work queued by earlier calls has been applied. */
+    public static void awaitProgress(ConfigurableApplicationContext context) throws InterruptedException {
+        ProgressEventDispatcher dispatcher = context.getBean(ProgressEventDispatcher.class);
+        // Not queueDepth(): a job a lane has taken may still be writing
+        while (dispatcher.unfinishedJobs() > 0) {
+            Thread.sleep(10);
+        }
+    }
+}
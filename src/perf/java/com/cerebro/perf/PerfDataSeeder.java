@@ -0,0 +1,165 @@
+package com.cerebro.perf;
+
+import com.cerebro.model.Challenge;
+import com.cerebro.model.ChallengeType;
+import com.cerebro.model.Course;
+import com.cerebro.model.StudySession;
+import com.cerebro.model.Topic;
+import com.cerebro.repository.CourseRepository;
+import com.cerebro.repository.TopicRepository;
+import com.cerebro.service.ChallengeService;
+import com.cerebro.service.StudySessionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the benchmark database with a fixed-seed data set: a small course
+ * catalogue, a mix of challenges and {@code sessions} study sessions spread
+ * over the last {@link #DAYS} days (every day gets at least one session once
+ * there are that many), so streak and weekly queries see realistic history.
+ */
+public class PerfDataSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(PerfDataSeeder.class);
+
+    public static final long USER_ID = 1L;
+    public static final int DAYS = 730;
+    public static final int COURSES = 20;
+    public static final int TOPICS_PER_COURSE = 10;
+
+    private static final int BATCH_SIZE = 5_000;
+    private static final String INSERT_SESSION =
+        "INSERT INTO study_session (id, user_id, start_time, end_time, duration_in_minutes, course_id, topic_id) "
+      + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final CourseRepository courseRepo;
+    private final TopicRepository topicRepo;
+    private final ChallengeService challengeService;
+    private final StudySessionService sessionService;
+
+    private final List<Long> courseIds = new ArrayList<>();
+    private final List<Long> topicIds = new ArrayList<>();
+
+    public PerfDataSeeder(ApplicationContext context) {
+        this.jdbc             = context.getBean(JdbcTemplate.class);
+        this.courseRepo       = context.getBean(CourseRepository.class);
+        this.topicRepo        = context.getBean(TopicRepository.class);
+        this.challengeService = context.getBean(ChallengeService.class);
+        this.sessionService   = context.getBean(StudySessionService.class);
+    }
+
+    public void seed(int sessions) {
+        long started = System.nanoTime();
+        seedCatalogue();
+        seedChallenges();
+        seedSessions(sessions);
+
+        // Sessions went in behind the service's back: move the id sequence past
+        // them (the pooled optimizer treats each value as the top of a block)
+        // and derive the rollup and streak from the raw rows
+        jdbc.execute("ALTER SEQUENCE study_session_seq RESTART WITH " + (sessions + 2 * StudySession.ID_ALLOCATION_SIZE));
+        sessionService.rebuildDailySummary(USER_ID);
+
+        log.info("Seeded {} sessions in {} ms", sessions, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public List<Long> courseIds() {
+        return courseIds;
+    }
+
+    public List<Long> topicIds() {
+        return topicIds;
+    }
+
+    private void seedCatalogue() {
+        for (int c = 0; c < COURSES; c++) {
+            Course course = new Course();
+            course.setName("Course " + c);
+            course.setUserId(USER_ID);
+            course = courseRepo.save(course);
+            courseIds.add(course.getId());
+
+            for (int t = 0; t < TOPICS_PER_COURSE; t++) {
+                Topic topic = new Topic();
+                topic.setName("Topic " + c + "." + t);
+                topic.setCompleted(t < c % (TOPICS_PER_COURSE + 1));
+                topic.setCourse(course);
+                topicIds.add(topicRepo.save(topic).getId());
+            }
+        }
+    }
+
+    private void seedChallenges() {
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 10; i++) {
+            challengeService.createChallenge(USER_ID, challenge(ChallengeType.HOURS, 6_000, null, null));
+            challengeService.createChallenge(USER_ID, challenge(ChallengeType.SESSION_COUNT, 500,
+                today.minusDays(30), today.plusDays(30)));
+            challengeService.createChallenge(USER_ID, challenge(ChallengeType.HOURS, 600,
+                null, today.minusDays(1)));
+        }
+        for (int i = 0; i < 5; i++) {
+            challengeService.createChallenge(USER_ID, challenge(ChallengeType.STREAK, 30, null, null));
+        }
+    }
+
+    private static Challenge challenge(ChallengeType type, int target, LocalDate start, LocalDate end) {
+        Challenge c = new Challenge();
+        c.setTitle(type + " " + target);
+        c.setType(type);
+        c.setTargetValue(target);
+        c.setStartDate(start);
+        c.setEndDate(end);
+        return c;
+    }
+
+    private void seedSessions(int sessions) {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate today = LocalDate.now();
+        ZoneId zone = ZoneId.systemDefault();
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < sessions; i++) {
+            int topic = random.nextInt(topicIds.size());
+            long minutes = 5 + random.nextInt(116);
+
+            // Round-robin over days, random hour, so no session ends in the future
+            Instant start = today.minusDays(i % DAYS)
+                .atStartOfDay(zone)
+                .plusMinutes(random.nextInt(16 * 60))
+                .toInstant();
+            if (start.plusSeconds(minutes * 60).isAfter(Instant.now())) {
+                start = today.atStartOfDay(zone).toInstant();
+                minutes = 1;
+            }
+
+            batch.add(new Object[] {
+                (long) i + 1,
+                USER_ID,
+                Timestamp.from(start),
+                Timestamp.from(start.plusSeconds(minutes * 60)),
+                minutes,
+                courseIds.get(topic / TOPICS_PER_COURSE),
+                topicIds.get(topic)
+            });
+            if (batch.size() == BATCH_SIZE) {
+                jdbc.batchUpdate(INSERT_SESSION, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(INSERT_SESSION, batch);
+        }
+    }
+}
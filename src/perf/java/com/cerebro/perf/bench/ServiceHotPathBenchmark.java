@@ -0,0 +1,108 @@
+package com.cerebro.perf.bench;
+
+import com.cerebro.event.CourseCatalogChangedEvent;
+import com.cerebro.model.Course;
+import com.cerebro.model.StudySession;
+import com.cerebro.model.Topic;
+import com.cerebro.perf.PerfApplication;
+import com.cerebro.perf.PerfDataSeeder;
+import com.cerebro.repository.CourseRepository;
+import com.cerebro.repository.TopicRepository;
+import com.cerebro.service.ChallengeService;
+import com.cerebro.service.InsightsService;
+import com.cerebro.service.StudySessionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer hot paths against a seeded embedded database.
+ *
+ * Each trial boots the application once and seeds {@code sessions} rows.
+ * {@link #createSession} keeps adding rows for the rest of the trial, so
+ * the later benchmarks in a trial see a slightly larger table than seeded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class ServiceHotPathBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int sessions;
+
+    private ConfigurableApplicationContext context;
+    private StudySessionService sessionService;
+    private ChallengeService challengeService;
+    private InsightsService insightsService;
+
+    private Course course;
+    private Topic topic;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = PerfApplication.start();
+        PerfDataSeeder seeder = new PerfDataSeeder(context);
+        seeder.seed(sessions);
+
+        sessionService   = context.getBean(StudySessionService.class);
+        challengeService = context.getBean(ChallengeService.class);
+        insightsService  = context.getBean(InsightsService.class);
+        course = context.getBean(CourseRepository.class).findById(seeder.courseIds().get(0)).orElseThrow();
+        topic  = context.getBean(TopicRepository.class).findById(seeder.topicIds().get(0)).orElseThrow();
+    }
+
+    // Keep queued streak/challenge work from one benchmark out of the next one's timings
+    @TearDown(Level.Iteration)
+    public void drainProgress() throws InterruptedException {
+        PerfApplication.awaitProgress(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public StudySession createSession() {
+        Instant end = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        StudySession s = new StudySession();
+        s.setCourse(course);
+        s.setTopic(topic);
+        s.setStartTime(end.minus(25, ChronoUnit.MINUTES));
+        s.setEndTime(end);
+        return sessionService.createSession(PerfDataSeeder.USER_ID, s);
+    }
+
+    @Benchmark
+    public Map<String, Integer> weeklySummary() {
+        return sessionService.getWeeklySummary(PerfDataSeeder.USER_ID);
+    }
+
+    @Benchmark
+    public int currentStreak() {
+        return sessionService.getCurrentStreak(PerfDataSeeder.USER_ID);
+    }
+
+    @Benchmark
+    public void challengeProgressFromSession() {
+        challengeService.recomputeProgressFromSessions(PerfDataSeeder.USER_ID);
+    }
+
+    @Benchmark
+    public Map<String, Double> courseCompletionCached() {
+        return insightsService.getCourseCompletionPercentages(PerfDataSeeder.USER_ID);
+    }
+
+    @Benchmark
+    public Map<String, Double> courseCompletionUncached() {
+        insightsService.onCourseCatalogChanged(new CourseCatalogChangedEvent(PerfDataSeeder.USER_ID, null));
+        return insightsService.getCourseCompletionPercentages(PerfDataSeeder.USER_ID);
+    }
+}
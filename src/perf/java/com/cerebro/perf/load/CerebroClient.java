@@ -0,0 +1,84 @@
+package com.cerebro.perf.load;
+
+import com.cerebro.config.DevUserHeaderFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/** Minimal JSON-over-HTTP client for the Cerebro API, one request per virtual thread. */
+final class CerebroClient {
+
+    record Response(int status, String body, String etag) {
+
+        boolean ok() {
+            return status / 100 == 2 || status == 304;
+        }
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String baseUrl;
+    private final HttpClient http = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+
+    CerebroClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    Response get(long userId, String path, String ifNoneMatch) throws IOException, InterruptedException {
+        HttpRequest.Builder request = request(userId, path).GET();
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return send(request.build());
+    }
+
+    Response post(long userId, String path, Object body) throws IOException, InterruptedException {
+        return send(request(userId, path)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body)))
+            .build());
+    }
+
+    Response put(long userId, String path, Object body) throws IOException, InterruptedException {
+        return send(request(userId, path)
+            .header("Content-Type", "application/json")
+            .PUT(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body)))
+            .build());
+    }
+
+    /** POSTs {@code body} and returns the {@code id} of the created resource. */
+    long create(long userId, String path, Object body) throws IOException, InterruptedException {
+        Response response = post(userId, path, body);
+        if (response.status() != 200) {
+            throw new IOException("POST " + path + " returned " + response.status());
+        }
+        return JSON.readTree(response.body()).get("id").asLong();
+    }
+
+    static JsonNode parse(String body) throws IOException {
+        return JSON.readTree(body);
+    }
+
+    private HttpRequest.Builder request(long userId, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30))
+            .header(DevUserHeaderFilter.HEADER, Long.toString(userId));
+    }
+
+    private Response send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        return new Response(response.statusCode(), response.body(),
+            response.headers().firstValue("ETag").orElse(null));
+    }
+}
@@ -0,0 +1,91 @@
+package com.cerebro.perf.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies per endpoint in microseconds. Each latency is measured from the
+ * moment the request was scheduled to start, not when it actually went out,
+ * so a stalled server shows up in the percentiles instead of just slowing
+ * the generator down (coordinated omission).
+ */
+final class LatencyReport {
+
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private static final class Endpoint {
+        final Histogram latency = new ConcurrentHistogram(MAX_MICROS, 3);
+        final LongAdder notModified = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, int status) {
+        Endpoint e = endpoints.computeIfAbsent(endpoint, k -> new Endpoint());
+        e.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_MICROS));
+        if (status == 304) {
+            e.notModified.increment();
+        } else if (status / 100 != 2) {
+            e.errors.increment();
+        }
+    }
+
+    /** A request that got no response at all (I/O error, timeout). */
+    void failure(String endpoint) {
+        endpoints.computeIfAbsent(endpoint, k -> new Endpoint()).errors.increment();
+    }
+
+    void print(PrintStream out, Duration measured) {
+        double seconds = measured.toMillis() / 1000.0;
+        String header = "%-42s %8s %8s %7s %7s %9s %9s %9s %9s %9s%n";
+        String row    = "%-42s %8d %8.1f %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n";
+        out.printf(header, "endpoint", "count", "req/s", "304", "errors",
+                   "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram all = new Histogram(MAX_MICROS, 3);
+        long notModified = 0;
+        long errors = 0;
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Endpoint e = entry.getValue();
+            all.add(e.latency);
+            notModified += e.notModified.sum();
+            errors += e.errors.sum();
+            printRow(out, row, entry.getKey(), e.latency, e.notModified.sum(), e.errors.sum(), seconds);
+        }
+        printRow(out, row, "ALL", all, notModified, errors, seconds);
+    }
+
+    /** One HdrHistogram percentile file per endpoint, for plotting. */
+    void writeHistograms(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            String name = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(name + ".hgrm")))) {
+                entry.getValue().latency.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static void printRow(PrintStream out, String format, String name, Histogram h,
+                                 long notModified, long errors, double seconds) {
+        out.printf(format, name, h.getTotalCount(), h.getTotalCount() / seconds, notModified, errors,
+                   ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)),
+                   ms(h.getValueAtPercentile(99)), ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()));
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+}
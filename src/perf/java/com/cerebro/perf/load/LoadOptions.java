@@ -0,0 +1,62 @@
+package com.cerebro.perf.load;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for a load run, given as {@code key=value} arguments:
+ *
+ * <pre>
+ * rate=200         requests per second, spread evenly (open loop)
+ * duration=60s     measured period
+ * warmup=15s       unmeasured period before it, same rate
+ * users=50         synthetic users to seed and spread traffic over
+ * sessions=200     historical study sessions seeded per user
+ * inflight=2000    cap on outstanding requests
+ * mix=dashboard:50,session:15,note:10,flashcard:10,challenge:15
+ * target=http://host:8080   drive a running server instead of booting one
+ * </pre>
+ */
+record LoadOptions(int rate, Duration duration, Duration warmup, int users, int sessionsPerUser,
+                   int maxInFlight, Map<Operation, Integer> mix, String target) {
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> kv = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            kv.put(arg.substring(0, eq).trim(), arg.substring(eq + 1).trim());
+        }
+
+        LoadOptions options = new LoadOptions(
+            Integer.parseInt(kv.getOrDefault("rate", "200")),
+            seconds(kv.getOrDefault("duration", "60s")),
+            seconds(kv.getOrDefault("warmup", "15s")),
+            Integer.parseInt(kv.getOrDefault("users", "50")),
+            Integer.parseInt(kv.getOrDefault("sessions", "200")),
+            Integer.parseInt(kv.getOrDefault("inflight", "2000")),
+            mix(kv.getOrDefault("mix", "dashboard:50,session:15,note:10,flashcard:10,challenge:15")),
+            kv.get("target"));
+        if (options.rate() <= 0 || options.users() <= 0 || options.maxInFlight() <= 0) {
+            throw new IllegalArgumentException("rate, users and inflight must be positive");
+        }
+        return options;
+    }
+
+    private static Duration seconds(String value) {
+        String s = value.endsWith("s") ? value.substring(0, value.length() - 1) : value;
+        return Duration.ofSeconds(Long.parseLong(s));
+    }
+
+    private static Map<Operation, Integer> mix(String spec) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] nw = part.split(":");
+            weights.put(Operation.byName(nw[0].trim()), Integer.parseInt(nw[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,126 @@
+package com.cerebro.perf.load;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Creates the synthetic users' data through the public API, the same way
+ * the frontend would: courses and topics, a few months of study history
+ * (through the batch endpoint), notes, flashcards and a small challenge
+ * catalog. Users are seeded in parallel.
+ */
+final class LoadSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadSeeder.class);
+
+    // Well clear of user 1, which owns pre-existing data on a real server
+    static final long FIRST_USER_ID = 100_000L;
+
+    private static final int COURSES = 3;
+    private static final int TOPICS_PER_COURSE = 4;
+    private static final int NOTES = 10;
+    private static final int FLASHCARDS = 20;
+    private static final int HISTORY_DAYS = 120;
+    private static final int CHALLENGE_AUTHORS = 5;
+    private static final String[] WORDS = {
+        "entropy", "vector", "enzyme", "theorem", "lattice", "photon", "market", "syntax",
+        "integral", "protein", "gradient", "tensor", "orbital", "equilibrium", "kernel", "matrix"};
+
+    private final CerebroClient client;
+
+    LoadSeeder(CerebroClient client) {
+        this.client = client;
+    }
+
+    List<SyntheticUser> seed(int users, int sessionsPerUser) throws Exception {
+        long started = System.nanoTime();
+        List<SyntheticUser> seeded = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<SyntheticUser>> futures = new ArrayList<>();
+            for (int i = 0; i < users; i++) {
+                int index = i;
+                futures.add(pool.submit(() -> seedUser(index, sessionsPerUser)));
+            }
+            for (Future<SyntheticUser> f : futures) {
+                seeded.add(f.get());
+            }
+        }
+        log.info("Seeded {} users ({} sessions each) in {} ms",
+                 users, sessionsPerUser, (System.nanoTime() - started) / 1_000_000);
+        return seeded;
+    }
+
+    private SyntheticUser seedUser(int index, int sessions) throws Exception {
+        SyntheticUser user = new SyntheticUser(FIRST_USER_ID + index);
+        SplittableRandom random = new SplittableRandom(user.id);
+
+        for (int c = 0; c < COURSES; c++) {
+            long courseId = client.create(user.id, "/api/courses",
+                Map.of("name", "Course " + c, "description", text(random, 8)));
+            for (int t = 0; t < TOPICS_PER_COURSE; t++) {
+                long topicId = client.create(user.id, "/api/topics",
+                    Map.of("name", "Topic " + c + "." + t, "course", Map.of("id", courseId)));
+                user.topics.add(new long[] {courseId, topicId});
+            }
+        }
+
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        List<Map<String, Object>> history = new ArrayList<>(sessions);
+        for (int s = 0; s < sessions; s++) {
+            long[] topic = user.topics.get(random.nextInt(user.topics.size()));
+            Instant start = now.minus(1 + random.nextInt(HISTORY_DAYS), ChronoUnit.DAYS)
+                .plus(random.nextInt(12 * 60), ChronoUnit.MINUTES);
+            history.add(Map.of(
+                "startTime", start.toString(),
+                "endTime", start.plus(5 + random.nextInt(115), ChronoUnit.MINUTES).toString(),
+                "course", Map.of("id", topic[0]),
+                "topic", Map.of("id", topic[1])));
+        }
+        if (!history.isEmpty()) {
+            CerebroClient.Response batch = client.post(user.id, "/api/sessions/batch", history);
+            if (batch.status() != 200) {
+                throw new IllegalStateException("Session batch for user " + user.id + " returned " + batch.status());
+            }
+        }
+
+        for (int n = 0; n < NOTES; n++) {
+            user.noteIds.add(client.create(user.id, "/api/notes",
+                Map.of("title", "Note " + n, "content", text(random, 80))));
+        }
+        for (int f = 0; f < FLASHCARDS; f++) {
+            user.flashcardIds.add(client.create(user.id, "/api/flashcards", Map.of(
+                "question", "What is " + WORDS[random.nextInt(WORDS.length)] + "?",
+                "answer", text(random, 12),
+                "topic", "Topic " + (f % TOPICS_PER_COURSE),
+                "difficulty", "MEDIUM")));
+        }
+        if (index < CHALLENGE_AUTHORS) {
+            client.create(user.id, "/api/challenges",
+                Map.of("title", "Study 20 hours", "type", "HOURS", "targetValue", 20));
+            client.create(user.id, "/api/challenges",
+                Map.of("title", "50 sessions", "type", "SESSION_COUNT", "targetValue", 50));
+        }
+        return user;
+    }
+
+    static String text(SplittableRandom random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
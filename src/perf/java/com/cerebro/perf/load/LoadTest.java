@@ -0,0 +1,131 @@
+package com.cerebro.perf.load;
+
+import com.cerebro.perf.PerfApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Release load test: boots the application on the embedded "perf" database
+ * (or targets a running server), seeds synthetic users over HTTP and then
+ * replays a weighted mix of user actions at a fixed arrival rate, reporting
+ * latency percentiles per endpoint.
+ *
+ * <pre>
+ * mvn -Pperf test-compile exec:exec@load -Dload.args="rate=300 duration=120s users=100"
+ * </pre>
+ *
+ * The rate is open loop: requests are started on schedule whether or not
+ * earlier ones have finished, up to the in-flight cap. Percentile files are
+ * written to target/load/.
+ */
+public final class LoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.target();
+        if (baseUrl == null) {
+            context = PerfApplication.start();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port;
+        }
+
+        try {
+            CerebroClient client = new CerebroClient(baseUrl);
+            List<SyntheticUser> users = new LoadSeeder(client).seed(options.users(), options.sessionsPerUser());
+
+            log.info("Warming up for {}s at {} req/s", options.warmup().toSeconds(), options.rate());
+            drive(options, client, users, options.warmup(), new SplittableRandom(1));
+
+            log.info("Measuring for {}s at {} req/s", options.duration().toSeconds(), options.rate());
+            LatencyReport report = drive(options, client, users, options.duration(), new SplittableRandom(2));
+
+            report.print(System.out, options.duration());
+            report.writeHistograms(Path.of("target", "load"));
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static LatencyReport drive(LoadOptions options, CerebroClient client, List<SyntheticUser> users,
+                                       Duration period, SplittableRandom random) throws InterruptedException {
+        Operation[] wheel = wheel(options.mix());
+        LatencyReport report = new LatencyReport();
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        LongAdder lateStarts = new LongAdder();
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime();
+        long end = start + period.toNanos();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intended = start + i * interval;
+                if (intended >= end) {
+                    break;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                inFlight.acquire();
+                if (System.nanoTime() - intended > TimeUnit.MILLISECONDS.toNanos(10)) {
+                    lateStarts.increment();
+                }
+
+                Operation op = wheel[random.nextInt(wheel.length)];
+                SyntheticUser user = users.get(random.nextInt(users.size()));
+                SplittableRandom taskRandom = random.split();
+                pool.submit(() -> {
+                    try {
+                        Operation.Call call = op.run(client, user, taskRandom);
+                        report.record(call.endpoint(), System.nanoTime() - intended, call.response().status());
+                    } catch (Exception e) {
+                        report.failure(op.name().toLowerCase() + " (no response)");
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        if (lateStarts.sum() > 0) {
+            log.warn("{} requests started more than 10 ms late: the generator or the in-flight cap " +
+                     "is the bottleneck, not only the server", lateStarts.sum());
+        }
+        return report;
+    }
+
+    private static Operation[] wheel(Map<Operation, Integer> mix) {
+        List<Operation> slots = new ArrayList<>();
+        mix.forEach((op, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(op);
+            }
+        });
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("Empty traffic mix");
+        }
+        return slots.toArray(Operation[]::new);
+    }
+}
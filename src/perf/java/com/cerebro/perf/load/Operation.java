@@ -0,0 +1,115 @@
+package com.cerebro.perf.load;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * The user actions in the traffic mix. Each picks its request from the
+ * user's seeded data and reports the endpoint template it hit, which is
+ * what latencies are grouped by.
+ */
+enum Operation {
+
+    /** A dashboard poll, revalidating with the ETag from the previous poll like a browser would. */
+    DASHBOARD("dashboard") {
+        private static final List<String> PATHS = List.of(
+            "/api/sessions/daily-summary",
+            "/api/sessions/weekly-summary",
+            "/api/sessions/streak",
+            "/api/sessions/insights/completion",
+            "/api/sessions/heatmap");
+
+        @Override
+        Call run(CerebroClient client, SyntheticUser user, SplittableRandom random)
+                throws IOException, InterruptedException {
+            String path = PATHS.get(random.nextInt(PATHS.size()));
+            return revalidate(client, user, path, "GET " + path);
+        }
+    },
+
+    /** A just-finished study session. */
+    SESSION("session") {
+        @Override
+        Call run(CerebroClient client, SyntheticUser user, SplittableRandom random)
+                throws IOException, InterruptedException {
+            long[] topic = user.topics.get(random.nextInt(user.topics.size()));
+            Instant end = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+            Map<String, Object> body = Map.of(
+                "startTime", end.minus(5 + random.nextInt(90), ChronoUnit.MINUTES).toString(),
+                "endTime", end.toString(),
+                "course", Map.of("id", topic[0]),
+                "topic", Map.of("id", topic[1]));
+            return new Call("POST /api/sessions", client.post(user.id, "/api/sessions", body));
+        }
+    },
+
+    NOTE("note") {
+        @Override
+        Call run(CerebroClient client, SyntheticUser user, SplittableRandom random)
+                throws IOException, InterruptedException {
+            long id = user.noteIds.get(random.nextInt(user.noteIds.size()));
+            Map<String, Object> body = Map.of(
+                "title", "Note " + id,
+                "content", LoadSeeder.text(random, 40 + random.nextInt(120)));
+            return new Call("PUT /api/notes/{id}", client.put(user.id, "/api/notes/" + id, body));
+        }
+    },
+
+    FLASHCARD("flashcard") {
+        @Override
+        Call run(CerebroClient client, SyntheticUser user, SplittableRandom random)
+                throws IOException, InterruptedException {
+            long id = user.flashcardIds.get(random.nextInt(user.flashcardIds.size()));
+            Map<String, Object> body = Map.of("quality", 2 + random.nextInt(4));
+            return new Call("POST /api/flashcards/{id}/review",
+                client.post(user.id, "/api/flashcards/" + id + "/review", body));
+        }
+    },
+
+    /** The challenge page: the shared catalog or the user's own progress. */
+    CHALLENGE("challenge") {
+        @Override
+        Call run(CerebroClient client, SyntheticUser user, SplittableRandom random)
+                throws IOException, InterruptedException {
+            if (random.nextBoolean()) {
+                return new Call("GET /api/challenges", client.get(user.id, "/api/challenges", null));
+            }
+            return revalidate(client, user, "/api/challenges/progress/" + user.id,
+                "GET /api/challenges/progress/{userId}");
+        }
+    };
+
+    /** One request: the endpoint template it's reported under and the response. */
+    record Call(String endpoint, CerebroClient.Response response) {}
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    abstract Call run(CerebroClient client, SyntheticUser user, SplittableRandom random)
+        throws IOException, InterruptedException;
+
+    static Operation byName(String name) {
+        for (Operation op : values()) {
+            if (op.label.equals(name)) {
+                return op;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation " + name);
+    }
+
+    private static Call revalidate(CerebroClient client, SyntheticUser user, String path, String endpoint)
+            throws IOException, InterruptedException {
+        CerebroClient.Response response = client.get(user.id, path, user.etags.get(path));
+        if (response.status() == 200 && response.etag() != null) {
+            user.etags.put(path, response.etag());
+        }
+        return new Call(endpoint, response);
+    }
+}
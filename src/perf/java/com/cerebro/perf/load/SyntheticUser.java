@@ -0,0 +1,21 @@
+package com.cerebro.perf.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** What the driver knows about one seeded user: their ids and the ETags their "browser" holds. */
+final class SyntheticUser {
+
+    final long id;
+    // {courseId, topicId}
+    final List<long[]> topics = new ArrayList<>();
+    final List<Long> noteIds = new ArrayList<>();
+    final List<Long> flashcardIds = new ArrayList<>();
+    final Map<String, String> etags = new ConcurrentHashMap<>();
+
+    SyntheticUser(long id) {
+        this.id = id;
+    }
+}
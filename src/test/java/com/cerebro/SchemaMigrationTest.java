@@ -0,0 +1,93 @@
+package com.cerebro;
+
+import com.cerebro.model.AiConversation;
+import com.cerebro.model.DeflateTextConverter;
+import com.cerebro.model.StudySession;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The Flyway migrations on H2 in MySQL mode, with the MySQL dialect.
+ *
+ * The context builds its schema from db/migration only and starts with
+ * ddl-auto=validate, so the migrations must match the entities. Where H2
+ * reports a MySQL type under another name, db/h2-types renames it back for
+ * the validator.
+ */
+@SpringBootTest(properties = {
+    "spring.flyway.enabled=true",
+    "spring.flyway.locations=classpath:db/migration,classpath:db/h2-types",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQL8Dialect"
+})
+@ActiveProfiles("h2")
+class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void migratedSchemaValidatesAgainstTheEntities() {
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("999");
+    }
+
+    /** A database left by the last ddl-auto=update release: tables and rows, no Flyway history. */
+    @Test
+    void upgradesABaselineDatabase() {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:baseline-" + UUID.randomUUID()
+            + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline_schema.sql")).execute(ds);
+
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        String answer = "Mitochondria make ATP. ".repeat(20);
+        jdbc.update("INSERT INTO course (id, name) VALUES (1, 'Biology')");
+        jdbc.update("INSERT INTO study_session (id, start_time, duration_in_minutes, course_id) VALUES (7, NOW(), 30, 1)");
+        jdbc.update("INSERT INTO study_session (id, start_time, duration_in_minutes) VALUES (130, NOW(), 45)");
+        jdbc.update("INSERT INTO flashcard (id, question, answer) VALUES (1, 'q', 'a')");
+        jdbc.update("INSERT INTO challenge (id, title, type, target_value) VALUES (1, 'Streak', 'STREAK', 5)");
+        jdbc.update("INSERT INTO user_challenge_progress (id, user_id, challenge_id, current_value, completed) VALUES (1, 4, 1, 2, false)");
+        jdbc.update("INSERT INTO user_challenge_progress (id, user_id, challenge_id, current_value, completed) VALUES (2, 4, 1, 3, false)");
+        jdbc.update("INSERT INTO ai_conversation (id, prompt, answer) VALUES (1, 'What do mitochondria do?', ?)", answer);
+        String longPrompt = "Explain the Krebs cycle step by step. ".repeat(10);
+        jdbc.update("INSERT INTO ai_conversation (id, prompt, answer) VALUES (2, ?, 'Citrate.')", longPrompt);
+
+        // The application's own settings: baseline-on-migrate at version 0
+        Flyway.configure().configuration(flyway.getConfiguration())
+            .dataSource(ds)
+            .locations("classpath:db/migration")
+            .load()
+            .migrate();
+
+        assertThat(jdbc.queryForList("SELECT user_id FROM study_session", Long.class)).containsOnly(1L);
+        assertThat(jdbc.queryForObject("SELECT user_id FROM course", Long.class)).isEqualTo(1L);
+        assertThat(jdbc.queryForObject("SELECT user_id FROM flashcard", Long.class)).isEqualTo(1L);
+        assertThat(jdbc.queryForObject("SELECT user_id FROM ai_conversation", Long.class)).isEqualTo(1L);
+        assertThat(jdbc.queryForObject("SELECT next_val FROM study_session_seq", Long.class))
+            .isEqualTo(130L + StudySession.ID_ALLOCATION_SIZE);
+        assertThat(jdbc.queryForList("SELECT current_value FROM user_challenge_progress", Integer.class))
+            .containsExactly(3);
+
+        // Old LONGTEXT bodies keep their bytes and read as plain UTF-8
+        DeflateTextConverter converter = new DeflateTextConverter();
+        byte[] stored = jdbc.queryForObject("SELECT answer FROM ai_conversation WHERE id = 1", byte[].class);
+        assertThat(stored).isEqualTo(answer.getBytes(StandardCharsets.UTF_8));
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(answer);
+
+        // V7 fills in the previews the history listing reads
+        assertThat(jdbc.queryForList("SELECT prompt_preview FROM ai_conversation ORDER BY id", String.class))
+            .containsExactly("What do mitochondria do?", AiConversation.preview(longPrompt));
+    }
+}
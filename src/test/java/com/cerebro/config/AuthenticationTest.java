@@ -0,0 +1,58 @@
+package com.cerebro.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** With the development header off, as in production, only a real principal identifies the user. */
+@SpringBootTest(properties = "cerebro.auth.dev-header.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class AuthenticationTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void userIdHeaderIsNotTrusted() throws Exception {
+        mvc.perform(get("/api/courses").header(DevUserHeaderFilter.HEADER, "1"))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void authenticatedPrincipalIsTheCurrentUser() throws Exception {
+        mvc.perform(get("/api/challenges/progress/{userId}", 7).with(user("7")))
+            .andExpect(status().isOk());
+        mvc.perform(get("/api/challenges/progress/{userId}", 8).with(user("7")))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void principalThatIsNotAUserIdIsRejected() throws Exception {
+        mvc.perform(get("/api/courses").with(user("admin")))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void corsPreflightNeedsNoUser() throws Exception {
+        mvc.perform(options("/api/courses")
+                .header(HttpHeaders.ORIGIN, "http://localhost:5173")
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "GET")
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, DevUserHeaderFilter.HEADER))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void healthNeedsNoUser() throws Exception {
+        mvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+}
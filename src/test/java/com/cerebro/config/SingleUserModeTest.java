@@ -0,0 +1,59 @@
+package com.cerebro.config;
+
+import com.cerebro.model.Challenge;
+import com.cerebro.model.ChallengeType;
+import com.cerebro.repository.ChallengeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** The out-of-the-box settings: no login, every request is the single user. */
+@SpringBootTest(properties = {
+    "cerebro.auth.dev-header.enabled=false",
+    "cerebro.auth.single-user-id=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class SingleUserModeTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ChallengeRepository challengeRepo;
+
+    @Test
+    void requestsWithoutCredentialsActAsTheSingleUser() throws Exception {
+        mvc.perform(get("/api/courses")).andExpect(status().isOk());
+        mvc.perform(get("/api/challenges/progress")).andExpect(status().isOk());
+        mvc.perform(get("/api/challenges/progress/{userId}", 1)).andExpect(status().isOk());
+        mvc.perform(get("/api/challenges/progress/{userId}", 2)).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void singleUserMayDeleteChallengesWithoutACreator() throws Exception {
+        Challenge challenge = new Challenge();
+        challenge.setTitle("From before accounts");
+        challenge.setType(ChallengeType.HOURS);
+        challenge.setTargetValue(3);
+        challenge = challengeRepo.save(challenge);
+
+        mvc.perform(delete("/api/challenges/{id}", challenge.getId())).andExpect(status().isOk());
+    }
+
+    @Test
+    void anAuthenticatedPrincipalTakesPrecedence() throws Exception {
+        mvc.perform(get("/api/challenges/progress/{userId}", 7).with(user("7")))
+            .andExpect(status().isOk());
+        mvc.perform(get("/api/challenges/progress/{userId}", 1).with(user("7")))
+            .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,67 @@
+package com.cerebro.config;
+
+import com.cerebro.model.StudySession;
+import com.cerebro.repository.StudySessionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A database upgraded from AUTO_INCREMENT: rows already hold ids 1..120 and
+ * study_session_seq is still at 1. After alignment, JPA inserts spanning
+ * more than one id block must land above the existing rows.
+ *
+ * Runs with the MySQL dialect so the sequence is the table-backed one.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQL8Dialect")
+@ActiveProfiles("h2")
+class StudySessionSequenceInitializerTest {
+
+    private static final long USER = 81L;
+    private static final int LEGACY_ROWS = 120;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private StudySessionSequenceInitializer initializer;
+
+    @Autowired
+    private StudySessionRepository repo;
+
+    @Test
+    void jpaInsertsStartAboveLegacyIds() {
+        for (long id = 1; id <= LEGACY_ROWS; id++) {
+            jdbc.update("INSERT INTO study_session (id, user_id, duration_in_minutes) VALUES (?, ?, 30)", id, USER);
+        }
+        jdbc.update("UPDATE study_session_seq SET next_val = 1");
+
+        initializer.alignWithExistingRows();
+
+        List<StudySession> sessions = new ArrayList<>();
+        for (int i = 0; i < StudySession.ID_ALLOCATION_SIZE + 10; i++) {
+            StudySession s = new StudySession();
+            s.setUserId(USER);
+            s.setStartTime(Instant.parse("2026-01-01T10:00:00Z"));
+            s.setEndTime(Instant.parse("2026-01-01T10:30:00Z"));
+            sessions.add(s);
+        }
+        List<StudySession> saved = repo.saveAll(sessions);
+
+        assertThat(saved).extracting(StudySession::getId).allMatch(id -> id > LEGACY_ROWS).doesNotHaveDuplicates();
+        assertThat(repo.count()).isEqualTo(LEGACY_ROWS + sessions.size());
+
+        // Running it again (every boot) leaves an advanced sequence alone
+        long nextVal = jdbc.queryForObject("SELECT next_val FROM study_session_seq", Long.class);
+        initializer.alignWithExistingRows();
+        assertThat(jdbc.queryForObject("SELECT next_val FROM study_session_seq", Long.class)).isEqualTo(nextVal);
+    }
+}
@@ -0,0 +1,85 @@
+package com.cerebro.controller;
+
+import com.cerebro.config.DevUserHeaderFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static com.cerebro.controller.SqlQueries.maxQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Dashboard polls with a current ETag get a 304 without any SQL; a write to
+ * the underlying data changes the tag.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class DashboardConditionalGetTest {
+
+    private static final long USER = 91L;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void unchangedAggregatesRevalidateWithoutQueries() throws Exception {
+        List<String> urls = List.of(
+            "/api/sessions/daily-summary",
+            "/api/sessions/weekly-summary",
+            "/api/sessions/weekly-summary/2",
+            "/api/sessions/streak",
+            "/api/sessions/heatmap",
+            "/api/sessions/insights/completion",
+            "/api/challenges/progress/" + USER);
+        for (String url : urls) {
+            String etag = etagOf(url);
+            mvc.perform(get(url).header(DevUserHeaderFilter.HEADER, USER)
+                    .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(maxQueries(0));
+        }
+    }
+
+    @Test
+    void writesChangeTheTag() throws Exception {
+        String daily = etagOf("/api/sessions/daily-summary");
+        String completion = etagOf("/api/sessions/insights/completion");
+        String challenges = etagOf("/api/challenges/progress/" + USER);
+
+        write("/api/sessions", "{\"startTime\":\"2026-02-02T09:00:00Z\",\"endTime\":\"2026-02-02T09:40:00Z\"}");
+        assertThat(etagOf("/api/sessions/daily-summary")).isNotEqualTo(daily);
+
+        write("/api/courses", "{\"name\":\"Chemistry\"}");
+        assertThat(etagOf("/api/sessions/insights/completion")).isNotEqualTo(completion);
+
+        write("/api/challenges", "{\"title\":\"Read\",\"type\":\"HOURS\",\"targetValue\":3}");
+        assertThat(etagOf("/api/challenges/progress/" + USER)).isNotEqualTo(challenges);
+    }
+
+    private String etagOf(String url) throws Exception {
+        String etag = mvc.perform(get(url).header(DevUserHeaderFilter.HEADER, USER))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).as(url).isNotNull();
+        return etag;
+    }
+
+    private void write(String url, String json) throws Exception {
+        mvc.perform(post(url).header(DevUserHeaderFilter.HEADER, USER)
+                .contentType(MediaType.APPLICATION_JSON).content(json))
+            .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,158 @@
+package com.cerebro.controller;
+
+import com.cerebro.config.DevUserHeaderFilter;
+import com.cerebro.model.Challenge;
+import com.cerebro.model.ChallengeType;
+import com.cerebro.model.Course;
+import com.cerebro.model.StudySession;
+import com.cerebro.model.Topic;
+import com.cerebro.repository.CourseRepository;
+import com.cerebro.repository.StudySessionRepository;
+import com.cerebro.repository.TopicRepository;
+import com.cerebro.service.ChallengeService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.cerebro.controller.SqlQueries.maxQueries;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets for the session, challenge and course endpoints, with a
+ * cold second-level cache. A budget going up means a new N+1 or a lost
+ * projection; tighten it when an endpoint gets cheaper.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class EndpointQueryBudgetTest {
+
+    private static final long USER = 1L;
+
+    private static final int COURSES = 5;
+    private static final int TOPICS_PER_COURSE = 4;
+    private static final int CHALLENGES = 12;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private CourseRepository courseRepo;
+
+    @Autowired
+    private TopicRepository topicRepo;
+
+    @Autowired
+    private StudySessionRepository sessionRepo;
+
+    @Autowired
+    private ChallengeService challengeService;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private Long courseId;
+    private Long topicId;
+    private Long challengeId;
+
+    @BeforeEach
+    void seed() {
+        Instant start = Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(2, ChronoUnit.DAYS);
+        List<StudySession> sessions = new ArrayList<>();
+        for (int c = 0; c < COURSES; c++) {
+            Course course = new Course();
+            course.setName("Course " + c);
+            course.setUserId(USER);
+            course = courseRepo.save(course);
+            courseId = course.getId();
+            for (int t = 0; t < TOPICS_PER_COURSE; t++) {
+                Topic topic = new Topic();
+                topic.setName("Topic " + t);
+                topic.setCourse(course);
+                topic = topicRepo.save(topic);
+                topicId = topic.getId();
+
+                StudySession session = new StudySession();
+                session.setUserId(USER);
+                session.setStartTime(start);
+                session.setEndTime(start.plus(25, ChronoUnit.MINUTES));
+                session.setCourse(course);
+                session.setTopic(topic);
+                sessions.add(session);
+            }
+        }
+        sessionRepo.saveAll(sessions);
+
+        for (int i = 0; i < CHALLENGES; i++) {
+            Challenge challenge = new Challenge();
+            challenge.setTitle("Challenge " + i);
+            challenge.setType(ChallengeType.SESSION_COUNT);
+            challenge.setTargetValue(10);
+            challengeId = challengeService.createChallenge(1L, challenge).getId();
+        }
+    }
+
+    @Test
+    void studySessionEndpoints() throws Exception {
+        expect(get("/api/sessions"), 1);
+        expect(get("/api/sessions").param("limit", "10"), 1);
+        expect(get("/api/sessions").param("courseId", courseId.toString()).param("limit", "10"), 1);
+        expect(get("/api/sessions/course/{id}", courseId), 1);
+        expect(get("/api/sessions/topic/{id}", topicId), 1);
+        expect(get("/api/sessions/course/{id}/total", courseId), 1);
+        expect(get("/api/sessions/course/totals").param("ids", "1,2,3"), 1);
+        expect(get("/api/sessions/weekly-summary"), 1);
+        expect(get("/api/sessions/daily-summary"), 1);
+        expect(get("/api/sessions/heatmap"), 1);
+        expect(get("/api/sessions/streak"), 1);
+        expect(get("/api/sessions/insights/completion"), 1);
+
+        String body = "{\"startTime\":\"2026-01-05T10:00:00Z\",\"endTime\":\"2026-01-05T10:45:00Z\"," +
+                      "\"course\":{\"id\":" + courseId + "},\"topic\":{\"id\":" + topicId + "}}";
+        // course and topic ownership checks + sequence + insert + rollup upsert
+        expect(post("/api/sessions").contentType(MediaType.APPLICATION_JSON).content(body), 5);
+    }
+
+    @Test
+    void challengeEndpoints() throws Exception {
+        // progress rows aren't serialized with the catalog
+        expect(get("/api/challenges"), 1);
+        expect(get("/api/challenges/progress/{userId}", 1), 1);
+
+        String body = "{\"title\":\"New\",\"type\":\"HOURS\",\"targetValue\":5}";
+        // challenge insert + progress insert
+        expect(post("/api/challenges").contentType(MediaType.APPLICATION_JSON).content(body), 2);
+        // creator check + select (second-level cache hit after the check) + update
+        expect(put("/api/challenges/{id}", challengeId).contentType(MediaType.APPLICATION_JSON).content(body), 3);
+    }
+
+    @Test
+    void courseEndpoints() throws Exception {
+        expect(get("/api/courses"), 1);
+        expect(get("/api/courses/{id}", courseId), 1);
+        expect(get("/api/courses/{id}/topics", courseId), 1);
+    }
+
+    private void expect(MockHttpServletRequestBuilder request, int max) throws Exception {
+        emf.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        mvc.perform(request.header(DevUserHeaderFilter.HEADER, USER))
+            .andExpect(status().is2xxSuccessful())
+            .andExpect(maxQueries(max));
+    }
+}
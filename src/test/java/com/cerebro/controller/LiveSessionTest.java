@@ -0,0 +1,178 @@
+package com.cerebro.controller;
+
+import com.cerebro.config.DevUserHeaderFilter;
+import com.cerebro.service.LiveSessionRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static com.cerebro.controller.SqlQueries.maxQueries;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Live sessions: heartbeats stay off the database, and stopped or lapsed
+ * sessions end up as ordinary study sessions once flushed. The registry runs
+ * on a clock the tests move forward.
+ */
+@SpringBootTest(properties = {
+    "cerebro.live.heartbeat-timeout-seconds=120",
+    "cerebro.live.flush-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class LiveSessionTest {
+
+    private static final long USER = 61L;
+    private static final long LAPSING_USER = 62L;
+    private static final long BRIEF_USER = 63L;
+
+    /** A clock that only moves when told to */
+    static final class TestClock extends Clock {
+        private volatile Instant now = Instant.now();
+
+        void advance(Duration by) {
+            now = now.plus(by);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @TestConfiguration
+    static class ClockConfig {
+        @Bean
+        TestClock clock() {
+            return new TestClock();
+        }
+    }
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LiveSessionRegistry registry;
+
+    @Autowired
+    private TestClock clock;
+
+    @Test
+    void stoppedSessionIsSavedWithItsCourse() throws Exception {
+        long courseId = id(mvc.perform(as(USER, post("/api/courses")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Biology\"}")))
+            .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+
+        String id = start(USER, "{\"courseId\":" + courseId + "}");
+        mvc.perform(as(USER, post("/api/sessions/live/{id}/heartbeat", id)))
+            .andExpect(status().isOk())
+            .andExpect(maxQueries(0));
+        mvc.perform(as(USER, get("/api/sessions/live")))
+            .andExpect(jsonPath("$.id").value(id));
+
+        clock.advance(Duration.ofMinutes(5));
+        mvc.perform(as(USER, post("/api/sessions/live/{id}/stop", id)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.endTime").isNotEmpty());
+        mvc.perform(as(USER, post("/api/sessions/live/{id}/heartbeat", id))).andExpect(status().isNotFound());
+        mvc.perform(as(USER, get("/api/sessions/live"))).andExpect(status().isNoContent());
+
+        registry.flush();
+        mvc.perform(as(USER, get("/api/sessions/course/{id}", courseId)))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].durationInMinutes").value(5));
+    }
+
+    @Test
+    void lapsedSessionIsReapedAtItsLastHeartbeat() throws Exception {
+        String id = start(LAPSING_USER, "{}");
+        clock.advance(Duration.ofSeconds(90));
+        mvc.perform(as(LAPSING_USER, post("/api/sessions/live/{id}/heartbeat", id)))
+            .andExpect(status().isOk());
+        clock.advance(Duration.ofMinutes(5));
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (registry.current(LAPSING_USER).isPresent() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        mvc.perform(as(LAPSING_USER, post("/api/sessions/live/{id}/heartbeat", id)))
+            .andExpect(status().isNotFound());
+
+        registry.flush();
+        mvc.perform(as(LAPSING_USER, get("/api/sessions")))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].durationInMinutes").value(1));
+    }
+
+    @Test
+    void sessionsUnderAMinuteAreNotSaved() throws Exception {
+        // A double-clicked Start replaces the first session straight away
+        start(BRIEF_USER, "{}");
+        String id = start(BRIEF_USER, "{}");
+        clock.advance(Duration.ofSeconds(59));
+        mvc.perform(as(BRIEF_USER, post("/api/sessions/live/{id}/stop", id)))
+            .andExpect(status().isOk());
+
+        registry.flush();
+        mvc.perform(as(BRIEF_USER, get("/api/sessions")))
+            .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void rejectsSomeoneElsesCourse() throws Exception {
+        long courseId = id(mvc.perform(as(USER, post("/api/courses")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Private\"}")))
+            .andReturn().getResponse().getContentAsString());
+        mvc.perform(as(USER + 100, post("/api/sessions/live")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"courseId\":" + courseId + "}")))
+            .andExpect(status().isBadRequest());
+    }
+
+    private String start(long userId, String json) throws Exception {
+        String body = mvc.perform(as(userId, post("/api/sessions/live")
+                .contentType(MediaType.APPLICATION_JSON).content(json)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asText();
+    }
+
+    private long id(String body) throws Exception {
+        JsonNode node = objectMapper.readTree(body);
+        return node.get("id").asLong();
+    }
+
+    private static MockHttpServletRequestBuilder as(long userId, MockHttpServletRequestBuilder request) {
+        return request.header(DevUserHeaderFilter.HEADER, userId);
+    }
+}
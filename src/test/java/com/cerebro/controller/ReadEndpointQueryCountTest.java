@@ -0,0 +1,164 @@
+package com.cerebro.controller;
+
+import com.cerebro.config.DevUserHeaderFilter;
+import com.cerebro.model.Course;
+import com.cerebro.model.StudySession;
+import com.cerebro.model.Topic;
+import com.cerebro.repository.CourseRepository;
+import com.cerebro.repository.StudySessionRepository;
+import com.cerebro.repository.TopicRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statements per read endpoint with a cold second-level cache. Each must be
+ * a single select however many courses, topics and sessions exist; the
+ * entity-based versions loaded course/topic/session associations per row.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class ReadEndpointQueryCountTest {
+
+    private static final long USER = 1L;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private CourseRepository courseRepo;
+
+    @Autowired
+    private TopicRepository topicRepo;
+
+    @Autowired
+    private StudySessionRepository sessionRepo;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Test
+    void readEndpointsIssueOneStatementRegardlessOfDataSize() throws Exception {
+        Course course = seed(2, 3, 2);
+        Map<String, Long> small = statementCounts(urls(course));
+
+        seed(10, 10, 5);
+        Map<String, Long> large = statementCounts(urls(course));
+
+        assertThat(small).allSatisfy((url, count) -> assertThat(count).as(url).isEqualTo(1));
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void keepsTheExistingJsonShape() throws Exception {
+        Course course = seed(1, 1, 1);
+        Topic topic = topicRepo.findAll().stream()
+            .filter(t -> t.getCourse().getId().equals(course.getId()))
+            .findFirst().orElseThrow();
+
+        mvc.perform(get("/api/courses/{id}/topics", course.getId()).header(DevUserHeaderFilter.HEADER, USER))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(topic.getId()))
+            .andExpect(jsonPath("$[0].completed").value(false))
+            .andExpect(jsonPath("$[0].course.name").value(course.getName()));
+
+        mvc.perform(get("/api/sessions/topic/{id}", topic.getId()).header(DevUserHeaderFilter.HEADER, USER))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].durationInMinutes").value(30))
+            .andExpect(jsonPath("$[0].course.description").value("desc"))
+            .andExpect(jsonPath("$[0].topic.name").value(topic.getName()));
+    }
+
+    private static List<String> urls(Course course) {
+        Long courseId = course.getId();
+        Long topicId = course.getTopics().get(0).getId();
+        return List.of(
+            "/api/topics",
+            "/api/topics/" + topicId,
+            "/api/topics/by-course/" + courseId,
+            "/api/courses/" + courseId + "/topics",
+            "/api/courses/" + courseId,
+            "/api/sessions",
+            "/api/sessions?limit=20",
+            "/api/sessions?courseId=" + courseId + "&limit=20",
+            "/api/sessions/course/" + courseId,
+            "/api/sessions/topic/" + topicId,
+            "/api/sessions/stream");
+    }
+
+    private Map<String, Long> statementCounts(List<String> urls) throws Exception {
+        SessionFactory sessionFactory = emf.unwrap(SessionFactory.class);
+        Statistics stats = sessionFactory.getStatistics();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String url : urls) {
+            sessionFactory.getCache().evictAllRegions();
+            stats.clear();
+            MvcResult result = mvc.perform(get(url).header(DevUserHeaderFilter.HEADER, USER)).andReturn();
+            if (result.getRequest().isAsyncStarted()) {
+                mvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+            } else {
+                assertThat(result.getResponse().getStatus()).as(url).isEqualTo(200);
+            }
+            counts.put(url, stats.getPrepareStatementCount());
+        }
+        return counts;
+    }
+
+    /** Returns the first course created, with its topics. */
+    private Course seed(int courses, int topicsPerCourse, int sessionsPerTopic) {
+        Instant start = Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(1, ChronoUnit.DAYS);
+        Course first = null;
+        for (int c = 0; c < courses; c++) {
+            Course course = new Course();
+            course.setName("Course " + c);
+            course.setUserId(USER);
+            course.setDescription("desc");
+            course = courseRepo.save(course);
+
+            List<Topic> topics = new ArrayList<>();
+            List<StudySession> sessions = new ArrayList<>();
+            for (int t = 0; t < topicsPerCourse; t++) {
+                Topic topic = new Topic();
+                topic.setName("Topic " + c + "." + t);
+                topic.setCourse(course);
+                topics.add(topicRepo.save(topic));
+                for (int s = 0; s < sessionsPerTopic; s++) {
+                    StudySession session = new StudySession();
+                    session.setUserId(USER);
+                    session.setStartTime(start);
+                    session.setEndTime(start.plus(30, ChronoUnit.MINUTES));
+                    session.setCourse(course);
+                    session.setTopic(topic);
+                    sessions.add(session);
+                }
+            }
+            sessionRepo.saveAll(sessions);
+            course.setTopics(topics);
+            if (first == null) {
+                first = course;
+            }
+        }
+        return first;
+    }
+}
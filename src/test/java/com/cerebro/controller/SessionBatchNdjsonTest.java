@@ -0,0 +1,43 @@
+package com.cerebro.controller;
+
+import com.cerebro.config.DevUserHeaderFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class SessionBatchNdjsonTest {
+
+    private static final long USER = 51L;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void storesOneSessionPerLine() throws Exception {
+        mvc.perform(post("/api/sessions/batch").header(DevUserHeaderFilter.HEADER, USER)
+                .contentType("application/x-ndjson")
+                .content("{\"startTime\":\"2026-04-01T09:00:00Z\",\"endTime\":\"2026-04-01T09:30:00Z\"}\n" +
+                         "{\"startTime\":\"2026-04-02T09:00:00Z\",\"endTime\":\"2026-04-02T09:10:00Z\"}\n"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.saved").value(2));
+    }
+
+    @Test
+    void malformedLineIsABadRequest() throws Exception {
+        mvc.perform(post("/api/sessions/batch").header(DevUserHeaderFilter.HEADER, USER)
+                .contentType("application/x-ndjson")
+                .content("{\"startTime\":\"2026-04-01T09:00:00Z\",\"endTime\":\"2026-04-01T09:30:00Z\"}\n" +
+                         "{\"startTime\": oops\n"))
+            .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,30 @@
+package com.cerebro.controller;
+
+import com.cerebro.config.RequestSqlStats;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MockMvc matchers over the SQL a request ran, as recorded by
+ * {@link com.cerebro.config.RequestSqlMetricsInterceptor}:
+ * {@code mvc.perform(get(url)).andExpect(maxQueries(2))}.
+ */
+final class SqlQueries {
+
+    private SqlQueries() {}
+
+    static ResultMatcher maxQueries(int max) {
+        return result -> assertThat(statsOf(result).queries())
+            .as("statements run by %s %s (%s)", result.getRequest().getMethod(),
+                result.getRequest().getRequestURI(), statsOf(result))
+            .isLessThanOrEqualTo(max);
+    }
+
+    static RequestSqlStats statsOf(MvcResult result) {
+        RequestSqlStats stats = (RequestSqlStats) result.getRequest().getAttribute(RequestSqlStats.ATTRIBUTE);
+        assertThat(stats).as("no SQL stats recorded; is the request mapped to a controller?").isNotNull();
+        return stats;
+    }
+}
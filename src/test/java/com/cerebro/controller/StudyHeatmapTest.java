@@ -0,0 +1,79 @@
+package com.cerebro.controller;
+
+import com.cerebro.config.DevUserHeaderFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class StudyHeatmapTest {
+
+    private static final long USER = 77L;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void bucketsTheYearAndRevalidatesWithEtag() throws Exception {
+        // Server-local days, like the rollup
+        ZonedDateTime busy = LocalDate.of(2024, 3, 1).atTime(9, 0).atZone(ZoneId.systemDefault());
+        ZonedDateTime quiet = LocalDate.of(2024, 12, 31).atTime(9, 0).atZone(ZoneId.systemDefault());
+        record(busy, 120);
+        record(quiet, 20);
+
+        String etag = mvc.perform(heatmap(2024))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.minutes.length()").value(366))
+            .andExpect(jsonPath("$.maxMinutes").value(120))
+            .andExpect(jsonPath("$.minutes[60]").value(120))
+            .andExpect(jsonPath("$.levels[60]").value(4))
+            .andExpect(jsonPath("$.minutes[365]").value(20))
+            .andExpect(jsonPath("$.levels[365]").value(1))
+            .andExpect(jsonPath("$.levels[0]").value(0))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(heatmap(2024).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+
+        record(quiet.plusHours(1), 15);
+        String changed = mvc.perform(heatmap(2024).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.minutes[365]").value(35))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changed).isNotEqualTo(etag);
+
+        mvc.perform(heatmap(2023)).andExpect(jsonPath("$.minutes.length()").value(365));
+        mvc.perform(heatmap(1900)).andExpect(status().isBadRequest());
+    }
+
+    private void record(ZonedDateTime start, int minutes) throws Exception {
+        String body = "{\"startTime\":\"" + start.toInstant() + "\",\"endTime\":\"" +
+                      start.plusMinutes(minutes).toInstant() + "\"}";
+        mvc.perform(post("/api/sessions").header(DevUserHeaderFilter.HEADER, USER)
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isOk());
+    }
+
+    private static MockHttpServletRequestBuilder heatmap(int year) {
+        return get("/api/sessions/heatmap").param("year", String.valueOf(year))
+            .header(DevUserHeaderFilter.HEADER, USER);
+    }
+}
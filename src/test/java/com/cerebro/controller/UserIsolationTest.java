@@ -0,0 +1,147 @@
+package com.cerebro.controller;
+
+import com.cerebro.config.DevUserHeaderFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * One user's data is invisible to, and can't be referenced or deleted by,
+ * another user.
+ */
+@SpringBootTest(properties = "cerebro.auth.dev-header.admin-ids=" + UserIsolationTest.ADMIN)
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class UserIsolationTest {
+
+    private static final long OWNER = 41L;
+    private static final long OTHER = 42L;
+    static final long ADMIN = 43L;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void usersOnlySeeTheirOwnData() throws Exception {
+        long courseId = create(OWNER, "/api/courses", "{\"name\":\"Mine\"}");
+        long topicId = create(OWNER, "/api/topics", "{\"name\":\"T\",\"course\":{\"id\":" + courseId + "}}");
+        String session = "{\"startTime\":\"2026-01-05T10:00:00Z\",\"endTime\":\"2026-01-05T10:30:00Z\"," +
+                         "\"course\":{\"id\":" + courseId + "},\"topic\":{\"id\":" + topicId + "}}";
+        create(OWNER, "/api/sessions", session);
+        create(OWNER, "/api/notes", "{\"title\":\"Physics\",\"content\":\"quantum tunnelling\"}");
+
+        mvc.perform(as(OTHER, get("/api/courses"))).andExpect(jsonPath("$.length()").value(0));
+        mvc.perform(as(OTHER, get("/api/courses/{id}", courseId))).andExpect(status().isNotFound());
+        mvc.perform(as(OTHER, get("/api/topics"))).andExpect(jsonPath("$.length()").value(0));
+        mvc.perform(as(OTHER, get("/api/sessions"))).andExpect(jsonPath("$.length()").value(0));
+        mvc.perform(as(OTHER, get("/api/sessions/course/{id}/total", courseId))).andExpect(jsonPath("$").value(0));
+        mvc.perform(as(OTHER, get("/api/notes"))).andExpect(jsonPath("$.length()").value(0));
+        mvc.perform(as(OTHER, get("/api/notes/search").param("keyword", "quantum")))
+            .andExpect(jsonPath("$.length()").value(0));
+        mvc.perform(as(OWNER, get("/api/notes/search").param("keyword", "quantum")))
+            .andExpect(jsonPath("$.length()").value(1));
+
+        // References to someone else's course or topic are rejected
+        mvc.perform(as(OTHER, post("/api/sessions").contentType(MediaType.APPLICATION_JSON).content(session)))
+            .andExpect(status().isBadRequest());
+        mvc.perform(as(OTHER, post("/api/topics").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"X\",\"course\":{\"id\":" + courseId + "}}")))
+            .andExpect(status().isBadRequest());
+        mvc.perform(as(OTHER, get("/api/challenges/progress/{userId}", OWNER))).andExpect(status().isForbidden());
+
+        mvc.perform(as(OTHER, delete("/api/courses/{id}", courseId))).andExpect(status().isOk());
+        mvc.perform(as(OWNER, get("/api/courses/{id}", courseId))).andExpect(status().isOk());
+    }
+
+    @Test
+    void aiConversationsAndTheSearchRebuildBelongToTheCaller() throws Exception {
+        long conversationId = create(OWNER, "/api/ai/conversations", "{\"prompt\":\"Private question\",\"answer\":\"a\"}");
+        create(OWNER, "/api/notes", "{\"title\":\"Genetics\",\"content\":\"alleles\"}");
+
+        mvc.perform(as(OTHER, get("/api/ai/conversations"))).andExpect(jsonPath("$.length()").value(0));
+        mvc.perform(as(OTHER, get("/api/ai/conversations").param("limit", "10")))
+            .andExpect(jsonPath("$.length()").value(0));
+        mvc.perform(as(OTHER, get("/api/ai/conversations/summaries"))).andExpect(jsonPath("$.length()").value(0));
+        mvc.perform(as(OTHER, get("/api/ai/conversations/{id}", conversationId))).andExpect(status().isNotFound());
+        mvc.perform(as(OWNER, get("/api/ai/conversations/summaries")))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(conversationId));
+        mvc.perform(as(OWNER, get("/api/ai/conversations/{id}", conversationId))).andExpect(status().isOk());
+
+        // Rebuilding only touches the caller's notes
+        mvc.perform(as(OTHER, post("/api/notes/search/rebuild"))).andExpect(jsonPath("$").value(0));
+        mvc.perform(as(OWNER, get("/api/notes/search").param("keyword", "alleles")))
+            .andExpect(jsonPath("$.length()").value(1));
+        mvc.perform(as(OWNER, post("/api/notes/search/rebuild"))).andExpect(status().isOk());
+        mvc.perform(as(OWNER, get("/api/notes/search").param("keyword", "alleles")))
+            .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void challengesHideProgressAndOnlyTheirCreatorOrAnAdminMayChangeThem() throws Exception {
+        String challenge = "{\"title\":\"Read\",\"type\":\"HOURS\",\"targetValue\":3}";
+        long challengeId = create(OWNER, "/api/challenges", challenge);
+
+        mvc.perform(as(OTHER, get("/api/challenges")))
+            .andExpect(jsonPath("$[?(@.id == " + challengeId + ")].createdBy", contains((int) OWNER)))
+            .andExpect(jsonPath("$[*].progressEntries").doesNotExist());
+
+        mvc.perform(as(OTHER, put("/api/challenges/{id}", challengeId)
+                .contentType(MediaType.APPLICATION_JSON).content(challenge)))
+            .andExpect(status().isForbidden());
+        mvc.perform(as(OTHER, delete("/api/challenges/{id}", challengeId))).andExpect(status().isForbidden());
+        mvc.perform(as(OWNER, get("/api/challenges/progress/{userId}", OWNER)))
+            .andExpect(jsonPath("$.length()").value(1));
+
+        // createdBy in a request body is ignored
+        mvc.perform(as(OWNER, put("/api/challenges/{id}", challengeId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Read more\",\"type\":\"HOURS\",\"targetValue\":4,\"createdBy\":" + OTHER + "}")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.createdBy").value(OWNER));
+        mvc.perform(as(ADMIN, delete("/api/challenges/{id}", challengeId))).andExpect(status().isOk());
+        mvc.perform(as(ADMIN, delete("/api/challenges/{id}", challengeId))).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void rejectsRequestsWithoutAUser() throws Exception {
+        mvc.perform(get("/api/courses")).andExpect(status().isUnauthorized());
+        mvc.perform(post("/api/notes").contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"x\"}"))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void rejectsMalformedUserIds() throws Exception {
+        mvc.perform(get("/api/courses").header(DevUserHeaderFilter.HEADER, "abc"))
+            .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/courses").header(DevUserHeaderFilter.HEADER, "0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private long create(long userId, String url, String json) throws Exception {
+        String body = mvc.perform(as(userId, post(url).contentType(MediaType.APPLICATION_JSON).content(json)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private static MockHttpServletRequestBuilder as(long userId, MockHttpServletRequestBuilder request) {
+        return request.header(DevUserHeaderFilter.HEADER, userId);
+    }
+}
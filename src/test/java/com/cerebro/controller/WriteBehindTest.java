@@ -0,0 +1,145 @@
+package com.cerebro.controller;
+
+import com.cerebro.config.DevUserHeaderFilter;
+import com.cerebro.repository.CourseRepository;
+import com.cerebro.repository.WriteBehindCheckpointRepository;
+import com.cerebro.service.SessionWriteBehind;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.List;
+
+import static com.cerebro.controller.SqlQueries.maxQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** With write-behind on, session POSTs are acknowledged from the log and reach the database shortly after. */
+@SpringBootTest(properties = {
+    "cerebro.write-behind.enabled=true",
+    "cerebro.write-behind.flush-interval-ms=50"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class WriteBehindTest {
+
+    private static final long USER = 71L;
+    private static final long OTHER_USER = 72L;
+
+    @DynamicPropertySource
+    static void logDir(DynamicPropertyRegistry registry) {
+        registry.add("cerebro.write-behind.dir", () -> {
+            try {
+                return Files.createTempDirectory("write-behind").toString();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private SessionWriteBehind writeBehind;
+
+    @Autowired
+    private WriteBehindCheckpointRepository checkpoints;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoSpyBean
+    private CourseRepository courseRepository;
+
+    @Test
+    void sessionsAreAcknowledgedFromTheLogAndWrittenInTheBackground() throws Exception {
+        long before = lastSeq();
+        mvc.perform(post("/api/sessions").header(DevUserHeaderFilter.HEADER, USER)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"startTime\":\"2026-03-02T09:00:00Z\",\"endTime\":\"2026-03-02T09:45:00Z\"}"))
+            .andExpect(status().isAccepted())
+            .andExpect(maxQueries(0));
+        mvc.perform(post("/api/sessions/batch").header(DevUserHeaderFilter.HEADER, USER)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"startTime\":\"2026-03-03T09:00:00Z\",\"endTime\":\"2026-03-03T09:30:00Z\"}," +
+                         "{\"startTime\":\"2026-03-04T09:00:00Z\",\"endTime\":\"2026-03-04T09:20:00Z\"}]"))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.saved").value(2));
+
+        awaitCheckpoint(before + 3);
+        mvc.perform(get("/api/sessions").header(DevUserHeaderFilter.HEADER, USER))
+            .andExpect(jsonPath("$.length()").value(3));
+        assertThat(lastSeq()).isEqualTo(before + 3);
+    }
+
+    @Test
+    void aCourseDeletedBeforeTheWriteOnlyUnlinksItsOwnSessions() throws Exception {
+        long kept = createCourse("Kept");
+        long deleted = createCourse("Deleted");
+        mvc.perform(delete("/api/courses/{id}", deleted).header(DevUserHeaderFilter.HEADER, OTHER_USER))
+            .andExpect(status().isOk());
+
+        // The acknowledgement-time check still sees both courses, as if the
+        // second were deleted after the sessions were logged
+        doAnswer(inv -> List.copyOf(inv.<Collection<Long>>getArgument(1)))
+            .when(courseRepository).findOwnedIds(eq(OTHER_USER), any());
+        long before = lastSeq();
+        mvc.perform(post("/api/sessions/batch").header(DevUserHeaderFilter.HEADER, OTHER_USER)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"startTime\":\"2026-03-05T09:00:00Z\",\"endTime\":\"2026-03-05T09:30:00Z\"," +
+                         "\"course\":{\"id\":" + kept + "}}," +
+                         "{\"startTime\":\"2026-03-06T09:00:00Z\",\"endTime\":\"2026-03-06T09:20:00Z\"," +
+                         "\"course\":{\"id\":" + deleted + "}}]"))
+            .andExpect(status().isAccepted());
+        reset(courseRepository);
+
+        awaitCheckpoint(before + 2);
+        mvc.perform(get("/api/sessions").header(DevUserHeaderFilter.HEADER, OTHER_USER))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[?(@.startTime == '2026-03-05T09:00:00Z')].course.id", contains((int) kept)))
+            .andExpect(jsonPath("$[?(@.startTime == '2026-03-06T09:00:00Z')].course", contains(nullValue())));
+    }
+
+    private long createCourse(String name) throws Exception {
+        String body = mvc.perform(post("/api/courses").header(DevUserHeaderFilter.HEADER, OTHER_USER)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"" + name + "\"}"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private void awaitCheckpoint(long seq) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((writeBehind.backlog() > 0 || lastSeq() < seq) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    private long lastSeq() {
+        return checkpoints.findById("study_session").map(c -> c.getLastSeq()).orElse(0L);
+    }
+}
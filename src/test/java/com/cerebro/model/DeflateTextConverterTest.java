@@ -0,0 +1,81 @@
+package com.cerebro.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.cerebro.model.DeflateTextConverter.MIN_COMPRESS_BYTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeflateTextConverterTest {
+
+    private final DeflateTextConverter converter = new DeflateTextConverter();
+
+    @Test
+    void shortTextIsStoredAsPlainUtf8() {
+        String text = "x".repeat(MIN_COMPRESS_BYTES - 1);
+
+        byte[] stored = converter.convertToDatabaseColumn(text);
+
+        assertThat(stored).isEqualTo(text.getBytes(StandardCharsets.UTF_8));
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(text);
+    }
+
+    @Test
+    void longTextIsCompressedAndReadBack() {
+        String text = "Mitochondria are the powerhouse of the cell — ünïcödé 🧬. ".repeat(40);
+
+        byte[] stored = converter.convertToDatabaseColumn(text);
+
+        // Compressed values start with the NUL of the magic header
+        assertThat(stored[0]).isZero();
+        assertThat(stored.length).isLessThan(text.getBytes(StandardCharsets.UTF_8).length / 4);
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(text);
+    }
+
+    @Test
+    void textAtTheThresholdIsCompressedWhenItShrinks() {
+        String text = "a".repeat(MIN_COMPRESS_BYTES);
+
+        byte[] stored = converter.convertToDatabaseColumn(text);
+
+        assertThat(stored[0]).isZero();
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(text);
+    }
+
+    @Test
+    void textDeflateCannotShrinkIsStoredAsIs() {
+        Random random = new Random(42);
+        StringBuilder noise = new StringBuilder();
+        for (int i = 0; i < MIN_COMPRESS_BYTES + 2; i++) {
+            noise.append((char) ('!' + random.nextInt(94)));
+        }
+        String text = noise.toString();
+
+        byte[] stored = converter.convertToDatabaseColumn(text);
+
+        assertThat(stored).isEqualTo(text.getBytes(StandardCharsets.UTF_8));
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(text);
+    }
+
+    @Test
+    void legacyPlainRowsReadAsUtf8() {
+        String text = "Written before compression: " + "long answer text ".repeat(30) + "é";
+
+        assertThat(converter.convertToEntityAttribute(text.getBytes(StandardCharsets.UTF_8))).isEqualTo(text);
+        assertThat(converter.convertToEntityAttribute(new byte[0])).isEmpty();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+    }
+
+    @Test
+    void truncatedCompressedValueFailsLoudly() {
+        byte[] stored = converter.convertToDatabaseColumn("repeat ".repeat(100));
+
+        assertThatThrownBy(() -> converter.convertToEntityAttribute(Arrays.copyOf(stored, stored.length / 2)))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.cerebro.repository;
+
+import com.cerebro.model.Flashcard;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The flashcard due queue. The shared H2 URL sorts NULL last; this test uses
+ * H2's default, which like MySQL sorts NULL first, so Hibernate's SQL for
+ * NULLS FIRST matches what MySQL runs.
+ */
+@DataJpaTest(properties =
+    "spring.datasource.url=jdbc:h2:mem:flashcards-${random.uuid};MODE=MySQL;DATABASE_TO_LOWER=TRUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class FlashcardRepositoryTest {
+
+    private static final long USER_ID = 1L;
+    private static final long OTHER_USER_ID = 2L;
+    private static final Instant NOW = Instant.parse("2026-05-04T10:00:00Z");
+
+    @Autowired
+    private FlashcardRepository repository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Test
+    void dueQueueListsNeverReviewedCardsFirstThenMostOverdue() {
+        long dueYesterday = card(USER_ID, NOW.minus(Duration.ofDays(1)));
+        long neverReviewed = card(USER_ID, null);
+        long dueLastWeek = card(USER_ID, NOW.minus(Duration.ofDays(7)));
+        long dueNow = card(USER_ID, NOW);
+        card(USER_ID, NOW.plus(Duration.ofHours(1)));
+        card(OTHER_USER_ID, null);
+        card(OTHER_USER_ID, NOW.minus(Duration.ofDays(30)));
+        em.flush();
+        em.clear();
+
+        assertThat(ids(repository.findDue(USER_ID, NOW, Limit.of(10))))
+            .containsExactly(neverReviewed, dueLastWeek, dueYesterday, dueNow);
+        assertThat(ids(repository.findDue(USER_ID, NOW, Limit.of(2))))
+            .containsExactly(neverReviewed, dueLastWeek);
+    }
+
+    @Test
+    void cardsDueAtTheSameInstantAreListedInIdOrder() {
+        long first = card(USER_ID, NOW.minus(Duration.ofDays(2)));
+        long second = card(USER_ID, NOW.minus(Duration.ofDays(2)));
+        em.flush();
+        em.clear();
+
+        assertThat(ids(repository.findDue(USER_ID, NOW, Limit.of(10)))).containsExactly(first, second);
+    }
+
+    private long card(long userId, Instant dueAt) {
+        Flashcard card = new Flashcard();
+        card.setUserId(userId);
+        card.setQuestion("q");
+        card.setAnswer("a");
+        card.setDueAt(dueAt);
+        return em.persistAndGetId(card, Long.class);
+    }
+
+    private static List<Long> ids(List<Flashcard> cards) {
+        return cards.stream().map(Flashcard::getId).toList();
+    }
+}
@@ -0,0 +1,56 @@
+package com.cerebro.service;
+
+import com.cerebro.dto.AiConversationSummary;
+import com.cerebro.model.AiConversation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Conversation rows written before compression existed. */
+@SpringBootTest
+@ActiveProfiles("h2")
+class AiConversationServiceTest {
+
+    private static final long USER = 61L;
+
+    @Autowired
+    private AiConversationService service;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void summariesReadOnlyThePreviewAndLegacyBodiesStayReadable() {
+        String prompt = "Explain the Krebs cycle step by step. ".repeat(10);
+        String answer = "Acetyl-CoA combines with oxaloacetate to form citrate. ".repeat(20);
+        String preview = AiConversation.preview(prompt);
+        // As the migrations leave an old row: LONGTEXT bytes, preview filled in by V7
+        jdbc.update("INSERT INTO ai_conversation (prompt, answer, prompt_preview, created_at, user_id) "
+                  + "VALUES (?, ?, ?, CURRENT_TIMESTAMP, ?)",
+            prompt.getBytes(StandardCharsets.UTF_8), answer.getBytes(StandardCharsets.UTF_8), preview, USER);
+        long id = jdbc.queryForObject("SELECT MAX(id) FROM ai_conversation", Long.class);
+        AiConversation current = service.save(USER, "What is ATP?", "Adenosine triphosphate.");
+
+        List<AiConversationSummary> page = service.getSummaries(USER, null, 10);
+
+        assertThat(page).extracting(AiConversationSummary::id).containsExactly(current.getId(), id);
+        assertThat(page).extracting(AiConversationSummary::promptPreview).containsExactly("What is ATP?", preview);
+        assertThat(service.getSummaries(USER, current.getId(), 10))
+            .extracting(AiConversationSummary::id).containsExactly(id);
+
+        // Listing wrote nothing back
+        byte[] storedAnswer = jdbc.queryForObject("SELECT answer FROM ai_conversation WHERE id = ?", byte[].class, id);
+        assertThat(storedAnswer).isEqualTo(answer.getBytes(StandardCharsets.UTF_8));
+
+        AiConversation reread = service.getConversation(USER, id).orElseThrow();
+        assertThat(reread.getPrompt()).isEqualTo(prompt);
+        assertThat(reread.getAnswer()).isEqualTo(answer);
+    }
+}
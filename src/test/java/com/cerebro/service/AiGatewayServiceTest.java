@@ -0,0 +1,201 @@
+package com.cerebro.service;
+
+import com.cerebro.dto.AiAnswer;
+import com.cerebro.dto.AiAnswer.Source;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Gateway cache tiers against a MockWebServer standing in for Gemini. */
+@SpringBootTest
+@ActiveProfiles("h2")
+class AiGatewayServiceTest {
+
+    private static final long USER = 71L;
+    private static final long OTHER_USER = 72L;
+
+    private static final MockWebServer provider = new MockWebServer();
+
+    static {
+        try {
+            provider.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void providerProperties(DynamicPropertyRegistry registry) {
+        registry.add("cerebro.ai.base-url", () -> provider.url("/v1beta").toString());
+        registry.add("cerebro.ai.api-key", () -> "test-key");
+    }
+
+    @AfterAll
+    static void stopProvider() throws IOException {
+        provider.shutdown();
+    }
+
+    @Autowired
+    private AiGatewayService gateway;
+
+    @Autowired
+    private AiConversationService conversations;
+
+    @Test
+    void normalizedRepeatIsServedFromMemory() throws InterruptedException {
+        int before = provider.getRequestCount();
+        enqueueAnswer("Light to sugar.");
+
+        AiAnswer first = gateway.ask(USER, "What is  Photosynthesis?", false);
+        AiAnswer second = gateway.ask(USER, "  what is photosynthesis? ", false);
+
+        assertThat(first.source()).isEqualTo(Source.PROVIDER);
+        assertThat(second.source()).isEqualTo(Source.MEMORY);
+        assertThat(second.answer()).isEqualTo("Light to sugar.");
+        assertThat(second.conversationId()).isEqualTo(first.conversationId());
+        assertThat(provider.getRequestCount() - before).isEqualTo(1);
+
+        RecordedRequest request = takeRequestContaining("What is  Photosynthesis?");
+        assertThat(request.getPath()).isEqualTo("/v1beta/models/gemini-2.0-flash:generateContent");
+        assertThat(request.getHeader("x-goog-api-key")).isEqualTo("test-key");
+    }
+
+    @Test
+    void fallsBackToPersistedAnswer() {
+        int before = provider.getRequestCount();
+        enqueueAnswer("Mitochondria.");
+
+        AiAnswer first = gateway.ask(USER, "Powerhouse of the cell?", false);
+        gateway.clearMemoryCache();
+        AiAnswer second = gateway.ask(USER, "powerhouse of the cell?", false);
+        AiAnswer third = gateway.ask(USER, "powerhouse of the cell?", false);
+
+        assertThat(second.source()).isEqualTo(Source.DATABASE);
+        assertThat(second.conversationId()).isEqualTo(first.conversationId());
+        assertThat(third.source()).isEqualTo(Source.MEMORY);
+        assertThat(provider.getRequestCount() - before).isEqualTo(1);
+    }
+
+    @Test
+    void cachedAnswerIsSavedAsTheOtherUsersOwnConversation() {
+        int before = provider.getRequestCount();
+        enqueueAnswer("Deoxyribonucleic acid.");
+
+        AiAnswer mine = gateway.ask(USER, "What does DNA stand for?", false);
+        AiAnswer theirs = gateway.ask(OTHER_USER, "what does DNA stand for?", false);
+
+        assertThat(theirs.source()).isEqualTo(Source.MEMORY);
+        assertThat(theirs.answer()).isEqualTo("Deoxyribonucleic acid.");
+        assertThat(theirs.conversationId()).isNotEqualTo(mine.conversationId());
+        assertThat(conversations.getConversation(OTHER_USER, theirs.conversationId())).isPresent();
+        assertThat(conversations.getConversation(OTHER_USER, mine.conversationId())).isEmpty();
+        assertThat(provider.getRequestCount() - before).isEqualTo(1);
+    }
+
+    @Test
+    void repeatsByAnotherUserReuseTheirOwnCopy() {
+        enqueueAnswer("Eight minutes.");
+        enqueueAnswer("About 8 minutes 20 seconds.");
+
+        gateway.ask(USER, "How long does sunlight take to reach Earth?", false);
+        AiAnswer copy = gateway.ask(OTHER_USER, "How long does sunlight take to reach Earth?", false);
+        AiAnswer again = gateway.ask(OTHER_USER, "how long does sunlight take to reach earth?", false);
+        gateway.clearMemoryCache();
+        AiAnswer fromDatabase = gateway.ask(OTHER_USER, "How long does sunlight take to reach Earth?", false);
+
+        assertThat(again.conversationId()).isEqualTo(copy.conversationId());
+        assertThat(fromDatabase.conversationId()).isEqualTo(copy.conversationId());
+
+        // A refreshed answer is a new conversation for the other user too
+        gateway.ask(USER, "How long does sunlight take to reach Earth?", true);
+        AiAnswer refreshed = gateway.ask(OTHER_USER, "How long does sunlight take to reach Earth?", false);
+        assertThat(refreshed.answer()).isEqualTo("About 8 minutes 20 seconds.");
+        assertThat(refreshed.conversationId()).isNotEqualTo(copy.conversationId());
+    }
+
+    @Test
+    void bypassRefreshesTheCachedAnswer() {
+        enqueueAnswer("Old answer.");
+        enqueueAnswer("New answer.");
+
+        gateway.ask(USER, "Capital of Australia?", false);
+        AiAnswer bypassed = gateway.ask(USER, "Capital of Australia?", true);
+        AiAnswer cached = gateway.ask(USER, "Capital of Australia?", false);
+
+        assertThat(bypassed.source()).isEqualTo(Source.PROVIDER);
+        assertThat(cached.source()).isEqualTo(Source.MEMORY);
+        assertThat(cached.answer()).isEqualTo("New answer.");
+    }
+
+    @Test
+    void providerErrorsAreNotCached() {
+        provider.enqueue(new MockResponse().setResponseCode(503).setBody("{\"error\":\"overloaded\"}"));
+        enqueueAnswer("Recovered.");
+
+        assertThatThrownBy(() -> gateway.ask(USER, "Flaky question?", false))
+            .isInstanceOf(AiProviderException.class)
+            .hasMessageContaining("503");
+        assertThat(gateway.ask(USER, "Flaky question?", false).source()).isEqualTo(Source.PROVIDER);
+    }
+
+    @Test
+    void streamsFragmentsThenServesTheSavedAnswer() throws InterruptedException {
+        provider.enqueue(new MockResponse()
+            .setHeader("Content-Type", "text/event-stream")
+            .setBody(sseChunk("Newton's ") + sseChunk("third ") + sseChunk("law.")
+                + "data: {\"candidates\":[{\"finishReason\":\"STOP\"}]}\n\n"));
+
+        List<String> fragments = new ArrayList<>();
+        AiAnswer streamed = gateway.stream(USER, "Action and reaction?", false, fragments::add);
+
+        assertThat(fragments).containsExactly("Newton's ", "third ", "law.");
+        assertThat(streamed.source()).isEqualTo(Source.PROVIDER);
+        assertThat(streamed.answer()).isEqualTo("Newton's third law.");
+        assertThat(takeRequestContaining("Action and reaction?").getPath())
+            .isEqualTo("/v1beta/models/gemini-2.0-flash:streamGenerateContent?alt=sse");
+
+        List<String> again = new ArrayList<>();
+        AiAnswer cached = gateway.stream(USER, "action and reaction?", false, again::add);
+        assertThat(cached.source()).isEqualTo(Source.MEMORY);
+        assertThat(again).containsExactly("Newton's third law.");
+    }
+
+    private static String sseChunk(String text) {
+        return "data: {\"candidates\":[{\"content\":{\"role\":\"model\",\"parts\":[{\"text\":\""
+            + text + "\"}]}}]}\r\n\r\n";
+    }
+
+    // The server is shared by all tests, so skip requests made by the others
+    private static RecordedRequest takeRequestContaining(String text) throws InterruptedException {
+        RecordedRequest request;
+        while ((request = provider.takeRequest(1, TimeUnit.SECONDS)) != null) {
+            if (request.getBody().readUtf8().contains(text)) {
+                return request;
+            }
+        }
+        throw new AssertionError("No provider request containing " + text);
+    }
+
+    private static void enqueueAnswer(String text) {
+        provider.enqueue(new MockResponse()
+            .setHeader("Content-Type", "application/json")
+            .setBody("{\"candidates\":[{\"content\":{\"role\":\"model\",\"parts\":[{\"text\":\""
+                + text + "\"}]}}]}"));
+    }
+}
@@ -0,0 +1,194 @@
+package com.cerebro.service;
+
+import com.cerebro.model.Challenge;
+import com.cerebro.model.ChallengeType;
+import com.cerebro.model.StudySession;
+import com.cerebro.model.UserChallengeProgress;
+import com.cerebro.repository.UserChallengeProgressRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement count per session save. The previous implementation issued
+ * 2 challenge scans plus a select and an update per matching challenge,
+ * i.e. 2 + 2k statements (82 for the 40 active challenges seeded here).
+ * Every progress row seeded here was joined 30 days ago.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({ChallengeService.class, DashboardVersions.class})
+class ChallengeServiceQueryCountTest {
+
+    private static final long USER_ID = 1L;
+
+    @Autowired
+    private ChallengeService challengeService;
+
+    @Autowired
+    private UserChallengeProgressRepository progressRepo;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private final List<Long> activeHours = new ArrayList<>();
+    private final List<Long> expiredHours = new ArrayList<>();
+    private final List<Long> sessionCounts = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 20; i++) {
+            activeHours.add(seedChallenge(ChallengeType.HOURS, 60, null, null));
+            sessionCounts.add(seedChallenge(ChallengeType.SESSION_COUNT, 3, today.minusDays(1), today.plusDays(1)));
+        }
+        for (int i = 0; i < 5; i++) {
+            seedChallenge(ChallengeType.STREAK, 7, null, null);
+            expiredHours.add(seedChallenge(ChallengeType.HOURS, 60, null, today.minusDays(1)));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void sessionSaveIssuesTwoStatementsWhateverTheChallengeCount() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        challengeService.recomputeProgressFromSessions(USER_ID);
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void countsSessionsWithinTheChallengeDatesAndCompletesInSql() {
+        Instant now = Instant.now();
+        seedSession(now.minus(2, ChronoUnit.HOURS), 30L);
+        seedSession(now.minus(1, ChronoUnit.HOURS), 30L);
+        seedSession(now.minus(10, ChronoUnit.DAYS), 45L);
+
+        challengeService.recomputeProgressFromSessions(USER_ID);
+        em.clear();
+
+        for (Long id : activeHours) {
+            UserChallengeProgress p = progress(id);
+            assertThat(p.getCurrentValue()).isEqualTo(105);
+            assertThat(p.isCompleted()).isTrue();
+        }
+        for (Long id : expiredHours) {
+            assertThat(progress(id).getCurrentValue()).isEqualTo(45);
+        }
+        for (Long id : sessionCounts) {
+            UserChallengeProgress p = progress(id);
+            assertThat(p.getCurrentValue()).isEqualTo(2);
+            assertThat(p.isCompleted()).isFalse();
+        }
+    }
+
+    @Test
+    void sessionsFromBeforeJoiningDontCount() {
+        Instant now = Instant.now();
+        seedSession(now.minus(10, ChronoUnit.DAYS), 45L);
+        seedSession(now.minus(1, ChronoUnit.HOURS), 30L);
+        Long joinedToday = seedChallenge(ChallengeType.HOURS, 60, null, null, now.minus(2, ChronoUnit.HOURS));
+        em.flush();
+
+        challengeService.recomputeProgressFromSessions(USER_ID);
+        em.clear();
+
+        assertThat(progress(joinedToday).getCurrentValue()).isEqualTo(30);
+        assertThat(progress(activeHours.get(0)).getCurrentValue()).isEqualTo(75);
+    }
+
+    @Test
+    void recomputingAgainCountsNothingTwice() {
+        seedSession(Instant.now().minus(1, ChronoUnit.HOURS), 30L);
+
+        // e.g. a repair followed by the job for the session it already saw
+        challengeService.recomputeProgressFromSessions(USER_ID);
+        challengeService.recomputeProgressFromSessions(USER_ID);
+        em.clear();
+
+        assertThat(progress(activeHours.get(0)).getCurrentValue()).isEqualTo(30);
+        assertThat(progress(sessionCounts.get(0)).getCurrentValue()).isEqualTo(1);
+    }
+
+    @Test
+    void deletingAChallengeRemovesEveryUsersProgressInOneStatement() {
+        Long challengeId = activeHours.get(0);
+        for (long userId = 2; userId <= 50; userId++) {
+            UserChallengeProgress p = new UserChallengeProgress();
+            p.setUserId(userId);
+            p.setChallenge(em.find(Challenge.class, challengeId));
+            em.persist(p);
+        }
+        em.flush();
+        em.clear();
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        challengeService.deleteChallengeAndProgress(challengeId);
+        em.flush();
+
+        // progress DELETE + challenge select, its (now empty) progress collection and DELETE
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+        em.clear();
+        assertThat(progressRepo.findAll()).noneMatch(p -> p.getChallenge().getId().equals(challengeId));
+        assertThat(em.find(Challenge.class, challengeId)).isNull();
+    }
+
+    private void seedSession(Instant start, long minutes) {
+        StudySession session = new StudySession();
+        session.setUserId(USER_ID);
+        session.setStartTime(start);
+        session.setEndTime(start.plus(minutes, ChronoUnit.MINUTES));
+        session.setDurationInMinutes(minutes);
+        em.persist(session);
+        em.flush();
+    }
+
+    private UserChallengeProgress progress(Long challengeId) {
+        return progressRepo.findByUserIdAndChallengeId(USER_ID, challengeId).orElseThrow();
+    }
+
+    private Long seedChallenge(ChallengeType type, int target, LocalDate start, LocalDate end) {
+        return seedChallenge(type, target, start, end, Instant.now().minus(30, ChronoUnit.DAYS));
+    }
+
+    private Long seedChallenge(ChallengeType type, int target, LocalDate start, LocalDate end, Instant joinedAt) {
+        Challenge c = new Challenge();
+        c.setTitle(type + " " + target);
+        c.setType(type);
+        c.setTargetValue(target);
+        c.setStartDate(start);
+        c.setEndDate(end);
+        em.persist(c);
+
+        UserChallengeProgress p = new UserChallengeProgress();
+        p.setUserId(USER_ID);
+        p.setChallenge(c);
+        p.setJoinedAt(joinedAt);
+        em.persist(p);
+        return c.getId();
+    }
+}
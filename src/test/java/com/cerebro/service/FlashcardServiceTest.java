@@ -0,0 +1,129 @@
+package com.cerebro.service;
+
+import com.cerebro.model.Flashcard;
+import com.cerebro.repository.FlashcardRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/** SM-2 scheduling, and the review state a new card starts with. */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(FlashcardService.class)
+class FlashcardServiceTest {
+
+    private static final long USER_ID = 1L;
+    private static final Instant NOW = Instant.parse("2026-05-04T10:00:00Z");
+
+    @Autowired
+    private FlashcardService service;
+
+    @Autowired
+    private FlashcardRepository repository;
+
+    @Test
+    void passingReviewsFollowTheIntervalSequence() {
+        Flashcard card = new Flashcard();
+
+        FlashcardService.schedule(card, 4, NOW);
+        assertThat(card.getIntervalDays()).isEqualTo(1);
+        assertThat(card.getRepetitions()).isEqualTo(1);
+        assertThat(card.getEaseFactor()).isCloseTo(2.5, within(1e-9));
+        assertThat(card.getLastReviewedAt()).isEqualTo(NOW);
+        assertThat(card.getDueAt()).isEqualTo(NOW.plus(Duration.ofDays(1)));
+
+        FlashcardService.schedule(card, 4, NOW);
+        assertThat(card.getIntervalDays()).isEqualTo(6);
+
+        FlashcardService.schedule(card, 4, NOW);
+        assertThat(card.getIntervalDays()).isEqualTo(15);
+
+        // A perfect recall raises the ease before it is applied
+        FlashcardService.schedule(card, 5, NOW);
+        assertThat(card.getEaseFactor()).isCloseTo(2.6, within(1e-9));
+        assertThat(card.getIntervalDays()).isEqualTo(39);
+        assertThat(card.getRepetitions()).isEqualTo(4);
+    }
+
+    @Test
+    void failedRecallRestartsTheSequenceAndLowersTheEase() {
+        Flashcard card = reviewed(2.5, 3, 15);
+
+        FlashcardService.schedule(card, 2, NOW);
+
+        assertThat(card.getRepetitions()).isZero();
+        assertThat(card.getIntervalDays()).isEqualTo(1);
+        assertThat(card.getEaseFactor()).isCloseTo(2.18, within(1e-9));
+        assertThat(card.getDueAt()).isEqualTo(NOW.plus(Duration.ofDays(1)));
+    }
+
+    @Test
+    void qualityThreeStillPasses() {
+        Flashcard card = reviewed(2.5, 1, 1);
+
+        FlashcardService.schedule(card, 3, NOW);
+
+        assertThat(card.getRepetitions()).isEqualTo(2);
+        assertThat(card.getIntervalDays()).isEqualTo(6);
+        assertThat(card.getEaseFactor()).isCloseTo(2.36, within(1e-9));
+    }
+
+    @Test
+    void easeNeverDropsBelowTheFloor() {
+        Flashcard card = reviewed(1.4, 0, 0);
+
+        FlashcardService.schedule(card, 0, NOW);
+        assertThat(card.getEaseFactor()).isEqualTo(1.3);
+
+        FlashcardService.schedule(card, 0, NOW);
+        assertThat(card.getEaseFactor()).isEqualTo(1.3);
+    }
+
+    @Test
+    void cardsFromBeforeSchedulingStartAsNew() {
+        Flashcard legacy = new Flashcard();
+        legacy.setQuestion("q");
+
+        FlashcardService.schedule(legacy, 5, NOW);
+
+        assertThat(legacy.getRepetitions()).isEqualTo(1);
+        assertThat(legacy.getIntervalDays()).isEqualTo(1);
+        assertThat(legacy.getEaseFactor()).isCloseTo(2.6, within(1e-9));
+    }
+
+    @Test
+    void createIgnoresReviewStateFromTheRequest() {
+        Flashcard body = reviewed(9.0, 40, 365);
+        body.setQuestion("Capital of Peru?");
+        body.setLastReviewedAt(NOW);
+        body.setDueAt(NOW.plus(Duration.ofDays(365)));
+        Instant before = Instant.now();
+
+        Flashcard saved = repository.findById(service.createFlashcard(USER_ID, body).getId()).orElseThrow();
+
+        assertThat(saved.getUserId()).isEqualTo(USER_ID);
+        assertThat(saved.getEaseFactor()).isNull();
+        assertThat(saved.getRepetitions()).isNull();
+        assertThat(saved.getIntervalDays()).isNull();
+        assertThat(saved.getLastReviewedAt()).isNull();
+        assertThat(saved.getDueAt()).isBetween(before, Instant.now());
+    }
+
+    private static Flashcard reviewed(double ease, int repetitions, int intervalDays) {
+        Flashcard card = new Flashcard();
+        card.setEaseFactor(ease);
+        card.setRepetitions(repetitions);
+        card.setIntervalDays(intervalDays);
+        return card;
+    }
+}
@@ -0,0 +1,173 @@
+package com.cerebro.service;
+
+import com.cerebro.service.NoteSearchIndex.Hit;
+import com.cerebro.service.NoteSearchIndex.QueryTerm;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.cerebro.service.NoteSearchIndex.parseQuery;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NoteSearchIndexTest {
+
+    private static final long USER = 1L;
+    private static final long OTHER_USER = 2L;
+
+    private final NoteSearchIndex index = new NoteSearchIndex();
+
+    @Test
+    void ranksByTermFrequencyLengthAndTitle() {
+        index.put(USER, 1, "Cells", "mitochondria produce energy for the cell");
+        index.put(USER, 2, "Cells", "mitochondria mitochondria mitochondria in every cell");
+        index.put(USER, 3, "Mitochondria", "organelles");
+        index.put(USER, 4, "Plants", "chlorophyll and photosynthesis");
+
+        // Title words count three times, and note 3 is short
+        assertThat(noteIds(search("mitochondria"))).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void rarerTermsWeighMore() {
+        index.put(USER, 1, null, "cell cell");
+        index.put(USER, 2, null, "cell ribosome");
+        index.put(USER, 3, null, "cell membrane");
+
+        // "ribosome" is in one note, "cell" in all of them
+        assertThat(noteIds(search("cell ribosome"))).first().isEqualTo(2L);
+    }
+
+    @Test
+    void prefixTermMatchesEveryWordStartingWithIt() {
+        index.put(USER, 1, null, "photosynthesis");
+        index.put(USER, 2, null, "photon");
+        index.put(USER, 3, null, "phone");
+        index.put(USER, 4, null, "telephoto");
+
+        assertThat(noteIds(search("photo*"))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(search("photo")).isEmpty();
+    }
+
+    @Test
+    void prefixExpansionIsCapped() {
+        for (int i = 0; i < 100; i++) {
+            index.put(USER, i, null, String.format("term%03d", i));
+        }
+
+        List<Hit> hits = index.search(USER, parseQuery("term*"), 1000);
+
+        // Only the first expansions in term order are scored
+        assertThat(noteIds(hits)).hasSize(64).allMatch(id -> id < 64);
+    }
+
+    @Test
+    void stopWordsAreNeitherIndexedNorSearched() {
+        assertThat(parseQuery("the and of")).isEmpty();
+        assertThat(parseQuery("The Biology of CELLS"))
+            .containsExactly(new QueryTerm("biology", false), new QueryTerm("cells", false));
+        // Written as a prefix, a stop word is kept
+        assertThat(parseQuery("th*")).containsExactly(new QueryTerm("th", true));
+
+        index.put(USER, 1, "The cell", "this is the cell");
+        assertThat(index.search(USER, List.of(new QueryTerm("the", false)), 10)).isEmpty();
+        assertThat(noteIds(search("cell"))).containsExactly(1L);
+    }
+
+    @Test
+    void updatesAndRemovalsChangeMatchesAndScores() {
+        index.put(USER, 1, null, "enzyme kinetics");
+        index.put(USER, 2, null, "protein folding");
+        double original = search("enzyme").get(0).score();
+
+        // A second note with the term makes it less distinctive
+        index.put(USER, 2, null, "enzyme folding");
+        assertThat(noteIds(search("enzyme"))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(scoreOf(1L, search("enzyme"))).isLessThan(original);
+        assertThat(search("protein")).isEmpty();
+
+        index.remove(USER, 2);
+        assertThat(noteIds(search("enzyme"))).containsExactly(1L);
+        assertThat(search("folding")).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+
+        // Back to the original two notes, back to the original statistics
+        index.put(USER, 2, null, "protein folding");
+        assertThat(search("enzyme").get(0).score()).isEqualTo(original);
+    }
+
+    @Test
+    void usersOnlySeeAndAreScoredAgainstTheirOwnNotes() {
+        index.put(USER, 1, null, "genetics lecture");
+        index.put(USER, 2, null, "history essay");
+        double before = scoreOf(1L, search("genetics"));
+
+        for (int i = 10; i < 20; i++) {
+            index.put(OTHER_USER, i, null, "genetics genetics");
+        }
+
+        assertThat(noteIds(search("genetics"))).containsExactly(1L);
+        assertThat(scoreOf(1L, search("genetics"))).isEqualTo(before);
+        assertThat(noteIds(index.search(OTHER_USER, parseQuery("lecture"), 10))).isEmpty();
+        assertThat(index.search(3L, parseQuery("genetics"), 10)).isEmpty();
+    }
+
+    @Test
+    void changesMadeDuringARebuildAreKept() {
+        index.put(USER, 1, null, "stale text");
+
+        Stream<Object[]> rows = Stream.<Object[]>of(
+                new Object[] {1L, USER, null, "fresh text"},
+                new Object[] {2L, USER, null, "deleted soon"})
+            .peek(row -> {
+                if (((Number) row[0]).longValue() == 2L) {
+                    // Arrive while the rebuild is still reading rows
+                    index.put(USER, 3, null, "written during rebuild");
+                    index.remove(USER, 2);
+                }
+            });
+        index.rebuild(rows);
+
+        assertThat(noteIds(search("rebuild"))).containsExactly(3L);
+        assertThat(search("deleted")).isEmpty();
+        assertThat(noteIds(search("fresh"))).containsExactly(1L);
+        assertThat(search("stale")).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void userRebuildReplacesOnlyThatUsersSegment() {
+        index.put(USER, 1, null, "stale text");
+        index.put(OTHER_USER, 2, null, "other text");
+
+        int indexed = index.rebuild(USER, Stream.<Object[]>of(
+            new Object[] {3L, USER, null, "fresh text"}));
+
+        assertThat(indexed).isEqualTo(1);
+        assertThat(search("stale")).isEmpty();
+        assertThat(noteIds(search("fresh"))).containsExactly(3L);
+        assertThat(noteIds(index.search(OTHER_USER, parseQuery("other"), 10))).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void limitKeepsTheBestScores() {
+        IntStream.rangeClosed(1, 5).forEach(i ->
+            index.put(USER, i, null, "virus " + "virus ".repeat(i) + "x ".repeat(10)));
+
+        assertThat(noteIds(index.search(USER, parseQuery("virus"), 2))).containsExactly(5L, 4L);
+    }
+
+    private List<Hit> search(String query) {
+        return index.search(USER, parseQuery(query), 10);
+    }
+
+    private static double scoreOf(long noteId, List<Hit> hits) {
+        return hits.stream().filter(h -> h.noteId() == noteId).findFirst().orElseThrow().score();
+    }
+
+    private static List<Long> noteIds(List<Hit> hits) {
+        return hits.stream().map(Hit::noteId).toList();
+    }
+}
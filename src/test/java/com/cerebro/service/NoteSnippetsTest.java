@@ -0,0 +1,53 @@
+package com.cerebro.service;
+
+import org.junit.jupiter.api.Test;
+
+import static com.cerebro.service.NoteSearchIndex.parseQuery;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NoteSnippetsTest {
+
+    @Test
+    void escapesHtmlAroundMarks() {
+        String text = "<script>alert(\"x\")</script> & Biology";
+
+        assertThat(NoteSnippets.highlight(text, parseQuery("biology")))
+            .isEqualTo("&lt;script&gt;alert(&quot;x&quot;)&lt;/script&gt; &amp; <mark>Biology</mark>");
+    }
+
+    @Test
+    void marksEveryMatchingWordIncludingPrefixes() {
+        assertThat(NoteSnippets.highlight("Photons and photosynthesis, not phones", parseQuery("photo*")))
+            .isEqualTo("<mark>Photons</mark> and <mark>photosynthesis</mark>, not phones");
+    }
+
+    @Test
+    void shortTextIsReturnedWhole() {
+        assertThat(NoteSnippets.snippet("A <short> note", parseQuery("nothing")))
+            .isEqualTo("A &lt;short&gt; note");
+        assertThat(NoteSnippets.snippet(null, parseQuery("x"))).isEmpty();
+    }
+
+    @Test
+    void longTextIsCutAroundTheMatchesOnWordBoundaries() {
+        String filler = "lorem ipsum dolor sit amet ".repeat(20);
+        String text = filler + "the krebs cycle & krebs enzymes " + filler;
+
+        String snippet = NoteSnippets.snippet(text, parseQuery("krebs"));
+
+        assertThat(snippet).startsWith("…").endsWith("…")
+            .contains("<mark>krebs</mark> cycle &amp; <mark>krebs</mark> enzymes");
+        String inner = snippet.substring(1, snippet.length() - 1);
+        assertThat(inner.replace("<mark>", "").replace("</mark>", "").replace("&amp;", "&"))
+            .hasSizeLessThanOrEqualTo(NoteSnippets.SNIPPET_LENGTH);
+        assertThat(filler).contains(inner.substring(0, inner.indexOf(' ')));
+    }
+
+    @Test
+    void noMatchShowsTheStart() {
+        String text = "first words " + "padding ".repeat(40);
+
+        assertThat(NoteSnippets.snippet(text, parseQuery("absent")))
+            .startsWith("first words").endsWith("…");
+    }
+}
@@ -0,0 +1,86 @@
+package com.cerebro.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionWriteLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reopenReturnsRecordsAfterTheCheckpointInOrder() throws Exception {
+        List<SessionWriteLog.Entry> durable = new ArrayList<>();
+        try (SessionWriteLog log = new SessionWriteLog(dir, 1 << 20, durable::addAll)) {
+            assertThat(log.open(0)).isEmpty();
+            assertThat(log.append(List.of(bytes("a"), bytes("b")))).isEqualTo(2);
+            assertThat(log.append(List.of(bytes("c")))).isEqualTo(3);
+        }
+        assertThat(durable).extracting(SessionWriteLog.Entry::seq).containsExactly(1L, 2L, 3L);
+
+        try (SessionWriteLog log = new SessionWriteLog(dir, 1 << 20, e -> {})) {
+            List<SessionWriteLog.Entry> replay = log.open(1);
+            assertThat(replay).extracting(e -> new String(e.payload(), StandardCharsets.UTF_8))
+                .containsExactly("b", "c");
+            // Numbering carries on after the last record on disk
+            assertThat(log.append(List.of(bytes("d")))).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void tornTailIsCutOff() throws Exception {
+        try (SessionWriteLog log = new SessionWriteLog(dir, 1 << 20, e -> {})) {
+            log.open(0);
+            log.append(List.of(bytes("kept")));
+            log.append(List.of(bytes("torn")));
+        }
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+
+        try (SessionWriteLog log = new SessionWriteLog(dir, 1 << 20, e -> {})) {
+            assertThat(log.open(0)).extracting(SessionWriteLog.Entry::seq).containsExactly(1L);
+            assertThat(log.append(List.of(bytes("next")))).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void appliedSegmentsAreDeleted() throws Exception {
+        try (SessionWriteLog log = new SessionWriteLog(dir, 64, e -> {})) {
+            log.open(0);
+            for (int i = 0; i < 5; i++) {
+                log.append(List.of(new byte[40]));
+            }
+            assertThat(log.segmentCount()).isEqualTo(5);
+
+            log.truncateThrough(3);
+            assertThat(log.segmentCount()).isEqualTo(2);
+            log.truncateThrough(5);
+            assertThat(log.segmentCount()).isEqualTo(1);
+        }
+        assertThat(segments()).hasSize(1);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
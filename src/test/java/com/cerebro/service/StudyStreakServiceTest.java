@@ -0,0 +1,187 @@
+package com.cerebro.service;
+
+import com.cerebro.model.Challenge;
+import com.cerebro.model.ChallengeType;
+import com.cerebro.model.StudySession;
+import com.cerebro.model.StudyStreak;
+import com.cerebro.model.UserChallengeProgress;
+import com.cerebro.repository.ChallengeRepository;
+import com.cerebro.repository.StudyStreakRepository;
+import com.cerebro.repository.UserChallengeProgressRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streak state kept on write. Sessions go through StudySessionService so the
+ * daily rollup that recomputes read from is filled in as in production.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class StudyStreakServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private StudySessionService sessionService;
+
+    @Autowired
+    private StudyStreakService streakService;
+
+    @Autowired
+    private StudyStreakRepository streakRepo;
+
+    @Autowired
+    private ProgressEventDispatcher dispatcher;
+
+    @Autowired
+    private ChallengeRepository challengeRepo;
+
+    @Autowired
+    private UserChallengeProgressRepository progressRepo;
+
+    @Test
+    void secondSessionOnTheSameDayKeepsTheLength() throws Exception {
+        long user = 301;
+        study(user, TODAY);
+        study(user, TODAY);
+
+        assertThat(stored(user)).satisfies(s -> {
+            assertThat(s.getCurrentLength()).isEqualTo(1);
+            assertThat(s.getLastStudyDate()).isEqualTo(TODAY);
+        });
+        assertThat(streakService.getCurrentStreak(user)).isEqualTo(1);
+    }
+
+    @Test
+    void nextDayExtendsTheStreak() throws Exception {
+        long user = 302;
+        study(user, TODAY.minusDays(2));
+        study(user, TODAY.minusDays(1));
+        study(user, TODAY);
+
+        assertThat(streakService.getCurrentStreak(user)).isEqualTo(3);
+        assertThat(stored(user).getLongestLength()).isEqualTo(3);
+    }
+
+    @Test
+    void gapStartsOverButKeepsTheLongest() throws Exception {
+        long user = 303;
+        study(user, TODAY.minusDays(5));
+        study(user, TODAY.minusDays(4));
+        study(user, TODAY);
+
+        assertThat(streakService.getCurrentStreak(user)).isEqualTo(1);
+        assertThat(stored(user).getLongestLength()).isEqualTo(2);
+    }
+
+    @Test
+    void backDatedSessionBridgingAGapRecomputes() throws Exception {
+        long user = 304;
+        study(user, TODAY.minusDays(2));
+        study(user, TODAY);
+        assertThat(streakService.getCurrentStreak(user)).isEqualTo(1);
+
+        study(user, TODAY.minusDays(1));
+
+        assertThat(streakService.getCurrentStreak(user)).isEqualTo(3);
+        assertThat(stored(user).getLongestLength()).isEqualTo(3);
+    }
+
+    @Test
+    void deletingTheOnlySessionOfADayRepairs() throws Exception {
+        long user = 305;
+        study(user, TODAY.minusDays(2));
+        StudySession middle = study(user, TODAY.minusDays(1));
+        study(user, TODAY);
+        assertThat(streakService.getCurrentStreak(user)).isEqualTo(3);
+
+        sessionService.deleteSession(user, middle.getId());
+        awaitProgress();
+
+        assertThat(streakService.getCurrentStreak(user)).isEqualTo(1);
+        assertThat(stored(user).getLongestLength()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentFirstSessionsShareOneRow() throws Exception {
+        long user = 306;
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<Boolean> first = () -> {
+            start.await();
+            return streakService.recordStudyDay(user, TODAY);
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> a = pool.submit(first);
+            Future<Boolean> b = pool.submit(first);
+            start.countDown();
+
+            // Both get through; only one of them started the streak
+            assertThat(a.get() ^ b.get()).isTrue();
+        } finally {
+            pool.shutdown();
+        }
+        assertThat(stored(user).getCurrentLength()).isEqualTo(1);
+    }
+
+    @Test
+    void readingALapsedStreakResetsStreakChallenges() throws Exception {
+        long user = 307;
+        Challenge challenge = new Challenge();
+        challenge.setTitle("Five days");
+        challenge.setType(ChallengeType.STREAK);
+        challenge.setTargetValue(5);
+        challenge = challengeRepo.save(challenge);
+        UserChallengeProgress progress = new UserChallengeProgress();
+        progress.setUserId(user);
+        progress.setChallenge(challenge);
+        progress = progressRepo.save(progress);
+
+        study(user, TODAY.minusDays(4));
+        study(user, TODAY.minusDays(3));
+        assertThat(progressRepo.findById(progress.getId()).orElseThrow().getCurrentValue()).isEqualTo(2);
+
+        assertThat(streakService.getCurrentStreak(user)).isZero();
+        awaitProgress();
+
+        assertThat(progressRepo.findById(progress.getId()).orElseThrow().getCurrentValue()).isZero();
+        assertThat(stored(user).getCurrentLength()).isZero();
+        assertThat(stored(user).getLongestLength()).isEqualTo(2);
+
+        // Studying again starts a new streak
+        study(user, TODAY);
+        assertThat(streakService.getCurrentStreak(user)).isEqualTo(1);
+        assertThat(progressRepo.findById(progress.getId()).orElseThrow().getCurrentValue()).isEqualTo(1);
+    }
+
+    private StudySession study(long userId, LocalDate day) throws InterruptedException {
+        StudySession session = new StudySession();
+        session.setStartTime(day.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant());
+        session.setDurationInMinutes(30L);
+        StudySession saved = sessionService.createSession(userId, session);
+        awaitProgress();
+        return saved;
+    }
+
+    private void awaitProgress() throws InterruptedException {
+        while (dispatcher.unfinishedJobs() > 0) {
+            Thread.sleep(10);
+        }
+    }
+
+    private StudyStreak stored(long userId) {
+        return streakRepo.findById(userId).orElseThrow();
+    }
+}
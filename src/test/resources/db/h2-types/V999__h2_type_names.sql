@@ -0,0 +1,10 @@
+-- Test-only. H2 in MySQL mode reads some MySQL types as others that
+-- Hibernate's validator then rejects; on MySQL these columns report the
+-- declared type. Turn them into what the validator expects.
+
+-- LONGBLOB becomes BLOB; the entity expects VARBINARY
+alter table ai_conversation alter column prompt varbinary;
+alter table ai_conversation alter column answer varbinary;
+
+-- LONGTEXT becomes VARCHAR; the entity expects CLOB
+alter table doubt alter column answer clob;